@@ -0,0 +1,81 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.apache.ibatis.session.SqlSession;
+
+/**
+ * Base class of the mapper implementations generated when
+ * {@link org.apache.ibatis.session.Configuration#isGenerateMapperImplementations()} is enabled.
+ * <p>
+ * Generated methods call the {@link SqlSession} directly for the common statement shapes and go through
+ * {@link MapperMethod#execute(SqlSession, Object[])} for everything else.
+ */
+public abstract class GeneratedMapper {
+
+  protected final SqlSession sqlSession;
+  private final Methods methods;
+
+  protected GeneratedMapper(SqlSession sqlSession, Methods methods) {
+    this.sqlSession = sqlSession;
+    this.methods = methods;
+  }
+
+  protected final Object execute(int methodIndex, Object[] args) {
+    return methods.getMapperMethod(methodIndex, sqlSession).execute(sqlSession, args);
+  }
+
+  protected final Object convertArgs(int methodIndex, Object[] args) {
+    return methods.getMapperMethod(methodIndex, sqlSession).getMethodSignature().convertArgsToSqlCommandParam(args);
+  }
+
+  /**
+   * Mapper methods shared by all the instances of a generated class.
+   */
+  public static final class Methods {
+
+    private final Class<?> mapperInterface;
+    private final Method[] methods;
+    private final MapperMethod[] resolvedMethods;
+    private final Map<Method, MapperMethod> methodCache;
+
+    Methods(Class<?> mapperInterface, Method[] methods, MapperMethod[] resolvedMethods, Map<Method, MapperMethod> methodCache) {
+      this.mapperInterface = mapperInterface;
+      this.methods = methods;
+      this.resolvedMethods = resolvedMethods;
+      this.methodCache = methodCache;
+    }
+
+    MapperMethod getMapperMethod(int methodIndex, SqlSession sqlSession) {
+      MapperMethod mapperMethod = resolvedMethods[methodIndex];
+      if (mapperMethod != null) {
+        return mapperMethod;
+      }
+      // methods without a statement at generation time fail, or bind, on their first call like with a proxy
+      Method method = methods[methodIndex];
+      mapperMethod = methodCache.get(method);
+      if (mapperMethod == null) {
+        mapperMethod = new MapperMethod(mapperInterface, method, sqlSession.getConfiguration());
+        methodCache.put(method, mapperMethod);
+      }
+      return mapperMethod;
+    }
+  }
+
+}
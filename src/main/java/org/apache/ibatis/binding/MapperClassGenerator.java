@@ -0,0 +1,314 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtConstructor;
+import javassist.CtMethod;
+import javassist.LoaderClassPath;
+import javassist.NotFoundException;
+
+import org.apache.ibatis.binding.MapperMethod.MethodSignature;
+import org.apache.ibatis.binding.MapperMethod.SqlCommand;
+import org.apache.ibatis.lang.UsesJava7;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+
+/**
+ * Generates a {@link GeneratedMapper} subclass implementing a mapper interface with Javassist.
+ * <p>
+ * Inserts, updates, deletes, single row selects, list selects and map selects call the {@link SqlSession}
+ * directly, with the statement id inlined and the argument passed as is when the method has a single unnamed
+ * parameter. Other methods, and methods whose statement is not known yet, delegate to {@link MapperMethod}.
+ * <p>
+ * A class is generated once per interface and set of method bodies and shared by the configurations that resolve
+ * the interface the same way. Classes are defined next to their interface through a private lookup on Java 9 and
+ * later, and injected in the class loader of the interface by Javassist on older JVMs.
+ */
+final class MapperClassGenerator {
+
+  private static final String CLASS_NAME_SUFFIX = "$$MapperImpl$$";
+  // the classes live as long as the class loader of their interface, so neither is referenced strongly
+  private static final Map<Class<?>, GeneratedClasses> generatedClasses = new WeakHashMap<Class<?>, GeneratedClasses>();
+  // MethodHandles.privateLookupIn and Lookup.defineClass, null before Java 9
+  private static final Method privateLookupIn;
+  private static final Method defineClass;
+
+  static {
+    Method[] lookupMethods = getLookupMethods();
+    privateLookupIn = lookupMethods == null ? null : lookupMethods[0];
+    defineClass = lookupMethods == null ? null : lookupMethods[1];
+  }
+
+  private MapperClassGenerator() {
+    // Prevent Instantiation of Static Class
+  }
+
+  static <T> GeneratedClass<T> generate(Class<T> mapperInterface, Map<Method, MapperMethod> methodCache,
+      Configuration configuration) throws Exception {
+    if (Modifier.isPrivate(mapperInterface.getModifiers())) {
+      throw new BindingException("Cannot implement private interface " + mapperInterface.getName());
+    }
+    Method[] methods = getAbstractMethods(mapperInterface);
+    MapperMethod[] resolvedMethods = new MapperMethod[methods.length];
+    String[] bodies = new String[methods.length];
+    for (int i = 0; i < methods.length; i++) {
+      MapperMethod mapperMethod = resolve(mapperInterface, methods[i], configuration);
+      resolvedMethods[i] = mapperMethod;
+      if (mapperMethod != null) {
+        methodCache.put(methods[i], mapperMethod);
+      }
+      bodies[i] = body(i, methods[i], mapperMethod);
+    }
+    Class<?> generatedClass = getGeneratedClass(mapperInterface, methods, bodies);
+    return new GeneratedClass<T>(generatedClass.getConstructor(SqlSession.class, GeneratedMapper.Methods.class),
+        new GeneratedMapper.Methods(mapperInterface, methods, resolvedMethods, methodCache));
+  }
+
+  private static Class<?> getGeneratedClass(Class<?> mapperInterface, Method[] methods, String[] bodies) throws Exception {
+    StringBuilder key = new StringBuilder();
+    for (String body : bodies) {
+      key.append(body).append('\n');
+    }
+    synchronized (generatedClasses) {
+      GeneratedClasses classes = generatedClasses.get(mapperInterface);
+      if (classes == null) {
+        classes = new GeneratedClasses();
+        generatedClasses.put(mapperInterface, classes);
+      }
+      WeakReference<Class<?>> reference = classes.classesByBodies.get(key.toString());
+      Class<?> generatedClass = reference == null ? null : reference.get();
+      if (generatedClass == null) {
+        generatedClass = makeClass(mapperInterface, methods, bodies, ++classes.count);
+        classes.classesByBodies.put(key.toString(), new WeakReference<Class<?>>(generatedClass));
+      }
+      return generatedClass;
+    }
+  }
+
+  private static Class<?> makeClass(Class<?> mapperInterface, Method[] methods, String[] bodies, int classNumber) throws Exception {
+    ClassPool pool = new ClassPool(true);
+    pool.appendClassPath(new ClassClassPath(GeneratedMapper.class));
+    if (mapperInterface.getClassLoader() != null) {
+      pool.appendClassPath(new LoaderClassPath(mapperInterface.getClassLoader()));
+    }
+    CtClass ctClass = pool.makeClass(mapperInterface.getName() + CLASS_NAME_SUFFIX + classNumber);
+    try {
+      ctClass.setSuperclass(pool.get(GeneratedMapper.class.getName()));
+      ctClass.addInterface(pool.get(mapperInterface.getName()));
+      CtConstructor ctConstructor = new CtConstructor(new CtClass[] {
+          pool.get(SqlSession.class.getName()), pool.get(GeneratedMapper.Methods.class.getName()) }, ctClass);
+      ctConstructor.setBody("{ super($1, $2); }");
+      ctClass.addConstructor(ctConstructor);
+      for (int i = 0; i < methods.length; i++) {
+        Method method = methods[i];
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        CtClass[] ctParameterTypes = new CtClass[parameterTypes.length];
+        for (int j = 0; j < parameterTypes.length; j++) {
+          ctParameterTypes[j] = getCtClass(pool, parameterTypes[j]);
+        }
+        CtMethod ctMethod = new CtMethod(getCtClass(pool, method.getReturnType()), method.getName(), ctParameterTypes, ctClass);
+        ctMethod.setModifiers(Modifier.PUBLIC);
+        ctMethod.setBody(bodies[i]);
+        ctClass.addMethod(ctMethod);
+      }
+      return defineClass(ctClass, mapperInterface);
+    } finally {
+      ctClass.detach();
+    }
+  }
+
+  @UsesJava7
+  private static Class<?> defineClass(CtClass ctClass, Class<?> mapperInterface) throws Exception {
+    if (privateLookupIn == null) {
+      return ctClass.toClass(mapperInterface.getClassLoader(), mapperInterface.getProtectionDomain());
+    }
+    Object lookup = privateLookupIn.invoke(null, mapperInterface, MethodHandles.lookup());
+    return (Class<?>) defineClass.invoke(lookup, (Object) ctClass.toBytecode());
+  }
+
+  @UsesJava7
+  private static Method[] getLookupMethods() {
+    try {
+      return new Method[] {
+          MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class),
+          MethodHandles.Lookup.class.getMethod("defineClass", byte[].class) };
+    } catch (NoSuchMethodException e) {
+      return null;
+    } catch (LinkageError e) {
+      // Java 6 has no method handles
+      return null;
+    }
+  }
+
+  private static Method[] getAbstractMethods(Class<?> mapperInterface) {
+    Map<String, Method> signatures = new HashMap<String, Method>();
+    List<Method> methods = new ArrayList<Method>();
+    for (Method method : mapperInterface.getMethods()) {
+      if (!Modifier.isAbstract(method.getModifiers())) {
+        continue;
+      }
+      StringBuilder signature = new StringBuilder(method.getName());
+      for (Class<?> parameterType : method.getParameterTypes()) {
+        signature.append(',').append(parameterType.getName());
+      }
+      Method existing = signatures.get(signature.toString());
+      if (existing == null) {
+        signatures.put(signature.toString(), method);
+        methods.add(method);
+      } else if (!existing.getReturnType().equals(method.getReturnType())) {
+        throw new BindingException("Method " + method.getName() + " of " + mapperInterface.getName()
+            + " is inherited with different return types");
+      }
+    }
+    return methods.toArray(new Method[methods.size()]);
+  }
+
+  private static MapperMethod resolve(Class<?> mapperInterface, Method method, Configuration configuration) {
+    try {
+      return new MapperMethod(mapperInterface, method, configuration);
+    } catch (BindingException e) {
+      return null;
+    }
+  }
+
+  private static String body(int index, Method method, MapperMethod mapperMethod) {
+    String directCall = mapperMethod == null ? null : directCall(index, method, mapperMethod);
+    if (directCall != null) {
+      return "{ " + directCall + " }";
+    }
+    if (void.class.equals(method.getReturnType())) {
+      return "{ execute(" + index + ", $args); }";
+    }
+    return "{ return ($r) execute(" + index + ", $args); }";
+  }
+
+  private static String directCall(int index, Method method, MapperMethod mapperMethod) {
+    SqlCommand command = mapperMethod.getCommand();
+    MethodSignature signature = mapperMethod.getMethodSignature();
+    Class<?> returnType = method.getReturnType();
+    String statement = literal(command.getName());
+    String param = param(index, signature.getParamNameResolver());
+    SqlCommandType type = command.getType();
+    if (type == SqlCommandType.INSERT || type == SqlCommandType.UPDATE || type == SqlCommandType.DELETE) {
+      String call = "sqlSession." + type.name().toLowerCase(Locale.ENGLISH) + "(" + statement + ", " + param + ")";
+      return rowCountResult(call, returnType);
+    }
+    if (type != SqlCommandType.SELECT || signature.hasResultHandler() || signature.returnsCursor()) {
+      return null;
+    }
+    String rowBounds = signature.hasRowBounds() ? ", $" + (signature.getRowBoundsIndex() + 1) : "";
+    if (signature.returnsMany()) {
+      if (!signature.getReturnType().isAssignableFrom(List.class)) {
+        // arrays and other collections are converted by the mapper method
+        return null;
+      }
+      return "return sqlSession.selectList(" + statement + ", " + param + rowBounds + ");";
+    }
+    if (signature.returnsMap()) {
+      return "return ($r) sqlSession.selectMap(" + statement + ", " + param + ", " + literal(signature.getMapKey()) + rowBounds + ");";
+    }
+    if (returnType.isPrimitive()) {
+      // void and primitive results need the null checks of the mapper method
+      return null;
+    }
+    return "return ($r) sqlSession.selectOne(" + statement + ", " + param + ");";
+  }
+
+  private static String rowCountResult(String call, Class<?> returnType) {
+    if (void.class.equals(returnType)) {
+      return call + ";";
+    } else if (int.class.equals(returnType)) {
+      return "return " + call + ";";
+    } else if (Integer.class.equals(returnType)) {
+      return "return Integer.valueOf(" + call + ");";
+    } else if (long.class.equals(returnType)) {
+      return "return (long) " + call + ";";
+    } else if (Long.class.equals(returnType)) {
+      return "return Long.valueOf((long) " + call + ");";
+    } else if (boolean.class.equals(returnType)) {
+      return "return " + call + " > 0;";
+    } else if (Boolean.class.equals(returnType)) {
+      return "return Boolean.valueOf(" + call + " > 0);";
+    }
+    // unsupported return types fail on call in the mapper method
+    return null;
+  }
+
+  private static String param(int index, ParamNameResolver paramNameResolver) {
+    if (paramNameResolver.getParamCount() == 0) {
+      return "null";
+    }
+    int singleParamIndex = paramNameResolver.getSingleParamIndex();
+    if (singleParamIndex >= 0) {
+      return "($w) $" + (singleParamIndex + 1);
+    }
+    return "convertArgs(" + index + ", $args)";
+  }
+
+  private static String literal(String value) {
+    return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+
+  private static CtClass getCtClass(ClassPool pool, Class<?> type) throws NotFoundException {
+    if (type.isArray()) {
+      return pool.get(getCtClass(pool, type.getComponentType()).getName() + "[]");
+    }
+    return pool.get(type.getName());
+  }
+
+  private static class GeneratedClasses {
+    private final Map<String, WeakReference<Class<?>>> classesByBodies = new HashMap<String, WeakReference<Class<?>>>();
+    private int count;
+  }
+
+  static class GeneratedClass<T> {
+
+    private final Constructor<?> constructor;
+    private final GeneratedMapper.Methods methods;
+
+    GeneratedClass(Constructor<?> constructor, GeneratedMapper.Methods methods) {
+      this.constructor = constructor;
+      this.methods = methods;
+    }
+
+    @SuppressWarnings("unchecked")
+    T newInstance(SqlSession sqlSession) {
+      try {
+        return (T) constructor.newInstance(sqlSession, methods);
+      } catch (Exception e) {
+        throw new BindingException("Error creating mapper instance. Cause: " + e, e);
+      }
+    }
+  }
+
+}
@@ -49,6 +49,14 @@ public class MapperMethod {
     this.method = new MethodSignature(config, mapperInterface, method);
   }
 
+  SqlCommand getCommand() {
+    return command;
+  }
+
+  MethodSignature getMethodSignature() {
+    return method;
+  }
+
   public Object execute(SqlSession sqlSession, Object[] args) {
     Object result;
     switch (command.getType()) {
@@ -294,10 +302,18 @@ public class MapperMethod {
       return paramNameResolver.getNamedParams(args);
     }
 
+    ParamNameResolver getParamNameResolver() {
+      return paramNameResolver;
+    }
+
     public boolean hasRowBounds() {
       return rowBoundsIndex != null;
     }
 
+    Integer getRowBoundsIndex() {
+      return rowBoundsIndex;
+    }
+
     public RowBounds extractRowBounds(Object[] args) {
       return hasRowBounds() ? (RowBounds) args[rowBoundsIndex] : null;
     }
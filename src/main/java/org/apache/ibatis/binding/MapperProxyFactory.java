@@ -20,6 +20,9 @@ import java.lang.reflect.Proxy;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSession;
 
 /**
@@ -27,8 +30,12 @@ import org.apache.ibatis.session.SqlSession;
  */
 public class MapperProxyFactory<T> {
 
+  private static final Log log = LogFactory.getLog(MapperProxyFactory.class);
+
   private final Class<T> mapperInterface;
   private final Map<Method, MapperMethod> methodCache = new ConcurrentHashMap<Method, MapperMethod>();
+  private volatile MapperClassGenerator.GeneratedClass<T> generatedClass;
+  private volatile boolean generationFailed;
 
   public MapperProxyFactory(Class<T> mapperInterface) {
     this.mapperInterface = mapperInterface;
@@ -48,8 +55,36 @@ public class MapperProxyFactory<T> {
   }
 
   public T newInstance(SqlSession sqlSession) {
+    final Configuration configuration = sqlSession.getConfiguration();
+    if (configuration != null && configuration.isGenerateMapperImplementations()) {
+      MapperClassGenerator.GeneratedClass<T> mapperClass = getGeneratedClass(configuration);
+      if (mapperClass != null) {
+        return mapperClass.newInstance(sqlSession);
+      }
+    }
     final MapperProxy<T> mapperProxy = new MapperProxy<T>(sqlSession, mapperInterface, methodCache);
     return newInstance(mapperProxy);
   }
 
+  private MapperClassGenerator.GeneratedClass<T> getGeneratedClass(Configuration configuration) {
+    MapperClassGenerator.GeneratedClass<T> mapperClass = generatedClass;
+    if (mapperClass == null && !generationFailed) {
+      synchronized (this) {
+        mapperClass = generatedClass;
+        if (mapperClass == null && !generationFailed) {
+          try {
+            mapperClass = MapperClassGenerator.generate(mapperInterface, methodCache, configuration);
+            generatedClass = mapperClass;
+          } catch (Throwable t) {
+            // Javassist missing, an interface it cannot implement or a JVM where it cannot define classes,
+            // the proxy does the job and the setting was asked for, so this is reported once per mapper
+            generationFailed = true;
+            log.warn("Could not generate an implementation of " + mapperInterface.getName() + ", using a proxy instead. Cause: " + t);
+          }
+        }
+      }
+    }
+    return mapperClass;
+  }
+
 }
@@ -18,6 +18,7 @@ package org.apache.ibatis.binding;
 import org.apache.ibatis.builder.annotation.MapperAnnotationBuilder;
 import org.apache.ibatis.io.ResolverUtil;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.FrozenLookup;
 import org.apache.ibatis.session.SqlSession;
 
 import java.util.Collection;
@@ -35,6 +36,7 @@ public class MapperRegistry {
 
   private final Configuration config;
   private final Map<Class<?>, MapperProxyFactory<?>> knownMappers = new HashMap<Class<?>, MapperProxyFactory<?>>();
+  private volatile FrozenLookup<Class<?>, MapperProxyFactory<?>> frozenMappers;
 
   public MapperRegistry(Configuration config) {
     this.config = config;
@@ -42,7 +44,8 @@ public class MapperRegistry {
 
   @SuppressWarnings("unchecked")
   public <T> T getMapper(Class<T> type, SqlSession sqlSession) {
-    final MapperProxyFactory<T> mapperProxyFactory = (MapperProxyFactory<T>) knownMappers.get(type);
+    final FrozenLookup<Class<?>, MapperProxyFactory<?>> lookup = frozenMappers;
+    final MapperProxyFactory<T> mapperProxyFactory = (MapperProxyFactory<T>) (lookup != null ? lookup.get(type) : knownMappers.get(type));
     if (mapperProxyFactory == null) {
       throw new BindingException("Type " + type + " is not known to the MapperRegistry.");
     }
@@ -54,7 +57,17 @@ public class MapperRegistry {
   }
   
   public <T> boolean hasMapper(Class<T> type) {
-    return knownMappers.containsKey(type);
+    final FrozenLookup<Class<?>, MapperProxyFactory<?>> lookup = frozenMappers;
+    return lookup != null ? lookup.containsKey(type) : knownMappers.containsKey(type);
+  }
+
+  /**
+   * Serves the mapper lookups from a read only snapshot until the next mapper is added.
+   *
+   * @since 3.4.3
+   */
+  public void freeze() {
+    frozenMappers = new FrozenLookup<Class<?>, MapperProxyFactory<?>>(knownMappers);
   }
 
   public <T> void addMapper(Class<T> type) {
@@ -65,6 +78,7 @@ public class MapperRegistry {
         throw new BindingException("Type " + type + " is already known to the MapperRegistry.");
       }
       boolean loadCompleted = false;
+      frozenMappers = null;
       try {
         // 将接口封装成了MapperProxyFactory对象，这个类中的newInstance()方法用来生成一个该接口的代理对象
         knownMappers.put(type, new MapperProxyFactory<T>(type));
@@ -0,0 +1,192 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ibatis.metrics.Histogram;
+import org.apache.ibatis.metrics.StripedCounter;
+
+/**
+ * Statistics of a second level cache, collected by the
+ * {@link org.apache.ibatis.cache.decorators.StatisticsCache} and
+ * {@link org.apache.ibatis.cache.decorators.StorageStatisticsCache} decorators
+ * when the {@code cacheStatisticsEnabled} setting is on.
+ * <p>
+ * Evictions and the memory estimate are only known for the built-in cache implementation. The memory estimate
+ * is the size of the serialized values of read-write caches, read-only caches keep references that are not measured.
+ * Load times are the times spent querying the database after a miss, in nanoseconds.
+ */
+public class CacheStatistics implements CacheStatisticsMXBean {
+
+  private static final double NANOS_PER_MILLI = 1000000d;
+
+  private final String id;
+  private final StripedCounter hits = new StripedCounter();
+  private final StripedCounter misses = new StripedCounter();
+  private final StripedCounter puts = new StripedCounter();
+  private final StripedCounter removals = new StripedCounter();
+  private final StripedCounter storeRemovals = new StripedCounter();
+  private final StripedCounter clears = new StripedCounter();
+  private final AtomicLong storedBytes = new AtomicLong();
+  private final Histogram loadTime = new Histogram();
+  private volatile Cache cache;
+
+  public CacheStatistics(String id) {
+    this.id = id;
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public long getRequests() {
+    return getHits() + getMisses();
+  }
+
+  @Override
+  public long getHits() {
+    return hits.get();
+  }
+
+  @Override
+  public long getMisses() {
+    return misses.get();
+  }
+
+  @Override
+  public double getHitRatio() {
+    long requests = getRequests();
+    return requests == 0 ? 0 : (double) getHits() / requests;
+  }
+
+  @Override
+  public long getPuts() {
+    return puts.get();
+  }
+
+  @Override
+  public long getRemovals() {
+    return removals.get();
+  }
+
+  /**
+   * @return the entries removed by the eviction policy of the cache or collected by the garbage collector
+   */
+  @Override
+  public long getEvictions() {
+    return Math.max(0, storeRemovals.get() - removals.get());
+  }
+
+  @Override
+  public long getClears() {
+    return clears.get();
+  }
+
+  @Override
+  public int getSize() {
+    Cache current = cache;
+    return current == null ? 0 : current.getSize();
+  }
+
+  @Override
+  public long getEstimatedMemory() {
+    return Math.max(0, storedBytes.get());
+  }
+
+  @Override
+  public long getLoads() {
+    return loadTime.getCount();
+  }
+
+  @Override
+  public double getMeanLoadTimeMillis() {
+    return loadTime.getMean() / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double getMaxLoadTimeMillis() {
+    return loadTime.getMax() / NANOS_PER_MILLI;
+  }
+
+  /**
+   * @return the histogram of the load times in nanoseconds
+   */
+  public Histogram getLoadTime() {
+    return loadTime;
+  }
+
+  @Override
+  public void reset() {
+    hits.reset();
+    misses.reset();
+    puts.reset();
+    removals.reset();
+    storeRemovals.reset();
+    clears.reset();
+    loadTime.reset();
+  }
+
+  public void setCache(Cache cache) {
+    this.cache = cache;
+  }
+
+  public void recordHit() {
+    hits.increment();
+  }
+
+  public void recordMiss() {
+    misses.increment();
+  }
+
+  public void recordPut() {
+    puts.increment();
+  }
+
+  public void recordRemoval() {
+    removals.increment();
+  }
+
+  public void recordClear() {
+    clears.increment();
+  }
+
+  public void recordLoad(long elapsedNanos) {
+    loadTime.record(elapsedNanos);
+  }
+
+  public void recordStoreRemoval() {
+    storeRemovals.increment();
+  }
+
+  public void recordStoredBytes(long delta) {
+    storedBytes.addAndGet(delta);
+  }
+
+  public void resetStoredBytes() {
+    storedBytes.set(0);
+  }
+
+  @Override
+  public String toString() {
+    return id + ": requests=" + getRequests() + ", hitRatio=" + getHitRatio() + ", puts=" + getPuts()
+        + ", evictions=" + getEvictions() + ", size=" + getSize() + ", estimatedMemory=" + getEstimatedMemory()
+        + ", loads=" + getLoads() + ", meanLoadTimeMillis=" + getMeanLoadTimeMillis();
+  }
+
+}
@@ -0,0 +1,53 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+/**
+ * JMX view of the {@link CacheStatistics} of a second level cache.
+ */
+public interface CacheStatisticsMXBean {
+
+  String getId();
+
+  long getRequests();
+
+  long getHits();
+
+  long getMisses();
+
+  double getHitRatio();
+
+  long getPuts();
+
+  long getRemovals();
+
+  long getEvictions();
+
+  long getClears();
+
+  int getSize();
+
+  long getEstimatedMemory();
+
+  long getLoads();
+
+  double getMeanLoadTimeMillis();
+
+  double getMaxLoadTimeMillis();
+
+  void reset();
+
+}
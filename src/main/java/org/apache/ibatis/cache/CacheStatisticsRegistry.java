@@ -0,0 +1,122 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Statistics of the second level caches of a configuration, by cache id (the namespace of the mapper).
+ * <p>
+ * When JMX is enabled ({@code cacheStatisticsJmxEnabled} setting), the statistics are registered in the platform
+ * MBean server as {@code org.apache.ibatis:type=CacheStatistics,registry=<n>,name="<cache id>"}, where {@code n}
+ * tells apart the registries (i.e. the configurations) of the JVM. The MBeans are unregistered by
+ * {@link #unregisterMBeans()}, or at the latest once the configuration owning this registry is garbage collected.
+ */
+public class CacheStatisticsRegistry {
+
+  private static final String OBJECT_NAME_PREFIX = "org.apache.ibatis:type=CacheStatistics,registry=";
+  private static final AtomicInteger registryNumber = new AtomicInteger();
+
+  private final ConcurrentMap<String, CacheStatistics> statistics = new ConcurrentHashMap<String, CacheStatistics>();
+  private final int number = registryNumber.incrementAndGet();
+  private boolean enabled;
+  private boolean jmxEnabled;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public boolean isJmxEnabled() {
+    return jmxEnabled;
+  }
+
+  public void setJmxEnabled(boolean jmxEnabled) {
+    this.jmxEnabled = jmxEnabled;
+  }
+
+  /**
+   * @return the statistics of the cache, or null if it was built without statistics
+   */
+  public CacheStatistics getStatistics(String cacheId) {
+    return statistics.get(cacheId);
+  }
+
+  public Map<String, CacheStatistics> getAllStatistics() {
+    return Collections.unmodifiableMap(statistics);
+  }
+
+  public void register(CacheStatistics cacheStatistics) {
+    statistics.put(cacheStatistics.getId(), cacheStatistics);
+    if (jmxEnabled) {
+      registerMBean(cacheStatistics);
+    }
+  }
+
+  /**
+   * Unregisters the MBeans of this registry from the platform MBean server.
+   */
+  public void unregisterMBeans() {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    for (CacheStatistics cacheStatistics : statistics.values()) {
+      try {
+        ObjectName name = objectName(cacheStatistics.getId());
+        if (server.isRegistered(name)) {
+          server.unregisterMBean(name);
+        }
+      } catch (JMException e) {
+        throw new CacheException("Error unregistering the statistics MBean of cache " + cacheStatistics.getId() + ".  Cause: " + e, e);
+      }
+    }
+  }
+
+  @Override
+  protected void finalize() throws Throwable {
+    // the MBeans do not reference this registry, so it is collected along with its configuration
+    unregisterMBeans();
+    super.finalize();
+  }
+
+  private void registerMBean(CacheStatistics cacheStatistics) {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      ObjectName name = objectName(cacheStatistics.getId());
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+      server.registerMBean(cacheStatistics, name);
+    } catch (JMException e) {
+      throw new CacheException("Error registering the statistics MBean of cache " + cacheStatistics.getId() + ".  Cause: " + e, e);
+    }
+  }
+
+  ObjectName objectName(String cacheId) throws JMException {
+    return new ObjectName(OBJECT_NAME_PREFIX + number + ",name=" + ObjectName.quote(cacheId));
+  }
+
+}
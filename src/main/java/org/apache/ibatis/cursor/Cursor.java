@@ -20,7 +20,9 @@ import java.io.Closeable;
 /**
  * Cursor contract to handle fetching items lazily using an Iterator.
  * Cursors are a perfect fit to handle millions of items queries that would not normally fits in memory.
- * Cursor SQL queries must be ordered (resultOrdered="true") using the id columns of the resultMap.
+ * Cursor SQL queries must be ordered using the id columns of the resultMap: nested result maps are always
+ * handled as if resultOrdered="true" was set, so a parent is returned as soon as a row with another id is read
+ * and only the objects of the current parent are retained.
  *
  * @author Guillaume Darmont / guillaume@dropinocean.com
  */
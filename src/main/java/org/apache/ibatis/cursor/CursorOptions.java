@@ -0,0 +1,92 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Per call options of a {@link Cursor}.
+ * <p>
+ * Options are passed where the row bounds of the cursor go, e.g. as the {@link RowBounds} argument of
+ * {@code SqlSession.selectCursor} or as a {@code CursorOptions} parameter of a mapper method.
+ * The fetch size and the forward only hint are applied to the JDBC statement after the statement level
+ * settings ({@code fetchSize}, {@code defaultFetchSize}) so they take precedence over them.
+ * When a prefetch size is set, the cursor maps up to that many objects ahead of the caller
+ * on a background thread. Prefetching stops as soon as the session is used for anything else
+ * (another statement, commit, rollback, close...), the remaining objects are then mapped on the caller thread.
+ */
+public class CursorOptions extends RowBounds {
+
+  public static final int NO_PREFETCH = 0;
+  public static final CursorOptions DEFAULT = new CursorOptions();
+
+  private final Integer fetchSize;
+  private final boolean forwardOnly;
+  private final int prefetchSize;
+
+  public CursorOptions() {
+    this(null, false, NO_PREFETCH);
+  }
+
+  /**
+   * Options without prefetching.
+   *
+   * @param fetchSize the fetch size to set on the statement, or null to keep the statement level setting
+   * @param forwardOnly true to hint the driver that rows are only read once and in order
+   */
+  public CursorOptions(Integer fetchSize, boolean forwardOnly) {
+    this(fetchSize, forwardOnly, NO_PREFETCH);
+  }
+
+  public CursorOptions(Integer fetchSize, boolean forwardOnly, int prefetchSize) {
+    this(NO_ROW_OFFSET, NO_ROW_LIMIT, fetchSize, forwardOnly, prefetchSize);
+  }
+
+  public CursorOptions(int offset, int limit, Integer fetchSize, boolean forwardOnly, int prefetchSize) {
+    super(offset, limit);
+    if (prefetchSize < 0) {
+      throw new IllegalArgumentException("Prefetch size must not be negative but was " + prefetchSize);
+    }
+    this.fetchSize = fetchSize;
+    this.forwardOnly = forwardOnly;
+    this.prefetchSize = prefetchSize;
+  }
+  /**
+   * @return the fetch size to set on the statement, or null to keep the statement level setting.
+   */
+  public Integer getFetchSize() {
+    return fetchSize;
+  }
+
+  /**
+   * @return true if the driver should be hinted that rows are only read once and in order.
+   */
+  public boolean isForwardOnly() {
+    return forwardOnly;
+  }
+
+  /**
+   * @return the number of mapped objects to fetch ahead of the caller, {@link #NO_PREFETCH} to disable it.
+   */
+  public int getPrefetchSize() {
+    return prefetchSize;
+  }
+
+  public boolean isPrefetchEnabled() {
+    return prefetchSize > NO_PREFETCH;
+  }
+
+}
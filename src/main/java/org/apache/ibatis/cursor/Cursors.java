@@ -0,0 +1,45 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+import java.util.List;
+
+import org.apache.ibatis.cursor.defaults.CursorChunks;
+
+/**
+ * Utility methods for {@link Cursor}.
+ */
+public final class Cursors {
+
+  private Cursors() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Returns the remaining items of a cursor grouped in chunks of at most {@code size} items.
+   * The same list instance is cleared and refilled for every chunk so the items of a chunk can be
+   * released before the next one is mapped; copy it if the items must be retained.
+   * It opens the iterator of the cursor, so it can only be called once and not together with {@link Cursor#iterator()}.
+   *
+   * @param cursor the cursor to read
+   * @param size the maximum number of items of a chunk
+   * @return a single use iterable over the chunks of the cursor
+   */
+  public static <T> Iterable<List<T>> chunks(Cursor<T> cursor, int size) {
+    return new CursorChunks<T>(cursor.iterator(), size);
+  }
+
+}
@@ -0,0 +1,77 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Groups the items of a cursor iterator in chunks backed by a single reusable list.
+ * This implementation is not thread safe.
+ */
+public class CursorChunks<T> implements Iterable<List<T>> {
+
+  private final Iterator<T> cursorIterator;
+  private final int size;
+  private final List<T> chunk;
+  private boolean iteratorRetrieved;
+
+  public CursorChunks(Iterator<T> cursorIterator, int size) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive but was " + size);
+    }
+    this.cursorIterator = cursorIterator;
+    this.size = size;
+    this.chunk = new ArrayList<T>(size);
+  }
+
+  @Override
+  public Iterator<List<T>> iterator() {
+    if (iteratorRetrieved) {
+      throw new IllegalStateException("Cannot open more than one iterator on cursor chunks");
+    }
+    iteratorRetrieved = true;
+    return new ChunkIterator();
+  }
+
+  private class ChunkIterator implements Iterator<List<T>> {
+
+    @Override
+    public boolean hasNext() {
+      return cursorIterator.hasNext();
+    }
+
+    @Override
+    public List<T> next() {
+      // release the previous chunk before mapping the next one
+      chunk.clear();
+      while (chunk.size() < size && cursorIterator.hasNext()) {
+        chunk.add(cursorIterator.next());
+      }
+      if (chunk.isEmpty()) {
+        throw new NoSuchElementException();
+      }
+      return chunk;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("Cannot remove element from Cursor");
+    }
+  }
+}
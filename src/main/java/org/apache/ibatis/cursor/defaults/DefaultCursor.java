@@ -22,6 +22,7 @@ import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.session.ResultContext;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.tracing.TraceSpan;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -49,6 +50,7 @@ public class DefaultCursor<T> implements Cursor<T> {
 
     private CursorStatus status = CursorStatus.CREATED;
     private int indexWithRowBound = -1;
+    private TraceSpan traceSpan;
 
     private enum CursorStatus {
 
@@ -101,6 +103,13 @@ public class DefaultCursor<T> implements Cursor<T> {
         return cursorIterator;
     }
 
+    /**
+     * Sets the span of the traced call that opened this cursor, it is ended when the cursor is closed.
+     */
+    public void setTraceSpan(TraceSpan traceSpan) {
+        this.traceSpan = traceSpan;
+    }
+
     @Override
     public void close() {
         if (isClosed()) {
@@ -121,6 +130,15 @@ public class DefaultCursor<T> implements Cursor<T> {
         } catch (SQLException e) {
             // ignore
         }
+        endTraceSpan(null);
+    }
+
+    private void endTraceSpan(Throwable failure) {
+        if (traceSpan != null) {
+            TraceSpan span = traceSpan;
+            traceSpan = null;
+            span.end(failure == null ? getReadItemsCount() : TraceSpan.UNKNOWN_ROWS, failure);
+        }
     }
 
     protected T fetchNextUsingRowBound() {
@@ -140,6 +158,7 @@ public class DefaultCursor<T> implements Cursor<T> {
             status = CursorStatus.OPEN;
             resultSetHandler.handleRowValues(rsw, resultMap, objectWrapperResultHandler, RowBounds.DEFAULT, null);
         } catch (SQLException e) {
+            endTraceSpan(e);
             throw new RuntimeException(e);
         }
 
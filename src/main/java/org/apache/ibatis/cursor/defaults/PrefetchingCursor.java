@@ -0,0 +1,249 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.session.Deadline;
+
+/**
+ * Cursor decorator that maps the next objects of the delegate on a background thread
+ * and hands them to the caller through a bounded queue.
+ * <p>
+ * The background thread uses the executor and the connection of the session, which are not thread safe.
+ * The session calls {@link #stopPrefetching()} before it uses them for anything else, the remaining
+ * objects are then mapped on the caller thread.
+ * This implementation is not thread safe, only the background thread and a single caller may use it.
+ */
+public class PrefetchingCursor<T> implements Cursor<T> {
+
+  private static final Object END_OF_CURSOR = new Object();
+  private static final AtomicInteger threadNumber = new AtomicInteger();
+
+  private final Cursor<T> delegate;
+  private final int offset;
+  private final BlockingQueue<Object> queue;
+  private final Deadline deadline;
+  private final PrefetchingIterator iterator = new PrefetchingIterator();
+
+  private Iterator<T> delegateIterator;
+  private Thread producer;
+  /**
+   * Objects the producer mapped before it was stopped, null as long as the producer may run.
+   */
+  private LinkedList<Object> prefetched;
+  private boolean iteratorRetrieved;
+  private boolean consumed;
+  private volatile boolean stopRequested;
+  private volatile boolean closed;
+  private volatile Throwable failure;
+
+  public PrefetchingCursor(Cursor<T> delegate, int offset, int prefetchSize) {
+    this.delegate = delegate;
+    this.offset = offset;
+    this.queue = new ArrayBlockingQueue<Object>(prefetchSize);
+    this.deadline = Deadline.current();
+  }
+
+  @Override
+  public boolean isOpen() {
+    return iteratorRetrieved && !closed && !consumed;
+  }
+
+  @Override
+  public boolean isConsumed() {
+    return consumed;
+  }
+
+  @Override
+  public int getCurrentIndex() {
+    return offset + iterator.iteratorIndex;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    if (iteratorRetrieved) {
+      throw new IllegalStateException("Cannot open more than one iterator on a Cursor");
+    }
+    iteratorRetrieved = true;
+    delegateIterator = delegate.iterator();
+    if (!closed && prefetched == null) {
+      producer = new Thread(new Producer(), "mybatis-cursor-prefetch-" + threadNumber.incrementAndGet());
+      producer.setDaemon(true);
+      producer.start();
+    }
+    return iterator;
+  }
+
+  /**
+   * Stops the background thread and waits for it to end. The objects it already mapped are kept,
+   * the next ones are mapped on the caller thread. Prefetching is not resumed.
+   */
+  public void stopPrefetching() {
+    if (prefetched != null) {
+      return;
+    }
+    prefetched = new LinkedList<Object>();
+    stopRequested = true;
+    if (producer != null) {
+      boolean interrupted = false;
+      while (producer.isAlive()) {
+        // makes room for a producer waiting on a full queue, it stops as soon as it sees the stop flag
+        queue.drainTo(prefetched);
+        try {
+          producer.join(10);
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      queue.drainTo(prefetched);
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    stopPrefetching();
+    prefetched.clear();
+    delegate.close();
+  }
+
+  private class Producer implements Runnable {
+
+    @Override
+    public void run() {
+      Deadline.bind(deadline);
+      boolean stopped = false;
+      try {
+        while (!stopRequested && delegateIterator.hasNext()) {
+          queue.put(delegateIterator.next());
+        }
+        // once stopped the caller goes on with the delegate, it finds the end of the cursor there
+        stopped = stopRequested;
+      } catch (InterruptedException e) {
+        failure = new ExecutorException("Cursor prefetch was interrupted.", e);
+      } catch (Throwable t) {
+        // errors are handed to the caller too, it would wait forever for the end of the cursor otherwise
+        failure = t;
+      } finally {
+        if (!stopped) {
+          putEndOfCursor();
+        }
+        Deadline.bind(null);
+      }
+    }
+
+    private void putEndOfCursor() {
+      while (true) {
+        try {
+          queue.put(END_OF_CURSOR);
+          return;
+        } catch (InterruptedException e) {
+          // keep trying, the caller only stops waiting when it gets the end marker
+        }
+      }
+    }
+  }
+  private class PrefetchingIterator implements Iterator<T> {
+
+    /**
+     * Holder for the next object to be returned
+     */
+    private Object object;
+
+    /**
+     * Index of objects returned using next(), and as such, visible to users.
+     */
+    private int iteratorIndex = -1;
+
+    @Override
+    public boolean hasNext() {
+      if (object == null) {
+        object = take();
+      }
+      return object != END_OF_CURSOR;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      T next = (T) object;
+      object = null;
+      iteratorIndex++;
+      return next;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("Cannot remove element from Cursor");
+    }
+
+    private Object take() {
+      if (closed || consumed) {
+        return END_OF_CURSOR;
+      }
+      Object next;
+      if (prefetched == null) {
+        try {
+          next = queue.take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new ExecutorException("Interrupted while waiting for the next cursor item.", e);
+        }
+      } else if (!prefetched.isEmpty()) {
+        next = prefetched.removeFirst();
+      } else if (delegateIterator.hasNext()) {
+        // prefetching was stopped before the end of the cursor, the caller maps the remaining objects
+        next = delegateIterator.next();
+      } else {
+        next = END_OF_CURSOR;
+      }
+      if (next == END_OF_CURSOR) {
+        consumed = true;
+        rethrowFailure();
+      }
+      return next;
+    }
+
+    private void rethrowFailure() {
+      Throwable t = failure;
+      if (t instanceof RuntimeException) {
+        throw (RuntimeException) t;
+      } else if (t instanceof Error) {
+        throw (Error) t;
+      } else if (t != null) {
+        throw new ExecutorException("Error fetching the next cursor item. Cause: " + t, t);
+      }
+    }
+  }
+}
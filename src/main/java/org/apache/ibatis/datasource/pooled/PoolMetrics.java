@@ -0,0 +1,144 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ibatis.metrics.Histogram;
+
+/**
+ * Distributions and gauges of a {@link PooledDataSource}, complementing the totals of the {@link PoolState}.
+ * <p>
+ * The checkout wait time is the time a caller spent in {@code getConnection()}, the usage time is the time
+ * a connection stayed checked out. Both are in milliseconds. A wait timeout is a wait of {@code poolTimeToWait}
+ * that ended without a connection being returned to the pool.
+ * Set the {@code poolJmxName} property of the data source to register the metrics in JMX.
+ */
+public class PoolMetrics implements PoolMetricsMXBean {
+
+  private final PooledDataSource dataSource;
+  private final Histogram checkoutWaitTime = new Histogram();
+  private final Histogram usageTime = new Histogram();
+  private final AtomicLong waitTimeoutCount = new AtomicLong();
+
+  public PoolMetrics(PooledDataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  @Override
+  public int getActiveConnections() {
+    return dataSource.getPoolState().getActiveConnectionCount();
+  }
+
+  @Override
+  public int getIdleConnections() {
+    return dataSource.getPoolState().getIdleConnectionCount();
+  }
+
+  @Override
+  public int getMaximumActiveConnections() {
+    return dataSource.getPoolMaximumActiveConnections();
+  }
+
+  @Override
+  public long getRequestCount() {
+    return dataSource.getPoolState().getRequestCount();
+  }
+
+  @Override
+  public long getHadToWaitCount() {
+    return dataSource.getPoolState().getHadToWaitCount();
+  }
+
+  @Override
+  public long getWaitTimeoutCount() {
+    return waitTimeoutCount.get();
+  }
+
+  @Override
+  public long getClaimedOverdueConnectionCount() {
+    return dataSource.getPoolState().getClaimedOverdueConnectionCount();
+  }
+
+  @Override
+  public long getBadConnectionCount() {
+    return dataSource.getPoolState().getBadConnectionCount();
+  }
+
+  @Override
+  public double getMeanCheckoutWaitTime() {
+    return checkoutWaitTime.getMean();
+  }
+
+  @Override
+  public long getCheckoutWaitTime99thPercentile() {
+    return checkoutWaitTime.getValueAtPercentile(99);
+  }
+
+  @Override
+  public long getMaxCheckoutWaitTime() {
+    return checkoutWaitTime.getMax();
+  }
+
+  @Override
+  public double getMeanUsageTime() {
+    return usageTime.getMean();
+  }
+
+  @Override
+  public long getUsageTime99thPercentile() {
+    return usageTime.getValueAtPercentile(99);
+  }
+
+  @Override
+  public long getMaxUsageTime() {
+    return usageTime.getMax();
+  }
+
+  public Histogram getCheckoutWaitTime() {
+    return checkoutWaitTime;
+  }
+
+  public Histogram getUsageTime() {
+    return usageTime;
+  }
+
+  @Override
+  public void reset() {
+    checkoutWaitTime.reset();
+    usageTime.reset();
+    waitTimeoutCount.set(0);
+  }
+
+  void recordCheckout(long waitTime) {
+    checkoutWaitTime.record(waitTime);
+  }
+
+  void recordUsage(long checkoutTime) {
+    usageTime.record(checkoutTime);
+  }
+
+  void recordWaitTimeout() {
+    waitTimeoutCount.incrementAndGet();
+  }
+
+  @Override
+  public String toString() {
+    return "active=" + getActiveConnections() + ", idle=" + getIdleConnections() + ", checkoutWaitTime=[" + checkoutWaitTime
+        + "], usageTime=[" + usageTime + "], waitTimeouts=" + getWaitTimeoutCount();
+  }
+
+}
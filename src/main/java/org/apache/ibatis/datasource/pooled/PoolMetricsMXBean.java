@@ -0,0 +1,53 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+/**
+ * JMX view of the {@link PoolMetrics} of a {@link PooledDataSource}. Times are in milliseconds.
+ */
+public interface PoolMetricsMXBean {
+
+  int getActiveConnections();
+
+  int getIdleConnections();
+
+  int getMaximumActiveConnections();
+
+  long getRequestCount();
+
+  long getHadToWaitCount();
+
+  long getWaitTimeoutCount();
+
+  long getClaimedOverdueConnectionCount();
+
+  long getBadConnectionCount();
+
+  double getMeanCheckoutWaitTime();
+
+  long getCheckoutWaitTime99thPercentile();
+
+  long getMaxCheckoutWaitTime();
+
+  double getMeanUsageTime();
+
+  long getUsageTime99thPercentile();
+
+  long getMaxUsageTime();
+
+  void reset();
+
+}
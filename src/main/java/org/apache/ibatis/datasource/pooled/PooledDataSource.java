@@ -16,21 +16,29 @@
 package org.apache.ibatis.datasource.pooled;
 
 import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.sql.Statement;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import javax.sql.DataSource;
 
+import org.apache.ibatis.datasource.DataSourceException;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.session.Deadline;
 
 /**
  * This is a simple, synchronous, thread-safe database connection pool.
@@ -42,6 +50,7 @@ public class PooledDataSource implements DataSource {
   private static final Log log = LogFactory.getLog(PooledDataSource.class);
 
   private final PoolState state = new PoolState(this);
+  private final PoolMetrics metrics = new PoolMetrics(this);
 
   private final UnpooledDataSource dataSource;
 
@@ -55,6 +64,7 @@ public class PooledDataSource implements DataSource {
   protected int poolPingConnectionsNotUsedFor;
 
   private int expectedConnectionTypeCode;
+  private String poolJmxName;
 
   public PooledDataSource() {
     dataSource = new UnpooledDataSource();
@@ -221,6 +231,38 @@ public class PooledDataSource implements DataSource {
     forceCloseAll();
   }
 
+  /*
+   * Registers the pool metrics in the platform MBean server as org.apache.ibatis:type=PooledDataSource,name="<name>",
+   * replacing a previous registration of this data source.
+   *
+   * @param poolJmxName the name of the pool in JMX, null to unregister the metrics
+   */
+  public void setPoolJmxName(String poolJmxName) {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      if (this.poolJmxName != null) {
+        ObjectName previousName = poolObjectName(this.poolJmxName);
+        if (server.isRegistered(previousName)) {
+          server.unregisterMBean(previousName);
+        }
+      }
+      if (poolJmxName != null) {
+        ObjectName name = poolObjectName(poolJmxName);
+        if (server.isRegistered(name)) {
+          server.unregisterMBean(name);
+        }
+        server.registerMBean(metrics, name);
+      }
+    } catch (JMException e) {
+      throw new DataSourceException("Error registering the metrics of pool " + poolJmxName + " in JMX.  Cause: " + e, e);
+    }
+    this.poolJmxName = poolJmxName;
+  }
+
+  static ObjectName poolObjectName(String poolJmxName) throws JMException {
+    return new ObjectName("org.apache.ibatis:type=PooledDataSource,name=" + ObjectName.quote(poolJmxName));
+  }
+
   public String getDriver() {
     return dataSource.getDriver();
   }
@@ -277,6 +319,14 @@ public class PooledDataSource implements DataSource {
     return poolPingConnectionsNotUsedFor;
   }
 
+  public String getPoolJmxName() {
+    return poolJmxName;
+  }
+
+  public PoolMetrics getPoolMetrics() {
+    return metrics;
+  }
+
   /*
    * Closes all active and idle connections in the pool
    */
@@ -317,6 +367,30 @@ public class PooledDataSource implements DataSource {
     }
   }
 
+  /*
+   * Closes all active and idle connections in the pool and unregisters the pool metrics from JMX.
+   * The metrics stay registered when the pool properties change, as those only close the connections.
+   */
+  public void close() {
+    forceCloseAll();
+    unregisterMBean();
+  }
+
+  private void unregisterMBean() {
+    if (poolJmxName == null) {
+      return;
+    }
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      ObjectName name = poolObjectName(poolJmxName);
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+    } catch (JMException e) {
+      throw new DataSourceException("Error unregistering the metrics of pool " + poolJmxName + " from JMX.  Cause: " + e, e);
+    }
+  }
+
   public PoolState getPoolState() {
     return state;
   }
@@ -332,6 +406,7 @@ public class PooledDataSource implements DataSource {
       if (conn.isValid()) {
         if (state.idleConnections.size() < poolMaximumIdleConnections && conn.getConnectionTypeCode() == expectedConnectionTypeCode) {
           state.accumulatedCheckoutTime += conn.getCheckoutTime();
+          metrics.recordUsage(conn.getCheckoutTime());
           if (!conn.getRealConnection().getAutoCommit()) {
             conn.getRealConnection().rollback();
           }
@@ -346,6 +421,7 @@ public class PooledDataSource implements DataSource {
           state.notifyAll();
         } else {
           state.accumulatedCheckoutTime += conn.getCheckoutTime();
+          metrics.recordUsage(conn.getCheckoutTime());
           if (!conn.getRealConnection().getAutoCommit()) {
             conn.getRealConnection().rollback();
           }
@@ -369,6 +445,7 @@ public class PooledDataSource implements DataSource {
     PooledConnection conn = null;
     long t = System.currentTimeMillis();
     int localBadConnectionCount = 0;
+    Deadline deadline = Deadline.current();
 
     while (conn == null) {
       synchronized (state) {
@@ -395,6 +472,7 @@ public class PooledDataSource implements DataSource {
               state.claimedOverdueConnectionCount++;
               state.accumulatedCheckoutTimeOfOverdueConnections += longestCheckoutTime;
               state.accumulatedCheckoutTime += longestCheckoutTime;
+              metrics.recordUsage(longestCheckoutTime);
               state.activeConnections.remove(oldestActiveConnection);
               if (!oldestActiveConnection.getRealConnection().getAutoCommit()) {
                 try {
@@ -417,12 +495,25 @@ public class PooledDataSource implements DataSource {
                   state.hadToWaitCount++;
                   countedWait = true;
                 }
+                long timeToWait = poolTimeToWait;
+                if (deadline != null) {
+                  long remaining = deadline.getRemaining(TimeUnit.MILLISECONDS);
+                  if (remaining <= 0) {
+                    metrics.recordWaitTimeout();
+                    throw new SQLTimeoutException("PooledDataSource: The deadline of the call passed while waiting for a connection.");
+                  }
+                  timeToWait = timeToWait > 0 ? Math.min(timeToWait, remaining) : remaining;
+                }
                 if (log.isDebugEnabled()) {
-                  log.debug("Waiting as long as " + poolTimeToWait + " milliseconds for connection.");
+                  log.debug("Waiting as long as " + timeToWait + " milliseconds for connection.");
                 }
                 long wt = System.currentTimeMillis();
-                state.wait(poolTimeToWait);
-                state.accumulatedWaitTime += System.currentTimeMillis() - wt;
+                state.wait(timeToWait);
+                long waitTime = System.currentTimeMillis() - wt;
+                state.accumulatedWaitTime += waitTime;
+                if (waitTime >= poolTimeToWait) {
+                  metrics.recordWaitTimeout();
+                }
               } catch (InterruptedException e) {
                 break;
               }
@@ -439,7 +530,9 @@ public class PooledDataSource implements DataSource {
             conn.setLastUsedTimestamp(System.currentTimeMillis());
             state.activeConnections.add(conn);
             state.requestCount++;
-            state.accumulatedRequestTime += System.currentTimeMillis() - t;
+            long requestTime = System.currentTimeMillis() - t;
+            state.accumulatedRequestTime += requestTime;
+            metrics.recordCheckout(requestTime);
           } else {
             if (log.isDebugEnabled()) {
               log.debug("A bad connection (" + conn.getRealHashCode() + ") was returned from the pool, getting another connection.");
@@ -541,7 +634,7 @@ public class PooledDataSource implements DataSource {
   }
 
   protected void finalize() throws Throwable {
-    forceCloseAll();
+    close();
     super.finalize();
   }
 
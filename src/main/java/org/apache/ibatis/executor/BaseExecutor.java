@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2016 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.apache.ibatis.executor;
 import static org.apache.ibatis.executor.ExecutionPlaceholder.EXECUTION_PLACEHOLDER;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
@@ -26,6 +27,9 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorOptions;
+import org.apache.ibatis.cursor.defaults.DefaultCursor;
+import org.apache.ibatis.cursor.defaults.PrefetchingCursor;
 import org.apache.ibatis.executor.statement.StatementUtil;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
@@ -35,12 +39,17 @@ import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.metrics.MetricsCollector;
+import org.apache.ibatis.metrics.SlowStatementDetector;
+import org.apache.ibatis.metrics.StatementPhase;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.Deadline;
 import org.apache.ibatis.session.LocalCacheScope;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.tracing.TraceSpan;
 import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 
@@ -61,6 +70,10 @@ public abstract class BaseExecutor implements Executor {
 
   protected int queryStack;
   private boolean closed;
+  // span of the sampled call being executed, the parent of the spans of its nested calls
+  private TraceSpan currentSpan;
+  // statements of the call being executed under a deadline
+  private DeadlineScope deadlineScope;
 
   protected BaseExecutor(Configuration configuration, Transaction transaction) {
     this.transaction = transaction;
@@ -114,7 +127,39 @@ public abstract class BaseExecutor implements Executor {
       throw new ExecutorException("Executor was closed.");
     }
     clearLocalCache();
-    return doUpdate(ms, parameter);
+    DeadlineScope enclosingScope = deadlineScope;
+    TraceSpan parentSpan = currentSpan;
+    TraceSpan span = startSpan(ms, parameter, null);
+    SlowStatementDetector slowStatementDetector = configuration.getSlowStatementDetector();
+    if (span == null && slowStatementDetector == null) {
+      try {
+        return doUpdate(ms, parameter);
+      } finally {
+        releaseDeadlineScope(enclosingScope);
+      }
+    }
+    SlowStatementDetector.Execution execution = slowStatementDetector == null ? null : slowStatementDetector.begin();
+    int rows = -1;
+    Throwable failure = null;
+    try {
+      rows = doUpdate(ms, parameter);
+      return rows;
+    } catch (SQLException e) {
+      failure = e;
+      throw e;
+    } catch (RuntimeException e) {
+      failure = e;
+      throw e;
+    } finally {
+      releaseDeadlineScope(enclosingScope);
+      if (execution != null) {
+        slowStatementDetector.end(execution, ms, parameter, null, rows);
+      }
+      if (span != null) {
+        currentSpan = parentSpan;
+        span.end(rows, failure);
+      }
+    }
   }
 
   @Override
@@ -126,13 +171,18 @@ public abstract class BaseExecutor implements Executor {
     if (closed) {
       throw new ExecutorException("Executor was closed.");
     }
-    return doFlushStatements(isRollBack);
+    DeadlineScope enclosingScope = deadlineScope;
+    try {
+      return doFlushStatements(isRollBack);
+    } finally {
+      releaseDeadlineScope(enclosingScope);
+    }
   }
 
   @Override
   public <E> List<E> query(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler) throws SQLException {
     // 这里先获取了BoundSql，在构建StatementHandler调用其父类BaseStatementHandler的构造方法的时候，boundSql就不为null，则不会执行获取主键操作
-    BoundSql boundSql = ms.getBoundSql(parameter);
+    BoundSql boundSql = getBoundSql(ms, parameter);
     CacheKey key = createCacheKey(ms, parameter, rowBounds, boundSql);
     return query(ms, parameter, rowBounds, resultHandler, key, boundSql);
  }
@@ -149,6 +199,7 @@ public abstract class BaseExecutor implements Executor {
       clearLocalCache();
     }
     List<E> list;
+    DeadlineScope enclosingScope = deadlineScope;
     try {
       queryStack++;
       // 从本地缓存中获取
@@ -162,6 +213,7 @@ public abstract class BaseExecutor implements Executor {
       }
     } finally {
       queryStack--;
+      releaseDeadlineScope(enclosingScope);
     }
     if (queryStack == 0) {
       for (DeferredLoad deferredLoad : deferredLoads) {
@@ -179,8 +231,41 @@ public abstract class BaseExecutor implements Executor {
 
   @Override
   public <E> Cursor<E> queryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds) throws SQLException {
-    BoundSql boundSql = ms.getBoundSql(parameter);
-    return doQueryCursor(ms, parameter, rowBounds, boundSql);
+    BoundSql boundSql = getBoundSql(ms, parameter);
+    DeadlineScope enclosingScope = deadlineScope;
+    TraceSpan parentSpan = currentSpan;
+    TraceSpan span = startSpan(ms, parameter, boundSql);
+    Cursor<E> cursor;
+    if (span == null) {
+      try {
+        cursor = doQueryCursor(ms, parameter, rowBounds, boundSql);
+      } finally {
+        releaseDeadlineScope(enclosingScope);
+      }
+    } else {
+      // the span outlives this call, it is ended by the cursor
+      currentSpan = parentSpan;
+      try {
+        cursor = doQueryCursor(ms, parameter, rowBounds, boundSql);
+      } catch (SQLException e) {
+        span.end(TraceSpan.UNKNOWN_ROWS, e);
+        throw e;
+      } catch (RuntimeException e) {
+        span.end(TraceSpan.UNKNOWN_ROWS, e);
+        throw e;
+      } finally {
+        releaseDeadlineScope(enclosingScope);
+      }
+      if (cursor instanceof DefaultCursor) {
+        ((DefaultCursor<?>) cursor).setTraceSpan(span);
+      } else {
+        span.end(TraceSpan.UNKNOWN_ROWS, null);
+      }
+    }
+    if (rowBounds instanceof CursorOptions && ((CursorOptions) rowBounds).isPrefetchEnabled()) {
+      cursor = new PrefetchingCursor<E>(cursor, rowBounds.getOffset(), ((CursorOptions) rowBounds).getPrefetchSize());
+    }
+    return cursor;
   }
 
   @Override
@@ -305,6 +390,62 @@ public abstract class BaseExecutor implements Executor {
     StatementUtil.applyTransactionTimeout(statement, statement.getQueryTimeout(), transaction.getTimeout());
   }
 
+  /**
+   * Apply the deadline bound to the current thread, if any.
+   * The query timeout is lowered to the time left and the statement is cancelled if it is still running
+   * when the deadline passes.
+   * @param statement a statement that has been prepared but not executed yet
+   * @throws SQLException if a database access error occurs, this method is called on a closed <code>Statement</code>
+   * @throws DeadlineExceededException if the deadline has already passed
+   * @see Deadline
+   */
+  protected void applyDeadline(Statement statement) throws SQLException {
+    Deadline deadline = Deadline.current();
+    if (deadline == null) {
+      return;
+    }
+    if (deadline.isExpired()) {
+      throw new DeadlineExceededException("The deadline of the call passed before the statement could be executed.");
+    }
+    int queryTimeout = statement.getQueryTimeout();
+    StatementUtil.applyTransactionTimeout(statement, queryTimeout, deadline.getRemainingSeconds());
+    if (deadlineScope == null) {
+      deadlineScope = new DeadlineScope(deadline);
+    }
+    deadlineScope.register(statement, queryTimeout);
+  }
+
+  /**
+   * Releases the deadline scope created during a call. A nested call (selectKey, nested select, a statement run
+   * by an interceptor) finds the scope of the enclosing call and leaves it to that call.
+   */
+  private void releaseDeadlineScope(DeadlineScope enclosingScope) {
+    if (enclosingScope == null && deadlineScope != null) {
+      deadlineScope.release();
+      deadlineScope = null;
+    }
+  }
+
+  /**
+   * Apply the per call cursor options, if the row bounds carry some.
+   * @param statement a statement that has been prepared but not executed yet
+   * @param rowBounds the row bounds of the cursor to open
+   * @throws SQLException if a database access error occurs, this method is called on a closed <code>Statement</code>
+   * @see CursorOptions
+   */
+  protected void applyCursorOptions(Statement statement, RowBounds rowBounds) throws SQLException {
+    if (!(rowBounds instanceof CursorOptions)) {
+      return;
+    }
+    CursorOptions cursorOptions = (CursorOptions) rowBounds;
+    if (cursorOptions.getFetchSize() != null) {
+      statement.setFetchSize(cursorOptions.getFetchSize());
+    }
+    if (cursorOptions.isForwardOnly()) {
+      statement.setFetchDirection(ResultSet.FETCH_FORWARD);
+    }
+  }
+
   // 如果缓存不为空且执行的是存储过程，则会从parameter中获取结果。因为在执行存储过程的时候不论Mode是IN还是out，都会被设置到请求参数中
   // 查询的时候是获取mode为in的key对应的值作为查询参数，查询结果会被设置到mode为out的key对应的parameter的域中
   private void handleLocallyCachedOutputParameters(MappedStatement ms, CacheKey key, Object parameter, BoundSql boundSql) {
@@ -332,14 +473,32 @@ public abstract class BaseExecutor implements Executor {
    * 从数据库中获取数据
    */
   private <E> List<E> queryFromDatabase(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, CacheKey key, BoundSql boundSql) throws SQLException {
-    List<E> list;
+    List<E> list = null;
     // 缓存设置，这里value设置了一个占位符
     localCache.putObject(key, EXECUTION_PLACEHOLDER);
+    SlowStatementDetector slowStatementDetector = configuration.getSlowStatementDetector();
+    SlowStatementDetector.Execution execution = slowStatementDetector == null ? null : slowStatementDetector.begin();
+    TraceSpan parentSpan = currentSpan;
+    TraceSpan span = startSpan(ms, parameter, boundSql);
+    Throwable failure = null;
     try {
       list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
+    } catch (SQLException e) {
+      failure = e;
+      throw e;
+    } catch (RuntimeException e) {
+      failure = e;
+      throw e;
     } finally {
       // 将上边设置的缓存占位符移除掉了
       localCache.removeObject(key);
+      if (execution != null) {
+        slowStatementDetector.end(execution, ms, parameter, boundSql, list == null ? -1 : list.size());
+      }
+      if (span != null) {
+        currentSpan = parentSpan;
+        span.end(list == null ? TraceSpan.UNKNOWN_ROWS : list.size(), failure);
+      }
     }
     // 缓存执行结果，将占位符替换掉了
     localCache.putObject(key, list);
@@ -350,6 +509,43 @@ public abstract class BaseExecutor implements Executor {
     return list;
   }
 
+  /**
+   * Starts the span of a call if it is sampled and makes it the current span, the caller restores the previous one.
+   * Calls nested in a call that is not sampled are not traced.
+   */
+  private TraceSpan startSpan(MappedStatement ms, Object parameter, BoundSql boundSql) {
+    TraceSpan parent = currentSpan;
+    if (parent == null && (queryStack > 1 || !configuration.getTracer().isSampled(ms.getId()))) {
+      return null;
+    }
+    String sql = (boundSql != null ? boundSql : ms.getBoundSql(parameter)).getSql();
+    TraceSpan span = configuration.getTracer().startSpan(parent, ms.getId(), sql);
+    currentSpan = span;
+    return span;
+  }
+
+  static BoundSql getBoundSql(MappedStatement ms, Object parameter) {
+    MetricsCollector metricsCollector = ms.getConfiguration().getMetricsCollector();
+    if (metricsCollector == null) {
+      return ms.getBoundSql(parameter);
+    }
+    long start = System.nanoTime();
+    BoundSql boundSql = ms.getBoundSql(parameter);
+    metricsCollector.recordPhase(ms, StatementPhase.SQL_GENERATION, System.nanoTime() - start);
+    return boundSql;
+  }
+
+  protected Connection getConnection(MappedStatement ms) throws SQLException {
+    MetricsCollector metricsCollector = configuration.getMetricsCollector();
+    if (metricsCollector == null) {
+      return getConnection(ms.getStatementLog());
+    }
+    long start = System.nanoTime();
+    Connection connection = getConnection(ms.getStatementLog());
+    metricsCollector.recordPhase(ms, StatementPhase.CONNECTION_ACQUISITION, System.nanoTime() - start);
+    return connection;
+  }
+
   protected Connection getConnection(Log statementLog) throws SQLException {
     Connection connection = transaction.getConnection();
     if (statementLog.isDebugEnabled()) {
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2015 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.util.List;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.CacheStatistics;
 import org.apache.ibatis.cache.TransactionalCacheManager;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.mapping.BoundSql;
@@ -27,7 +28,9 @@ import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.metrics.MetricsCollector;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
@@ -78,7 +81,7 @@ public class CachingExecutor implements Executor {
 
   @Override
   public <E> List<E> query(MappedStatement ms, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler) throws SQLException {
-    BoundSql boundSql = ms.getBoundSql(parameterObject);
+    BoundSql boundSql = BaseExecutor.getBoundSql(ms, parameterObject);
     CacheKey key = createCacheKey(ms, parameterObject, rowBounds, boundSql);
     return query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
   }
@@ -100,9 +103,20 @@ public class CachingExecutor implements Executor {
         ensureNoOutParams(ms, parameterObject, boundSql);
         @SuppressWarnings("unchecked")
         List<E> list = (List<E>) tcm.getObject(cache, key);
+        MetricsCollector metricsCollector = ms.getConfiguration().getMetricsCollector();
         if (list == null) {
+          if (metricsCollector != null) {
+            metricsCollector.recordCacheMiss(ms);
+          }
+          CacheStatistics statistics = getCacheStatistics(ms, cache);
+          long start = statistics == null ? 0 : System.nanoTime();
           list = delegate.<E> query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
+          if (statistics != null) {
+            statistics.recordLoad(System.nanoTime() - start);
+          }
           tcm.putObject(cache, key, list); // issue #578 and #116
+        } else if (metricsCollector != null) {
+          metricsCollector.recordCacheHit(ms);
         }
         return list;
       }
@@ -132,6 +146,11 @@ public class CachingExecutor implements Executor {
     }
   }
 
+  private CacheStatistics getCacheStatistics(MappedStatement ms, Cache cache) {
+    Configuration configuration = ms.getConfiguration();
+    return configuration.isCacheStatisticsEnabled() ? configuration.getCacheStatisticsRegistry().getStatistics(cache.getId()) : null;
+  }
+
   private void ensureNoOutParams(MappedStatement ms, Object parameter, BoundSql boundSql) {
     if (ms.getStatementType() == StatementType.CALLABLE) {
       for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
@@ -0,0 +1,31 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+/**
+ * Thrown when a statement is about to be executed after the deadline of the call has passed.
+ *
+ * @see org.apache.ibatis.session.Deadline
+ */
+public class DeadlineExceededException extends ExecutorException {
+
+  private static final long serialVersionUID = -1529167360218457136L;
+
+  public DeadlineExceededException(String message) {
+    super(message);
+  }
+
+}
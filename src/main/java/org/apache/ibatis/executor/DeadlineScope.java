@@ -0,0 +1,97 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.session.Deadline;
+
+/**
+ * The statements executed by a call with a deadline, cancelled from a timer thread if they are still running
+ * when the deadline passes. Their query timeouts are restored once the call completes, as statements can be reused.
+ */
+class DeadlineScope implements Runnable {
+
+  private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "mybatis-deadline-timer");
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
+  private final List<Statement> statements = new ArrayList<Statement>();
+  private final List<Integer> queryTimeouts = new ArrayList<Integer>();
+  private final ScheduledFuture<?> cancellation;
+  private boolean expired;
+  private boolean released;
+
+  DeadlineScope(Deadline deadline) {
+    this.cancellation = TIMER.schedule(this, deadline.getRemaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+  }
+
+  synchronized void register(Statement statement, int queryTimeout) throws SQLException {
+    // registered anyway so its query timeout is restored on release
+    statements.add(statement);
+    queryTimeouts.add(queryTimeout);
+    if (expired) {
+      throw new DeadlineExceededException("The deadline of the call passed before the statement could be executed.");
+    }
+  }
+
+  @Override
+  public synchronized void run() {
+    if (released) {
+      return;
+    }
+    expired = true;
+    for (Statement statement : statements) {
+      try {
+        statement.cancel();
+      } catch (SQLException e) {
+        // ignore, the statement may be closed or the driver may not support cancellation
+      }
+    }
+  }
+
+  synchronized void release() {
+    released = true;
+    cancellation.cancel(false);
+    // in reverse order so a statement registered twice gets the timeout it had before the first registration
+    for (int i = statements.size() - 1; i >= 0; i--) {
+      Statement statement = statements.get(i);
+      try {
+        if (!statement.isClosed()) {
+          statement.setQueryTimeout(queryTimeouts.get(i));
+        }
+      } catch (SQLException e) {
+        // ignore
+      }
+    }
+    statements.clear();
+    queryTimeouts.clear();
+  }
+
+}
@@ -0,0 +1,89 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.executor.ExecutorException;
+
+/**
+ * Cache of the lazy loading proxy classes of a proxy factory and of their constructors.
+ * The proxy class of a result type is generated once and proxies are then created through a cached constructor,
+ * instead of setting up a new enhancer for each proxied result object.
+ */
+public abstract class ProxyClassCache {
+
+  private final ConcurrentMap<Class<?>, ProxyClass> proxyClasses = new ConcurrentHashMap<Class<?>, ProxyClass>();
+
+  /**
+   * Generates the proxy class of a result type.
+   */
+  protected abstract Class<?> createProxyClass(Class<?> type);
+
+  /**
+   * Resolves the constructor of a proxy class, it is only called once per result type and constructor signature.
+   */
+  protected abstract Constructor<?> resolveConstructor(Class<?> proxyClass, Class<?>[] constructorArgTypes) throws NoSuchMethodException;
+
+  public Class<?> getProxyClass(Class<?> type) {
+    return getEntry(type).proxyClass;
+  }
+
+  public Constructor<?> getConstructor(Class<?> type, List<Class<?>> constructorArgTypes) {
+    final ProxyClass entry = getEntry(type);
+    Constructor<?> constructor = entry.constructors.get(constructorArgTypes);
+    if (constructor == null) {
+      try {
+        constructor = resolveConstructor(entry.proxyClass, constructorArgTypes.toArray(new Class<?>[constructorArgTypes.size()]));
+      } catch (NoSuchMethodException e) {
+        throw new ExecutorException("Error creating lazy proxy.  Cause: " + e, e);
+      }
+      entry.constructors.putIfAbsent(new ArrayList<Class<?>>(constructorArgTypes), constructor);
+    }
+    return constructor;
+  }
+
+  public boolean contains(Class<?> type) {
+    return proxyClasses.containsKey(type);
+  }
+
+  private ProxyClass getEntry(Class<?> type) {
+    ProxyClass entry = proxyClasses.get(type);
+    if (entry == null) {
+      entry = new ProxyClass(createProxyClass(type));
+      ProxyClass existing = proxyClasses.putIfAbsent(type, entry);
+      if (existing != null) {
+        entry = existing;
+      }
+    }
+    return entry;
+  }
+
+  private static class ProxyClass {
+
+    private final Class<?> proxyClass;
+    private final ConcurrentMap<List<Class<?>>, Constructor<?>> constructors = new ConcurrentHashMap<List<Class<?>>, Constructor<?>>();
+
+    private ProxyClass(Class<?> proxyClass) {
+      this.proxyClass = proxyClass;
+    }
+  }
+
+}
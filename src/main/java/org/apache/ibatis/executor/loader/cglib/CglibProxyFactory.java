@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.executor.loader.cglib;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
@@ -27,8 +28,10 @@ import net.sf.cglib.proxy.MethodInterceptor;
 import net.sf.cglib.proxy.MethodProxy;
 
 import org.apache.ibatis.executor.loader.AbstractEnhancedDeserializationProxy;
+import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.loader.AbstractSerialStateHolder;
-import org.apache.ibatis.executor.loader.ProxyFactory;
+import org.apache.ibatis.executor.loader.PregeneratingProxyFactory;
+import org.apache.ibatis.executor.loader.ProxyClassCache;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.loader.WriteReplaceInterface;
 import org.apache.ibatis.io.Resources;
@@ -43,12 +46,26 @@ import org.apache.ibatis.session.Configuration;
 /**
  * @author Clinton Begin
  */
-public class CglibProxyFactory implements ProxyFactory {
+public class CglibProxyFactory implements PregeneratingProxyFactory {
 
   private static final Log log = LogFactory.getLog(CglibProxyFactory.class);
   private static final String FINALIZE_METHOD = "finalize";
   private static final String WRITE_REPLACE_METHOD = "writeReplace";
 
+  private final ProxyClassCache proxyClassCache = new ProxyClassCache() {
+    @Override
+    protected Class<?> createProxyClass(Class<?> type) {
+      return CglibProxyFactory.createProxyClass(type);
+    }
+
+    @Override
+    protected Constructor<?> resolveConstructor(Class<?> proxyClass, Class<?>[] constructorArgTypes) throws NoSuchMethodException {
+      Constructor<?> constructor = proxyClass.getDeclaredConstructor(constructorArgTypes);
+      constructor.setAccessible(true);
+      return constructor;
+    }
+  };
+
   public CglibProxyFactory() {
     try {
       Resources.classForName("net.sf.cglib.proxy.Enhancer");
@@ -59,11 +76,27 @@ public class CglibProxyFactory implements ProxyFactory {
 
   @Override
   public Object createProxy(Object target, ResultLoaderMap lazyLoader, Configuration configuration, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
-    return EnhancedResultObjectProxyImpl.createProxy(target, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
+    return EnhancedResultObjectProxyImpl.createProxy(target, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs, proxyClassCache);
   }
 
   public Object createDeserializationProxy(Object target, Map<String, ResultLoaderMap.LoadPair> unloadedProperties, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
-    return EnhancedDeserializationProxyImpl.createProxy(target, unloadedProperties, objectFactory, constructorArgTypes, constructorArgs);
+    return EnhancedDeserializationProxyImpl.createProxy(target, unloadedProperties, objectFactory, constructorArgTypes, constructorArgs, proxyClassCache);
+  }
+
+  @Override
+  public void pregenerateProxyClass(Class<?> type, List<Class<?>> constructorArgTypes) {
+    try {
+      proxyClassCache.getConstructor(type, constructorArgTypes);
+    } catch (RuntimeException e) {
+      // pregeneration is only a warm up, the proxy is still created (or fails) on first use
+      if (log.isDebugEnabled()) {
+        log.debug("Skipping the pregeneration of the lazy loading proxy class of " + type.getName() + ".  Cause: " + e);
+      }
+    }
+  }
+
+  public ProxyClassCache getProxyClassCache() {
+    return proxyClassCache;
   }
 
   @Override
@@ -71,9 +104,9 @@ public class CglibProxyFactory implements ProxyFactory {
       // Not Implemented
   }
 
-  static Object crateProxy(Class<?> type, Callback callback, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+  private static Class<?> createProxyClass(Class<?> type) {
     Enhancer enhancer = new Enhancer();
-    enhancer.setCallback(callback);
+    enhancer.setCallbackType(MethodInterceptor.class);
     enhancer.setSuperclass(type);
     try {
       type.getDeclaredMethod(WRITE_REPLACE_METHOD);
@@ -86,15 +119,21 @@ public class CglibProxyFactory implements ProxyFactory {
     } catch (SecurityException e) {
       // nothing to do here
     }
-    Object enhanced;
-    if (constructorArgTypes.isEmpty()) {
-      enhanced = enhancer.create();
-    } else {
-      Class<?>[] typesArray = constructorArgTypes.toArray(new Class[constructorArgTypes.size()]);
-      Object[] valuesArray = constructorArgs.toArray(new Object[constructorArgs.size()]);
-      enhanced = enhancer.create(typesArray, valuesArray);
+    return enhancer.createClass();
+  }
+
+  static Object crateProxy(Class<?> type, Callback callback, List<Class<?>> constructorArgTypes, List<Object> constructorArgs, ProxyClassCache proxyClassCache) {
+    final Constructor<?> constructor = proxyClassCache.getConstructor(type, constructorArgTypes);
+    final Class<?> proxyClass = constructor.getDeclaringClass();
+    // the callback is picked up by the constructor of the proxy from a thread local
+    Enhancer.registerCallbacks(proxyClass, new Callback[] { callback });
+    try {
+      return constructor.newInstance(constructorArgs.toArray(new Object[constructorArgs.size()]));
+    } catch (Exception e) {
+      throw new ExecutorException("Error creating lazy proxy.  Cause: " + e, e);
+    } finally {
+      Enhancer.registerCallbacks(proxyClass, null);
     }
-    return enhanced;
   }
 
   private static class EnhancedResultObjectProxyImpl implements MethodInterceptor {
@@ -117,10 +156,10 @@ public class CglibProxyFactory implements ProxyFactory {
       this.constructorArgs = constructorArgs;
     }
 
-    public static Object createProxy(Object target, ResultLoaderMap lazyLoader, Configuration configuration, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+    public static Object createProxy(Object target, ResultLoaderMap lazyLoader, Configuration configuration, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs, ProxyClassCache proxyClassCache) {
       final Class<?> type = target.getClass();
       EnhancedResultObjectProxyImpl callback = new EnhancedResultObjectProxyImpl(type, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
-      Object enhanced = crateProxy(type, callback, constructorArgTypes, constructorArgs);
+      Object enhanced = crateProxy(type, callback, constructorArgTypes, constructorArgs, proxyClassCache);
       PropertyCopier.copyBeanProperties(type, target, enhanced);
       return enhanced;
     }
@@ -171,10 +210,10 @@ public class CglibProxyFactory implements ProxyFactory {
     }
 
     public static Object createProxy(Object target, Map<String, ResultLoaderMap.LoadPair> unloadedProperties, ObjectFactory objectFactory,
-            List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+            List<Class<?>> constructorArgTypes, List<Object> constructorArgs, ProxyClassCache proxyClassCache) {
       final Class<?> type = target.getClass();
       EnhancedDeserializationProxyImpl callback = new EnhancedDeserializationProxyImpl(type, unloadedProperties, objectFactory, constructorArgTypes, constructorArgs);
-      Object enhanced = crateProxy(type, callback, constructorArgTypes, constructorArgs);
+      Object enhanced = crateProxy(type, callback, constructorArgTypes, constructorArgs, proxyClassCache);
       PropertyCopier.copyBeanProperties(type, target, enhanced);
       return enhanced;
     }
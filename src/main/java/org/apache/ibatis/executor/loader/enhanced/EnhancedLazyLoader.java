@@ -0,0 +1,85 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader.enhanced;
+
+import java.sql.SQLException;
+import java.util.Set;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.loader.ResultLoaderMap;
+import org.apache.ibatis.reflection.property.PropertyNamer;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Lazy loading state of an enhanced result object, called by the code woven at the start of its methods.
+ * It follows the rules of the proxy based lazy loading: aggressive lazy loading and the trigger methods load
+ * every pending property, a getter loads its own property.
+ */
+public class EnhancedLazyLoader {
+
+  private static final String FINALIZE_METHOD = "finalize";
+
+  private final ResultLoaderMap lazyLoader;
+  private final boolean aggressive;
+  private final Set<String> lazyLoadTriggerMethods;
+  private volatile boolean loaded;
+  private boolean loading;
+
+  public EnhancedLazyLoader(ResultLoaderMap lazyLoader, Configuration configuration) {
+    this.lazyLoader = lazyLoader;
+    this.aggressive = configuration.isAggressiveLazyLoading();
+    this.lazyLoadTriggerMethods = configuration.getLazyLoadTriggerMethods();
+  }
+
+  /**
+   * Loads the properties the method needs before it runs.
+   *
+   * @return false once every property is loaded, the caller drops its reference to this loader then
+   */
+  public boolean beforeMethod(String methodName) {
+    if (loaded) {
+      return false;
+    }
+    synchronized (lazyLoader) {
+      // the loaded values are set through the methods of the enhanced object itself
+      if (!loading && lazyLoader.size() > 0 && !FINALIZE_METHOD.equals(methodName)) {
+        loading = true;
+        try {
+          if (aggressive || lazyLoadTriggerMethods.contains(methodName)) {
+            lazyLoader.loadAll();
+          } else if (PropertyNamer.isGetter(methodName)) {
+            final String property = PropertyNamer.methodToProperty(methodName);
+            if (lazyLoader.hasLoader(property)) {
+              lazyLoader.load(property);
+            }
+          }
+        } catch (SQLException e) {
+          throw new ExecutorException("Error lazy loading before calling " + methodName + ".  Cause: " + e, e);
+        } finally {
+          loading = false;
+        }
+        // loaders are still being registered while the object is mapped, so an empty map only means done after a load
+        loaded = lazyLoader.size() == 0;
+      }
+      return !loaded;
+    }
+  }
+
+  public ResultLoaderMap getResultLoaderMap() {
+    return lazyLoader;
+  }
+
+}
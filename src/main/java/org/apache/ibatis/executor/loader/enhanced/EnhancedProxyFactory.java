@@ -0,0 +1,60 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader.enhanced;
+
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.executor.loader.PregeneratingProxyFactory;
+import org.apache.ibatis.executor.loader.ResultLoaderMap;
+import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Proxy factory for result objects enhanced by the {@link LazyLoadingEnhancer}.
+ * <p>
+ * Enhanced result objects get their lazy loader attached and are returned as they are, no proxy class is generated
+ * for them. Result objects of classes that were not enhanced are proxied by Javassist as usual.
+ * The lazy loader is transient, an enhanced object that is serialized before loading its properties
+ * is deserialized with those properties unloaded.
+ */
+public class EnhancedProxyFactory implements PregeneratingProxyFactory {
+
+  private final JavassistProxyFactory delegate = new JavassistProxyFactory();
+
+  @Override
+  public Object createProxy(Object target, ResultLoaderMap lazyLoader, Configuration configuration, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+    if (target instanceof LazyLoadingEnhanced) {
+      ((LazyLoadingEnhanced) target).mybatis$setLazyLoader(new EnhancedLazyLoader(lazyLoader, configuration));
+      return target;
+    }
+    return delegate.createProxy(target, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
+  }
+
+  @Override
+  public void pregenerateProxyClass(Class<?> type, List<Class<?>> constructorArgTypes) {
+    if (!LazyLoadingEnhanced.class.isAssignableFrom(type)) {
+      delegate.pregenerateProxyClass(type, constructorArgTypes);
+    }
+  }
+
+  @Override
+  public void setProperties(Properties properties) {
+    delegate.setProperties(properties);
+  }
+
+}
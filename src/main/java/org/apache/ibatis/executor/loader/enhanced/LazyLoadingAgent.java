@@ -0,0 +1,85 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader.enhanced;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.Instrumentation;
+import java.security.ProtectionDomain;
+import java.util.Arrays;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * Java agent that enhances result object classes for lazy loading when they are loaded.
+ * <p>
+ * The agent arguments are the comma separated packages to enhance, for example
+ * {@code -javaagent:mybatis-agent.jar=com.example.domain,com.example.model}, where {@code mybatis-agent.jar}
+ * is the mybatis artifact with the {@code agent} classifier.
+ * When attached to a running VM only the classes loaded afterwards are enhanced.
+ */
+public final class LazyLoadingAgent {
+
+  private static final Log log = LogFactory.getLog(LazyLoadingAgent.class);
+
+  private LazyLoadingAgent() {
+    // Prevent Instantiation
+  }
+
+  public static void premain(String agentArgs, Instrumentation instrumentation) {
+    instrumentation.addTransformer(new LazyLoadingTransformer(newEnhancer(agentArgs)));
+  }
+
+  public static void agentmain(String agentArgs, Instrumentation instrumentation) {
+    premain(agentArgs, instrumentation);
+  }
+
+  static LazyLoadingEnhancer newEnhancer(String agentArgs) {
+    if (agentArgs == null || agentArgs.trim().length() == 0) {
+      throw new IllegalArgumentException("The packages of the result object classes to enhance are missing from the agent arguments.");
+    }
+    return new LazyLoadingEnhancer(Arrays.asList(agentArgs.trim().split("\\s*,\\s*")));
+  }
+
+  static class LazyLoadingTransformer implements ClassFileTransformer {
+
+    private final LazyLoadingEnhancer enhancer;
+
+    LazyLoadingTransformer(LazyLoadingEnhancer enhancer) {
+      this.enhancer = enhancer;
+    }
+
+    @Override
+    public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+        ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+      if (className == null || classBeingRedefined != null) {
+        return null;
+      }
+      String binaryName = className.replace('/', '.');
+      if (!enhancer.isEnhanceable(binaryName)) {
+        return null;
+      }
+      try {
+        enhancer.addClassLoader(loader);
+        return enhancer.enhance(binaryName, classfileBuffer);
+      } catch (Exception e) {
+        log.warn("Could not enhance " + binaryName + " for lazy loading.  Cause: " + e);
+        return null;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,29 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader.enhanced;
+
+/**
+ * Marker of result object classes woven by the {@link LazyLoadingEnhancer}.
+ * <p>
+ * Enhanced classes keep their lazy loader in a transient field and check it at the start of every method,
+ * so the {@link EnhancedProxyFactory} can attach the loader to the result object itself instead of creating a proxy.
+ * The method name is prefixed so it is never taken for a bean property.
+ */
+public interface LazyLoadingEnhanced {
+
+  void mybatis$setLazyLoader(EnhancedLazyLoader lazyLoader);
+
+}
@@ -0,0 +1,268 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader.enhanced;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javassist.CannotCompileException;
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtMethod;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+import javassist.Modifier;
+import javassist.NotFoundException;
+import javassist.bytecode.AccessFlag;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * Weaves lazy loading hooks into result object classes.
+ * <p>
+ * Every method declared by an enhanced class, and the {@code equals}, {@code hashCode} and {@code toString} methods
+ * it inherits from {@code Object}, first asks its {@link EnhancedLazyLoader} to load what the method needs,
+ * and drops the loader once every property is loaded, so a loaded object runs its own code without any indirection.
+ * Only classes of the given packages are enhanced, their superclasses of the same packages are enhanced too.
+ * <p>
+ * Classes can be enhanced at build time by running {@link #main(String[])} on a classes directory, for example
+ * from the exec or antrun plugin after the compile phase, or at load time with the {@link LazyLoadingAgent}.
+ * Use them with the {@link EnhancedProxyFactory} ({@code proxyFactory} setting {@code ENHANCED}).
+ */
+public class LazyLoadingEnhancer {
+
+  static final String LAZY_LOADER_FIELD = "mybatis$lazyLoader";
+  static final String SET_LAZY_LOADER_METHOD = "mybatis$setLazyLoader";
+  private static final String LOCAL_LAZY_LOADER = "mybatis$loader";
+
+  private static final Log log = LogFactory.getLog(LazyLoadingEnhancer.class);
+
+  private final List<String> packageNames;
+  private final ClassPool classPool = new ClassPool(true);
+  private final Map<ClassLoader, Boolean> classLoaders = new WeakHashMap<ClassLoader, Boolean>();
+  private final Map<String, Boolean> enhancedClasses = new HashMap<String, Boolean>();
+
+  public LazyLoadingEnhancer(List<String> packageNames) {
+    if (packageNames == null || packageNames.isEmpty()) {
+      throw new IllegalArgumentException("At least one package of result object classes to enhance is required.");
+    }
+    this.packageNames = new ArrayList<String>();
+    for (String packageName : packageNames) {
+      this.packageNames.add(packageName.endsWith(".") ? packageName : packageName + ".");
+    }
+    classPool.appendClassPath(new ClassClassPath(EnhancedLazyLoader.class));
+  }
+
+  /**
+   * Makes the classes of a class loader visible to the enhancer.
+   */
+  public synchronized void addClassLoader(ClassLoader classLoader) {
+    if (classLoader != null && !classLoaders.containsKey(classLoader)) {
+      classLoaders.put(classLoader, Boolean.TRUE);
+      classPool.appendClassPath(new LoaderClassPath(classLoader));
+    }
+  }
+
+  /**
+   * Makes the classes of a directory or a jar file visible to the enhancer.
+   */
+  public synchronized void addClassPath(String pathName) throws NotFoundException {
+    classPool.insertClassPath(pathName);
+  }
+
+  public boolean isEnhanceable(String className) {
+    for (String packageName : packageNames) {
+      if (className.startsWith(packageName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Enhances a class file.
+   *
+   * @param className the binary name of the class, with dots
+   * @param classfileBuffer the class file
+   * @return the enhanced class file, or null if the class is not to be enhanced
+   */
+  public synchronized byte[] enhance(String className, byte[] classfileBuffer) throws IOException, CannotCompileException, NotFoundException {
+    if (!isEnhanceable(className)) {
+      return null;
+    }
+    CtClass ctClass;
+    if (enhancedClasses.containsKey(className)) {
+      // already woven while enhancing one of its subclasses
+      ctClass = classPool.get(className);
+    } else {
+      ctClass = classPool.makeClass(new ByteArrayInputStream(classfileBuffer));
+    }
+    if (!enhance(ctClass)) {
+      return null;
+    }
+    byte[] bytecode = ctClass.toBytecode();
+    ctClass.defrost();
+    return bytecode;
+  }
+
+  /**
+   * Enhances a class of the class path and writes it to a directory.
+   *
+   * @return true if the class was enhanced
+   */
+  public synchronized boolean enhance(String className, String directoryName) throws IOException, CannotCompileException, NotFoundException {
+    if (!isEnhanceable(className)) {
+      return false;
+    }
+    CtClass ctClass = classPool.get(className);
+    if (!enhance(ctClass)) {
+      return false;
+    }
+    ctClass.writeFile(directoryName);
+    ctClass.defrost();
+    return true;
+  }
+
+  private boolean enhance(CtClass ctClass) throws CannotCompileException, NotFoundException {
+    Boolean enhanced = enhancedClasses.get(ctClass.getName());
+    if (enhanced == null) {
+      enhanced = weave(ctClass);
+      enhancedClasses.put(ctClass.getName(), enhanced);
+    }
+    return enhanced;
+  }
+
+  private boolean weave(CtClass ctClass) throws CannotCompileException, NotFoundException {
+    if (!isEnhanceable(ctClass.getName()) || ctClass.isInterface() || ctClass.isAnnotation() || ctClass.isEnum()) {
+      return false;
+    }
+    final CtClass enhancedType = classPool.get(LazyLoadingEnhanced.class.getName());
+    final boolean superclassEnhanced = isSuperclassEnhanced(ctClass, enhancedType);
+    if (declaresMethod(ctClass, SET_LAZY_LOADER_METHOD)) {
+      // enhanced by an earlier build
+      return false;
+    }
+    final String loaderType = EnhancedLazyLoader.class.getName();
+    ctClass.addField(CtField.make("private transient volatile " + loaderType + " " + LAZY_LOADER_FIELD + ";", ctClass));
+    for (CtMethod method : ctClass.getDeclaredMethods()) {
+      int modifiers = method.getModifiers();
+      if (Modifier.isStatic(modifiers) || Modifier.isAbstract(modifiers) || Modifier.isNative(modifiers)
+          || (method.getMethodInfo().getAccessFlags() & AccessFlag.SYNTHETIC) != 0) {
+        continue;
+      }
+      method.insertBefore(beforeMethod(method.getName()));
+    }
+    if (!superclassEnhanced) {
+      ctClass.addInterface(enhancedType);
+      addTriggerMethods(ctClass);
+    }
+    ctClass.addMethod(CtNewMethod.make("public void " + SET_LAZY_LOADER_METHOD + "(" + loaderType + " lazyLoader) { "
+        + (superclassEnhanced ? "super." + SET_LAZY_LOADER_METHOD + "(lazyLoader); " : "")
+        + LAZY_LOADER_FIELD + " = lazyLoader; }", ctClass));
+    return true;
+  }
+
+  private void addTriggerMethods(CtClass ctClass) throws CannotCompileException {
+    // the default lazy load trigger methods are inherited from Object, they are overridden to be woven too
+    String[][] methods = {
+        {"equals", "public boolean equals(Object o) { ", "return super.equals(o); }"},
+        {"hashCode", "public int hashCode() { ", "return super.hashCode(); }"},
+        {"toString", "public String toString() { ", "return super.toString(); }"}};
+    for (String[] method : methods) {
+      if (!declaresMethod(ctClass, method[0])) {
+        ctClass.addMethod(CtNewMethod.make(method[1] + beforeMethod(method[0]) + method[2], ctClass));
+      }
+    }
+  }
+
+  private boolean declaresMethod(CtClass ctClass, String methodName) {
+    for (CtMethod method : ctClass.getDeclaredMethods()) {
+      if (method.getName().equals(methodName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String beforeMethod(String methodName) {
+    // the volatile field is read once
+    return "{ " + EnhancedLazyLoader.class.getName() + " " + LOCAL_LAZY_LOADER + " = " + LAZY_LOADER_FIELD + "; "
+        + "if (" + LOCAL_LAZY_LOADER + " != null && !" + LOCAL_LAZY_LOADER + ".beforeMethod(\"" + methodName + "\")) { "
+        + LAZY_LOADER_FIELD + " = null; } } ";
+  }
+
+  private boolean isSuperclassEnhanced(CtClass ctClass, CtClass enhancedType) throws CannotCompileException, NotFoundException {
+    CtClass superclass = ctClass.getSuperclass();
+    if (superclass == null) {
+      return false;
+    }
+    return enhance(superclass) || superclass.subtypeOf(enhancedType);
+  }
+
+  /**
+   * Enhances the classes of a directory in place.
+   * <p>
+   * The first argument is the classes directory, the others are the packages to enhance.
+   * The classes the enhanced classes depend on must be on the class path.
+   */
+  public static void main(String[] args) throws Exception {
+    if (args.length < 2) {
+      throw new IllegalArgumentException("Usage: " + LazyLoadingEnhancer.class.getName() + " <classes directory> <package> [<package> ...]");
+    }
+    File directory = new File(args[0]);
+    if (!directory.isDirectory()) {
+      throw new IllegalArgumentException("The classes directory " + directory + " does not exist.");
+    }
+    LazyLoadingEnhancer enhancer = new LazyLoadingEnhancer(Arrays.asList(args).subList(1, args.length));
+    enhancer.addClassPath(directory.getAbsolutePath());
+    List<String> classNames = new ArrayList<String>();
+    collectClassNames(directory, "", classNames);
+    int count = 0;
+    for (String className : classNames) {
+      if (enhancer.enhance(className, directory.getAbsolutePath())) {
+        count++;
+      }
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("Enhanced " + count + " classes for lazy loading in " + directory);
+    }
+  }
+
+  private static void collectClassNames(File directory, String packagePrefix, List<String> classNames) {
+    File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    for (File file : files) {
+      if (file.isDirectory()) {
+        collectClassNames(file, packagePrefix + file.getName() + ".", classNames);
+      } else if (file.getName().endsWith(".class")) {
+        classNames.add(packagePrefix + file.getName().substring(0, file.getName().length() - ".class".length()));
+      }
+    }
+  }
+
+}
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.executor.loader.javassist;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +29,8 @@ import javassist.util.proxy.ProxyFactory;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.loader.AbstractEnhancedDeserializationProxy;
 import org.apache.ibatis.executor.loader.AbstractSerialStateHolder;
+import org.apache.ibatis.executor.loader.PregeneratingProxyFactory;
+import org.apache.ibatis.executor.loader.ProxyClassCache;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.loader.WriteReplaceInterface;
 import org.apache.ibatis.io.Resources;
@@ -42,12 +45,24 @@ import org.apache.ibatis.session.Configuration;
 /**
  * @author Eduardo Macarron
  */
-public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.ProxyFactory {
+public class JavassistProxyFactory implements PregeneratingProxyFactory {
 
   private static final Log log = LogFactory.getLog(JavassistProxyFactory.class);
   private static final String FINALIZE_METHOD = "finalize";
   private static final String WRITE_REPLACE_METHOD = "writeReplace";
 
+  private final ProxyClassCache proxyClassCache = new ProxyClassCache() {
+    @Override
+    protected Class<?> createProxyClass(Class<?> type) {
+      return JavassistProxyFactory.createProxyClass(type);
+    }
+
+    @Override
+    protected Constructor<?> resolveConstructor(Class<?> proxyClass, Class<?>[] constructorArgTypes) throws NoSuchMethodException {
+      return proxyClass.getConstructor(constructorArgTypes);
+    }
+  };
+
   public JavassistProxyFactory() {
     try {
       Resources.classForName("javassist.util.proxy.ProxyFactory");
@@ -58,11 +73,27 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
 
   @Override
   public Object createProxy(Object target, ResultLoaderMap lazyLoader, Configuration configuration, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
-    return EnhancedResultObjectProxyImpl.createProxy(target, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
+    return EnhancedResultObjectProxyImpl.createProxy(target, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs, proxyClassCache);
   }
 
   public Object createDeserializationProxy(Object target, Map<String, ResultLoaderMap.LoadPair> unloadedProperties, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
-    return EnhancedDeserializationProxyImpl.createProxy(target, unloadedProperties, objectFactory, constructorArgTypes, constructorArgs);
+    return EnhancedDeserializationProxyImpl.createProxy(target, unloadedProperties, objectFactory, constructorArgTypes, constructorArgs, proxyClassCache);
+  }
+
+  @Override
+  public void pregenerateProxyClass(Class<?> type, List<Class<?>> constructorArgTypes) {
+    try {
+      proxyClassCache.getConstructor(type, constructorArgTypes);
+    } catch (RuntimeException e) {
+      // pregeneration is only a warm up, the proxy is still created (or fails) on first use
+      if (log.isDebugEnabled()) {
+        log.debug("Skipping the pregeneration of the lazy loading proxy class of " + type.getName() + ".  Cause: " + e);
+      }
+    }
+  }
+
+  public ProxyClassCache getProxyClassCache() {
+    return proxyClassCache;
   }
 
   @Override
@@ -70,7 +101,7 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
       // Not Implemented
   }
 
-  static Object crateProxy(Class<?> type, MethodHandler callback, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+  private static Class<?> createProxyClass(Class<?> type) {
 
     ProxyFactory enhancer = new ProxyFactory();
     enhancer.setSuperclass(type);
@@ -87,11 +118,18 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
       // nothing to do here
     }
 
+    try {
+      return enhancer.createClass();
+    } catch (RuntimeException e) {
+      throw new ExecutorException("Error creating lazy proxy.  Cause: " + e, e);
+    }
+  }
+
+  static Object crateProxy(Class<?> type, MethodHandler callback, List<Class<?>> constructorArgTypes, List<Object> constructorArgs, ProxyClassCache proxyClassCache) {
+    final Constructor<?> constructor = proxyClassCache.getConstructor(type, constructorArgTypes);
     Object enhanced;
-    Class<?>[] typesArray = constructorArgTypes.toArray(new Class[constructorArgTypes.size()]);
-    Object[] valuesArray = constructorArgs.toArray(new Object[constructorArgs.size()]);
     try {
-      enhanced = enhancer.create(typesArray, valuesArray);
+      enhanced = constructor.newInstance(constructorArgs.toArray(new Object[constructorArgs.size()]));
     } catch (Exception e) {
       throw new ExecutorException("Error creating lazy proxy.  Cause: " + e, e);
     }
@@ -119,10 +157,10 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
       this.constructorArgs = constructorArgs;
     }
 
-    public static Object createProxy(Object target, ResultLoaderMap lazyLoader, Configuration configuration, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+    public static Object createProxy(Object target, ResultLoaderMap lazyLoader, Configuration configuration, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs, ProxyClassCache proxyClassCache) {
       final Class<?> type = target.getClass();
       EnhancedResultObjectProxyImpl callback = new EnhancedResultObjectProxyImpl(type, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
-      Object enhanced = crateProxy(type, callback, constructorArgTypes, constructorArgs);
+      Object enhanced = crateProxy(type, callback, constructorArgTypes, constructorArgs, proxyClassCache);
       PropertyCopier.copyBeanProperties(type, target, enhanced);
       return enhanced;
     }
@@ -173,10 +211,10 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
     }
 
     public static Object createProxy(Object target, Map<String, ResultLoaderMap.LoadPair> unloadedProperties, ObjectFactory objectFactory,
-            List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+            List<Class<?>> constructorArgTypes, List<Object> constructorArgs, ProxyClassCache proxyClassCache) {
       final Class<?> type = target.getClass();
       EnhancedDeserializationProxyImpl callback = new EnhancedDeserializationProxyImpl(type, unloadedProperties, objectFactory, constructorArgTypes, constructorArgs);
-      Object enhanced = crateProxy(type, callback, constructorArgTypes, constructorArgs);
+      Object enhanced = crateProxy(type, callback, constructorArgTypes, constructorArgs, proxyClassCache);
       PropertyCopier.copyBeanProperties(type, target, enhanced);
       return enhanced;
     }
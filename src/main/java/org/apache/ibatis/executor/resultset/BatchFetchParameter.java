@@ -0,0 +1,69 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+
+/**
+ * Parameter of a batch fetched nested select, the keys of the parents are bound as "list" and "collection".
+ * <p>
+ * The result set handler of the nested select sees this parameter and returns each child as a {@link Row}
+ * together with the value of the foreign column it is linked to its parent with.
+ */
+class BatchFetchParameter extends ParamMap<Object> {
+
+  private static final long serialVersionUID = 5541960349564938164L;
+
+  private final String foreignColumn;
+
+  BatchFetchParameter(List<Object> keys, String foreignColumn) {
+    this.foreignColumn = foreignColumn;
+    put("collection", keys);
+    put("list", keys);
+  }
+
+  String getForeignColumn() {
+    return foreignColumn;
+  }
+
+  /**
+   * A child read by a batch fetched nested select.
+   */
+  static class Row implements Serializable {
+
+    private static final long serialVersionUID = -2683591880359592434L;
+
+    private final String foreignKey;
+    private final Object value;
+
+    Row(String foreignKey, Object value) {
+      this.foreignKey = foreignKey;
+      this.value = value;
+    }
+
+    String getForeignKey() {
+      return foreignKey;
+    }
+
+    Object getValue() {
+      return value;
+    }
+  }
+
+}
@@ -0,0 +1,116 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ResultExtractor;
+import org.apache.ibatis.executor.loader.ResultLoader;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Lazy loader of a batch fetched property.
+ * The first loader of a result set that is triggered loads the property of its siblings too,
+ * the following ones take their value from the shared {@link Batch} without running a query.
+ */
+class BatchResultLoader extends ResultLoader {
+
+  private final Batch batch;
+  private final Object key;
+
+  BatchResultLoader(Configuration config, Executor executor, MappedStatement mappedStatement, Object parameterObject, Class<?> targetType,
+      CacheKey cacheKey, BoundSql boundSql, Batch batch, Object key) {
+    super(config, executor, mappedStatement, parameterObject, targetType, cacheKey, boundSql);
+    this.batch = batch;
+    this.key = key;
+  }
+
+  @Override
+  public Object loadResult() throws SQLException {
+    // the batch is bound to the executor of the session, other threads load their own key only
+    if (Thread.currentThread().getId() != creatorThreadId || executor.isClosed()) {
+      return super.loadResult();
+    }
+    resultObject = batch.load(key);
+    return resultObject;
+  }
+
+  /**
+   * Keys of the parents of one result set waiting for the lazy property of a mapping.
+   */
+  static class Batch {
+
+    private final Executor executor;
+    private final MappedStatement nestedQuery;
+    private final ResultMapping propertyMapping;
+    private final Class<?> targetType;
+    private final ResultExtractor resultExtractor;
+    private final Map<Object, CacheKey> pendingKeys = new LinkedHashMap<Object, CacheKey>();
+    private final Map<Object, Object> loadedResults = new HashMap<Object, Object>();
+
+    Batch(Executor executor, MappedStatement nestedQuery, ResultMapping propertyMapping) {
+      this.executor = executor;
+      this.nestedQuery = nestedQuery;
+      this.propertyMapping = propertyMapping;
+      this.targetType = propertyMapping.getJavaType();
+      final Configuration configuration = nestedQuery.getConfiguration();
+      this.resultExtractor = new ResultExtractor(configuration, configuration.getObjectFactory());
+    }
+
+    void add(Object key, CacheKey parentKey) {
+      if (!loadedResults.containsKey(key)) {
+        pendingKeys.put(key, parentKey);
+      }
+    }
+
+    Object load(Object key) throws SQLException {
+      if (!loadedResults.containsKey(key)) {
+        fetch(key);
+      }
+      return loadedResults.get(key);
+    }
+
+    private void fetch(Object key) throws SQLException {
+      // the triggering key comes first, the rest of the batch is filled in result set order
+      final Map<Object, CacheKey> chunk = new LinkedHashMap<Object, CacheKey>();
+      chunk.put(key, pendingKeys.remove(key));
+      final Iterator<Map.Entry<Object, CacheKey>> iterator = pendingKeys.entrySet().iterator();
+      while (chunk.size() < propertyMapping.getBatchSize() && iterator.hasNext()) {
+        final Map.Entry<Object, CacheKey> entry = iterator.next();
+        chunk.put(entry.getKey(), entry.getValue());
+        iterator.remove();
+      }
+      final DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(executor, nestedQuery, null, null, null, RowBounds.DEFAULT);
+      final Map<CacheKey, List<Object>> children = resultSetHandler.handleLazyBatchFetch(propertyMapping, new ArrayList<Object>(chunk.keySet()), chunk.values());
+      for (Map.Entry<Object, CacheKey> entry : chunk.entrySet()) {
+        loadedResults.put(entry.getKey(), resultExtractor.extractObjectFromList(children.get(entry.getValue()), targetType));
+      }
+    }
+  }
+
+}
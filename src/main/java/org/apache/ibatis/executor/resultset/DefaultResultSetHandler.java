@@ -21,8 +21,12 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -48,8 +52,11 @@ import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.metrics.MetricsCollector;
+import org.apache.ibatis.metrics.StatementPhase;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.PropertyPath;
 import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.AutoMappingBehavior;
@@ -57,6 +64,9 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultContext;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.DoubleTypeHandler;
+import org.apache.ibatis.type.IntegerTypeHandler;
+import org.apache.ibatis.type.LongTypeHandler;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 
@@ -83,19 +93,32 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final TypeHandlerRegistry typeHandlerRegistry;
   private final ObjectFactory objectFactory;
   private final ReflectorFactory reflectorFactory;
+  private final MetricsCollector metricsCollector;
+  // foreign column of the children when this handler runs a batch fetched nested select
+  private final String batchFetchColumn;
+  // rows handed to the result handler, reported to the metrics collector
+  private int mappedRows;
 
   // nested resultmaps
   private final Map<CacheKey, Object> nestedResultObjects = new HashMap<CacheKey, Object>();
   private final Map<String, Object> ancestorObjects = new HashMap<String, Object>();
   private Object previousRowValue;
+  // cursors stream nested result maps as if resultOrdered was set so only the current parent is retained
+  private boolean orderedStreaming;
 
   // multiple resultsets
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<String, ResultMapping>();
   private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<CacheKey, List<PendingRelation>>();
 
-  // Cached Automappings
-  // 每一个<resultMap>需要自动映射的一个缓存，key值形式为 resultMapId（namespace+'.'+resultMapId）:columnPrefix
-  private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<String, List<UnMappedColumnAutoMapping>>();
+  // batch fetched nested selects, keys of the parents waiting for their children
+  private final Map<ResultMapping, Set<Object>> batchFetchKeys = new IdentityHashMap<ResultMapping, Set<Object>>();
+  // lazy batch fetched nested selects share one batch per mapping and result set
+  private final Map<ResultMapping, BatchResultLoader.Batch> lazyBatches = new IdentityHashMap<ResultMapping, BatchResultLoader.Batch>();
+  // children of a lazy batch by parent key, null unless this handler loads a lazy batch
+  private Map<CacheKey, List<Object>> lazyBatchResults;
+
+  // property paths of the property mappings of each result map, for the class of its last row
+  private final Map<ResultMap, PropertyMappingPaths> propertyMappingPaths = new IdentityHashMap<ResultMap, PropertyMappingPaths>();
 
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
@@ -105,14 +128,28 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     public ResultMapping propertyMapping;
   }
 
-  private static class UnMappedColumnAutoMapping {
+  private static class PropertyMappingPaths {
+    private final Class<?> type;
+    private final PropertyPath[] paths;
+
+    private PropertyMappingPaths(Class<?> type, PropertyPath[] paths) {
+      this.type = type;
+      this.paths = paths;
+    }
+  }
+
+  static class UnMappedColumnAutoMapping {
     private final String column;   
+    private final int columnIndex;
     private final String property;    
+    private final PropertyPath propertyPath;
     private final TypeHandler<?> typeHandler;
     private final boolean primitive;
-    public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive) {
+    public UnMappedColumnAutoMapping(String column, int columnIndex, String property, PropertyPath propertyPath, TypeHandler<?> typeHandler, boolean primitive) {
       this.column = column;
+      this.columnIndex = columnIndex;
       this.property = property;
+      this.propertyPath = propertyPath;
       this.typeHandler = typeHandler;
       this.primitive = primitive;
     }
@@ -129,7 +166,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
     this.objectFactory = configuration.getObjectFactory();
     this.reflectorFactory = configuration.getReflectorFactory();
+    this.metricsCollector = configuration.getMetricsCollector();
     this.resultHandler = resultHandler;
+    final Object parameterObject = parameterHandler != null ? parameterHandler.getParameterObject() : null;
+    this.batchFetchColumn = parameterObject instanceof BatchFetchParameter ? ((BatchFetchParameter) parameterObject).getForeignColumn() : null;
   }
 
   //
@@ -164,6 +204,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       final DefaultResultHandler resultHandler = new DefaultResultHandler(objectFactory);
       final ResultSetWrapper rsw = new ResultSetWrapper(rs, configuration);
       handleRowValues(rsw, resultMap, resultHandler, new RowBounds(), null);
+      handleBatchFetches();
       metaParam.setValue(parameterMapping.getProperty(), resultHandler.getResultList());
     } finally {
       // issue #228 (close resultsets)
@@ -177,13 +218,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   @Override
   public List<Object> handleResultSets(Statement stmt) throws SQLException {
     ErrorContext.instance().activity("handling results").object(mappedStatement.getId());
+    final long start = metricsCollector == null ? 0 : System.nanoTime();
 
     final List<Object> multipleResults = new ArrayList<Object>();
 
     int resultSetCount = 0;
     // 根据第一个结果集构造一个ResultSetWrapper对象，该对象是对ResultSet相关信息的封装
     // 包括ResultSet中包含的列名、jdbc及java类型，结果集包含的数据行数等
-    ResultSetWrapper rsw = getFirstResultSet(stmt);
+    ResultSetWrapper rsw = getFirstResultSet(stmt, mappedStatement);
     // 这里使用List是resultMap中可以使用逗号隔开配置多个，以支持返回多个结果集
     List<ResultMap> resultMaps = mappedStatement.getResultMaps();
     // 获取配置的resultMap中配置的数量，即期望的结果集数量
@@ -196,7 +238,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       // 将当前结果集中的数据映射到ResultMap对应的对象上
       handleResultSet(rsw, resultMap, multipleResults, null);
       // 获取下一个结果集对应的ResultSetWrapper对象
-      rsw = getNextResultSet(stmt);
+      rsw = getNextResultSet(stmt, resultSetCount + 1);
       cleanUpAfterHandlingResultSet();
       resultSetCount++;
     }
@@ -211,11 +253,15 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           ResultMap resultMap = configuration.getResultMap(nestedResultMapId);
           handleResultSet(rsw, resultMap, null, parentMapping);
         }
-        rsw = getNextResultSet(stmt);
+        rsw = getNextResultSet(stmt, resultSetCount + 1);
         cleanUpAfterHandlingResultSet();
         resultSetCount++;
       }
     }
+    if (metricsCollector != null) {
+      metricsCollector.recordPhase(mappedStatement, StatementPhase.RESULT_MAPPING, System.nanoTime() - start);
+      metricsCollector.recordRows(mappedStatement, mappedRows);
+    }
     // 对结果处理，如果是多个结果集的话，直接返回multipleResults；如果只有一个结果集的话，返回multipleResults.get(0)
     return collapseSingleResultList(multipleResults);
   }
@@ -224,7 +270,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   public <E> Cursor<E> handleCursorResultSets(Statement stmt) throws SQLException {
     ErrorContext.instance().activity("handling cursor results").object(mappedStatement.getId());
 
-    ResultSetWrapper rsw = getFirstResultSet(stmt);
+    ResultSetWrapper rsw = getFirstResultSet(stmt, mappedStatement);
 
     List<ResultMap> resultMaps = mappedStatement.getResultMaps();
 
@@ -235,10 +281,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
 
     ResultMap resultMap = resultMaps.get(0);
+    orderedStreaming = true;
     return new DefaultCursor<E>(this, resultMap, rsw, rowBounds);
   }
 
-  private ResultSetWrapper getFirstResultSet(Statement stmt) throws SQLException {
+  private ResultSetWrapper getFirstResultSet(Statement stmt, MappedStatement ms) throws SQLException {
     ResultSet rs = stmt.getResultSet();
     while (rs == null) {
       // move forward to get the first resultset in case the driver
@@ -252,17 +299,17 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
     }
-    return rs != null ? new ResultSetWrapper(rs, configuration) : null;
+    return rs != null ? new ResultSetWrapper(rs, configuration, ms, 0) : null;
   }
 
-  private ResultSetWrapper getNextResultSet(Statement stmt) throws SQLException {
+  private ResultSetWrapper getNextResultSet(Statement stmt, int resultSetIndex) throws SQLException {
     // Making this method tolerant of bad JDBC drivers
     try {
       if (stmt.getConnection().getMetaData().supportsMultipleResultSets()) {
         // Crazy Standard JDBC way of determining if there are more results
         if (!((!stmt.getMoreResults()) && (stmt.getUpdateCount() == -1))) {
           ResultSet rs = stmt.getResultSet();
-          return rs != null ? new ResultSetWrapper(rs, configuration) : null;
+          return rs != null ? new ResultSetWrapper(rs, configuration, mappedStatement, resultSetIndex) : null;
         }
       }
     } catch (Exception e) {
@@ -283,6 +330,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private void cleanUpAfterHandlingResultSet() {
     nestedResultObjects.clear();
+    lazyBatches.clear();
   }
 
   private void validateResultMapsCount(ResultSetWrapper rsw, int resultMapCount) {
@@ -315,6 +363,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       // 结果集遍历完后要关闭掉
       closeResultSet(rsw.getResultSet());
     }
+    handleBatchFetches();
   }
 
   @SuppressWarnings("unchecked")
@@ -346,7 +395,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   protected void checkResultHandler() {
-    if (resultHandler != null && configuration.isSafeResultHandlerEnabled() && !mappedStatement.isResultOrdered()) {
+    if (resultHandler != null && configuration.isSafeResultHandlerEnabled() && !isResultOrdered()) {
       throw new ExecutorException("Mapped Statements with nested result mappings cannot be safely used with a custom ResultHandler. "
           + "Use safeResultHandlerEnabled=false setting to bypass this check "
           + "or ensure your statement returns ordered data and set resultOrdered=true on it.");
@@ -358,12 +407,19 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     DefaultResultContext<Object> resultContext = new DefaultResultContext<Object>();
     // 跳过行数？？
     skipRows(rsw.getResultSet(), rowBounds);
+    // the property columns are resolved again only when the discriminator picks another result map
+    ResultMap previousResultMap = null;
+    ResultSetWrapper.PropertyColumns propertyColumns = null;
     // 遍历结果集，每一行数据会被映射为一个对应的对象
     while (shouldProcessMoreRows(resultContext, rowBounds) && rsw.getResultSet().next()) {
       // 获取当前数据行真实映射对象对应的ResultMap（鉴别器会根据当前行的某一个字段值来确定到底要映射到哪一个对象上，如果没有匹配到的话就映射到父类型上）
       ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw.getResultSet(), resultMap, null);
+      if (discriminatedResultMap != previousResultMap) {
+        propertyColumns = rsw.getPropertyColumns(discriminatedResultMap, null);
+        previousResultMap = discriminatedResultMap;
+      }
       // 获取一行数据对应的映射结果
-      Object rowValue = getRowValue(rsw, discriminatedResultMap);
+      Object rowValue = getRowValue(rsw, discriminatedResultMap, propertyColumns);
       // 保存结果
       storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw.getResultSet());
     }
@@ -373,6 +429,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private void storeObject(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue, ResultMapping parentMapping, ResultSet rs) throws SQLException {
     if (parentMapping != null) {
       linkToParents(rs, parentMapping, rowValue);
+    } else if (batchFetchColumn != null) {
+      callResultHandler(resultHandler, resultContext, new BatchFetchParameter.Row(rs.getString(batchFetchColumn), rowValue));
     } else {
       callResultHandler(resultHandler, resultContext, rowValue);
     }
@@ -381,6 +439,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   @SuppressWarnings("unchecked" /* because ResultHandler<?> is always ResultHandler<Object>*/)
   private void callResultHandler(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue) {
     resultContext.nextResultObject(rowValue);
+    mappedRows++;
     // 将结果保存到了ResultHandler中，默认的DefaultResultHandler就是将结果构造好的rowValue添加到了List当中
     ((ResultHandler<Object>)resultHandler).handleResult(resultContext);
   }
@@ -413,6 +472,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
    *    3. 进行主动映射，即为<resultMap>中配置的<property>属性对应的属性值赋值；
    */
   private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    return getRowValue(rsw, resultMap, rsw.getPropertyColumns(resultMap, null));
+  }
+
+  private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, ResultSetWrapper.PropertyColumns propertyColumns) throws SQLException {
     final ResultLoaderMap lazyLoader = new ResultLoaderMap();
     // 1. 获取resultMap对应的实例（type属性指定的）
     Object rowValue = createResultObject(rsw, resultMap, lazyLoader, null);
@@ -426,7 +489,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         foundValues = applyAutomaticMappings(rsw, resultMap, metaObject, null) || foundValues;
       }
       // 3. 这里才会映射<resultMap>中配置<property>的字段对应的值到MetaObject对象（是对<resultMap>中对应的type指定的类的实例的一个封装）
-      foundValues = applyPropertyMappings(rsw, resultMap, metaObject, lazyLoader, null) || foundValues;
+      foundValues = applyPropertyMappings(rsw, resultMap, propertyColumns, metaObject, lazyLoader, null) || foundValues;
       foundValues = lazyLoader.size() > 0 || foundValues;
       rowValue = (foundValues || configuration.isReturnInstanceForEmptyRow()) ? rowValue : null;
     }
@@ -449,25 +512,23 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // PROPERTY MAPPINGS
   //
   // 映射<resultMap>中<property>指定字段的属性值到MetaObject对象中
-  private boolean applyPropertyMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, ResultLoaderMap lazyLoader, String columnPrefix)
-      throws SQLException {
-    // 获取主动映射（配置在<resultMap>中的字段）的字段集合
-    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
+  private boolean applyPropertyMappings(ResultSetWrapper rsw, ResultMap resultMap, ResultSetWrapper.PropertyColumns propertyColumns,
+      MetaObject metaObject, ResultLoaderMap lazyLoader, String columnPrefix) throws SQLException {
     boolean foundValues = false;
     // 获取<resultMap>中直接配置的<property>对应的ResultMappings的集合（不包括<constructor>中包含的，因为在前边构造对象的时候已经设置了值）
     // ResultMap中分类特别细，具体参看ResultMapping实例的Builder构建方法
     final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
-    for (ResultMapping propertyMapping : propertyMappings) {
-      String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      if (propertyMapping.getNestedResultMapId() != null) {
-        // the user added a column attribute to a nested result map, ignore it
-        column = null;
-      }
-      if (propertyMapping.isCompositeResult()
-          || (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH)))
-          || propertyMapping.getResultSet() != null) {
+    // 主动映射（配置在<resultMap>中的字段）的字段是否在结果集中
+    final boolean[] present = propertyColumns.present;
+    final int[] columnIndexes = propertyColumns.columnIndexes;
+    final TypeHandler<?>[] typeHandlers = propertyColumns.typeHandlers;
+    final PropertyPath[] propertyPaths = getPropertyMappingPaths(resultMap, metaObject.getOriginalObject().getClass());
+    for (int i = 0; i < columnIndexes.length; i++) {
+      final ResultMapping propertyMapping = propertyMappings.get(i);
+      if (propertyMapping.isCompositeResult() || present[i] || propertyMapping.getResultSet() != null) {
         // 获取<resultMap>中<property>column属性对应字段的值，还会处理<association><collection>等的映射
-        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix);
+        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix,
+            propertyColumns.columns[i], columnIndexes[i], typeHandlers[i]);
         // issue #541 make property optional
         // 获取<property>中的name属性值（在构建ResultMapping对象的时候，将<property>的name属性值赋给RequestMapping对象的property属性）
         final String property = propertyMapping.getProperty();
@@ -483,16 +544,38 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
         if (value != null || (configuration.isCallSettersOnNulls() && !metaObject.getSetterType(property).isPrimitive())) {
           // gcode issue #377, call setter on nulls (value is not 'found')
-          metaObject.setValue(property, value);
+          setPropertyValue(metaObject, propertyPaths[i], value);
         }
       }
     }
     return foundValues;
   }
 
+  /**
+   * Resolves the property paths of the property mappings of a result map once per row class,
+   * in the order of {@link ResultMap#getPropertyResultMappings()}.
+   */
+  private PropertyPath[] getPropertyMappingPaths(ResultMap resultMap, Class<?> type) {
+    PropertyMappingPaths mappingPaths = propertyMappingPaths.get(resultMap);
+    if (mappingPaths == null || mappingPaths.type != type) {
+      final MetaClass metaClass = MetaClass.forClass(type, reflectorFactory);
+      final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
+      final PropertyPath[] paths = new PropertyPath[propertyMappings.size()];
+      for (int i = 0; i < paths.length; i++) {
+        final String property = propertyMappings.get(i).getProperty();
+        if (property != null) {
+          paths[i] = metaClass.getPropertyPath(property);
+        }
+      }
+      mappingPaths = new PropertyMappingPaths(type, paths);
+      propertyMappingPaths.put(resultMap, mappingPaths);
+    }
+    return mappingPaths.paths;
+  }
+
   // 处理<resultMap>中<property>配置字段的值
-  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
-      throws SQLException {
+  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix,
+      String column, int columnIndex, TypeHandler<?> typeHandler) throws SQLException {
     if (propertyMapping.getNestedQueryId() != null) {
       // 处理<association><collection>相关嵌套查询
       return getNestedQueryMappingValue(rs, metaResultObject, propertyMapping, lazyLoader, columnPrefix);
@@ -502,16 +585,43 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       return DEFERED;
     } else {
       // 说明这里是通过<property>配置的，获取结果集中字段名与column属性相同的值
-      final TypeHandler<?> typeHandler = propertyMapping.getTypeHandler();
-      final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      return typeHandler.getResult(rs, column);
+      if (propertyMapping.getJavaType() != null && propertyMapping.getJavaType().isPrimitive()) {
+        return getPrimitiveResult(rs, typeHandler, columnIndex, column);
+      }
+      return columnIndex > 0 ? typeHandler.getResult(rs, columnIndex) : typeHandler.getResult(rs, column);
+    }
+  }
+
+  // primitive properties are never set to null, so their columns are read with the primitive methods of the built-in handlers,
+  // subclasses may override the conversion
+  private Object getPrimitiveResult(ResultSet rs, TypeHandler<?> typeHandler, int columnIndex, String column) throws SQLException {
+    final Class<?> handlerType = typeHandler.getClass();
+    if (handlerType != IntegerTypeHandler.class && handlerType != LongTypeHandler.class && handlerType != DoubleTypeHandler.class) {
+      return columnIndex > 0 ? typeHandler.getResult(rs, columnIndex) : typeHandler.getResult(rs, column);
+    }
+    try {
+      if (handlerType == IntegerTypeHandler.class) {
+        final IntegerTypeHandler handler = (IntegerTypeHandler) typeHandler;
+        final int value = columnIndex > 0 ? handler.getInt(rs, columnIndex) : handler.getInt(rs, column);
+        return value == 0 && rs.wasNull() ? null : Integer.valueOf(value);
+      } else if (handlerType == LongTypeHandler.class) {
+        final LongTypeHandler handler = (LongTypeHandler) typeHandler;
+        final long value = columnIndex > 0 ? handler.getLong(rs, columnIndex) : handler.getLong(rs, column);
+        return value == 0 && rs.wasNull() ? null : Long.valueOf(value);
+      } else {
+        final DoubleTypeHandler handler = (DoubleTypeHandler) typeHandler;
+        final double value = columnIndex > 0 ? handler.getDouble(rs, columnIndex) : handler.getDouble(rs, column);
+        return value == 0 && rs.wasNull() ? null : Double.valueOf(value);
+      }
+    } catch (Exception e) {
+      throw new ResultMapException("Error attempting to get column '" + column + "' from result set.  Cause: " + e, e);
     }
   }
 
   // 获取需要自动映射的字段的集合（查询中所有的字段去除掉<resultMap>中配置的字段就是需要自动映射的字段）
   private List<UnMappedColumnAutoMapping> createAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
-    final String mapKey = resultMap.getId() + ":" + columnPrefix;
-    List<UnMappedColumnAutoMapping> autoMapping = autoMappingsCache.get(mapKey);
+    // automappings are cached with the result set columns, so they are shared by the executions of the statement
+    List<UnMappedColumnAutoMapping> autoMapping = rsw.getAutoMappings(resultMap, columnPrefix);
     if (autoMapping == null) {
       autoMapping = new ArrayList<UnMappedColumnAutoMapping>();
       // 获取需要自动映射的字段名集合（结果集中所有字段去掉resultMap中配置好的字段，剩下的就是需要自动映射的字段）
@@ -538,7 +648,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           final Class<?> propertyType = metaObject.getSetterType(property);
           if (typeHandlerRegistry.hasTypeHandler(propertyType, rsw.getJdbcType(columnName))) {
             final TypeHandler<?> typeHandler = rsw.getTypeHandler(propertyType, columnName);
-            autoMapping.add(new UnMappedColumnAutoMapping(columnName, property, typeHandler, propertyType.isPrimitive()));
+            final PropertyPath propertyPath = MetaClass.forClass(metaObject.getOriginalObject().getClass(), reflectorFactory).getPropertyPath(property);
+            autoMapping.add(new UnMappedColumnAutoMapping(columnName, rsw.getColumnIndex(columnName), property, propertyPath, typeHandler, propertyType.isPrimitive()));
           } else {
             configuration.getAutoMappingUnknownColumnBehavior()
                     .doAction(mappedStatement, columnName, property, propertyType);
@@ -549,8 +660,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
                   .doAction(mappedStatement, columnName, (property != null) ? property : propertyName, null);
         }
       }
-      // <resultMap>中需要自动映射的字段会被缓存起来。mapKey是一个唯一标识，格式为 namespace+'.'+resultMapId:columnPrefix
-      autoMappingsCache.put(mapKey, autoMapping);
+      // <resultMap>中需要自动映射的字段会被缓存起来。key是一个唯一标识，格式为 namespace+'.'+resultMapId:columnPrefix
+      rsw.putAutoMappings(resultMap, columnPrefix, autoMapping);
     }
     return autoMapping;
   }
@@ -563,7 +674,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     if (autoMapping.size() > 0) {
       // 遍历需要自动映射字段，从结果集中获取值，将值赋给之前构造的相关变量(MetaObject)
       for (UnMappedColumnAutoMapping mapping : autoMapping) {
-        final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
+        final Object value;
+        if (mapping.primitive) {
+          value = getPrimitiveResult(rsw.getResultSet(), mapping.typeHandler, mapping.columnIndex, mapping.column);
+        } else if (mapping.columnIndex > 0) {
+          value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.columnIndex);
+        } else {
+          value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
+        }
         if (value != null) {
           foundValues = true;
         }
@@ -571,17 +689,31 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         // CallSettersOnNulls默认为false
         if (value != null || (configuration.isCallSettersOnNulls() && !mapping.primitive)) {
           // gcode issue #377, call setter on nulls (value is not 'found')
-          metaObject.setValue(mapping.property, value);
+          setPropertyValue(metaObject, mapping.propertyPath, value);
         }
       }
     }
     return foundValues;
   }
 
+  private void setPropertyValue(MetaObject metaObject, PropertyPath propertyPath, Object value) {
+    propertyPath.setValue(metaObject.getOriginalObject(), value, objectFactory, configuration.getObjectWrapperFactory());
+  }
+
   // MULTIPLE RESULT SETS
 
   private void linkToParents(ResultSet rs, ResultMapping parentMapping, Object rowValue) throws SQLException {
-    CacheKey parentKey = createKeyForMultipleResults(rs, parentMapping, parentMapping.getColumn(), parentMapping.getForeignColumn());
+    linkToParents(createKeyForMultipleResults(rs, parentMapping, parentMapping.getColumn(), parentMapping.getForeignColumn()), rowValue);
+  }
+
+  private void linkToParents(CacheKey parentKey, Object rowValue) {
+    if (lazyBatchResults != null) {
+      List<Object> children = lazyBatchResults.get(parentKey);
+      if (children != null && rowValue != null) {
+        children.add(rowValue);
+      }
+      return;
+    }
     List<PendingRelation> parents = pendingRelations.get(parentKey);
     if (parents != null) {
       for (PendingRelation parent : parents) {
@@ -614,6 +746,112 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  // BATCH FETCH
+
+  private boolean isBatchFetchAllowed(ResultMapping propertyMapping) {
+    // a result handler or a cursor sees the parents before the end of the result set
+    return propertyMapping.isBatchFetch() && !propertyMapping.isLazy() && resultHandler == null && !orderedStreaming;
+  }
+
+  private void addBatchFetch(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, Object key, String columnPrefix) throws SQLException {
+    String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
+    CacheKey cacheKey = createKeyForMultipleResults(rs, propertyMapping, propertyMapping.getColumn(), column);
+    PendingRelation deferLoad = new PendingRelation();
+    deferLoad.metaObject = metaResultObject;
+    deferLoad.propertyMapping = propertyMapping;
+    List<PendingRelation> relations = pendingRelations.get(cacheKey);
+    if (relations == null) {
+      relations = new ArrayList<DefaultResultSetHandler.PendingRelation>();
+      pendingRelations.put(cacheKey, relations);
+    }
+    relations.add(deferLoad);
+    // parents without children get an empty collection as with a nested select per row
+    instantiateCollectionPropertyIfAppropriate(propertyMapping, metaResultObject);
+    Set<Object> keys = batchFetchKeys.get(propertyMapping);
+    if (keys == null) {
+      keys = new LinkedHashSet<Object>();
+      batchFetchKeys.put(propertyMapping, keys);
+    }
+    keys.add(key);
+  }
+
+  private void handleBatchFetches() throws SQLException {
+    // children may batch fetch their own children so loop until nothing is pending
+    while (!batchFetchKeys.isEmpty()) {
+      final Map<ResultMapping, Set<Object>> batches = new IdentityHashMap<ResultMapping, Set<Object>>(batchFetchKeys);
+      batchFetchKeys.clear();
+      for (Map.Entry<ResultMapping, Set<Object>> entry : batches.entrySet()) {
+        final ResultMapping propertyMapping = entry.getKey();
+        final List<Object> keys = new ArrayList<Object>(entry.getValue());
+        final int batchSize = propertyMapping.getBatchSize();
+        for (int i = 0; i < keys.size(); i += batchSize) {
+          handleBatchFetch(propertyMapping, keys.subList(i, Math.min(i + batchSize, keys.size())));
+        }
+      }
+    }
+  }
+
+  /**
+   * Loads the children of a lazy batch with this handler, the children are grouped by the key of their parent.
+   */
+  Map<CacheKey, List<Object>> handleLazyBatchFetch(ResultMapping propertyMapping, List<Object> keys, Collection<CacheKey> parentKeys) throws SQLException {
+    lazyBatchResults = new HashMap<CacheKey, List<Object>>();
+    for (CacheKey parentKey : parentKeys) {
+      lazyBatchResults.put(parentKey, new ArrayList<Object>());
+    }
+    handleBatchFetch(propertyMapping, keys);
+    final Map<CacheKey, List<Object>> children = lazyBatchResults;
+    lazyBatchResults = null;
+    handleBatchFetches();
+    return children;
+  }
+
+  private BatchResultLoader newBatchResultLoader(ResultSet rs, ResultMapping propertyMapping, MappedStatement nestedQuery, Object key,
+      Object parameterObject, CacheKey cacheKey, BoundSql boundSql, String columnPrefix) throws SQLException {
+    BatchResultLoader.Batch batch = lazyBatches.get(propertyMapping);
+    if (batch == null) {
+      batch = new BatchResultLoader.Batch(executor, nestedQuery, propertyMapping);
+      lazyBatches.put(propertyMapping, batch);
+    }
+    String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
+    batch.add(key, createKeyForMultipleResults(rs, propertyMapping, propertyMapping.getColumn(), column));
+    return new BatchResultLoader(configuration, executor, nestedQuery, parameterObject, propertyMapping.getJavaType(), cacheKey, boundSql, batch, key);
+  }
+
+  // a batch fetched select gets its keys as a list, the same way a list parameter is passed to a mapper
+  private Object prepareBatchParameter(List<Object> keys) {
+    final ParamMap<Object> parameterObject = new ParamMap<Object>();
+    parameterObject.put("collection", keys);
+    parameterObject.put("list", keys);
+    return parameterObject;
+  }
+
+  // same key as createKeyForMultipleResults on the foreign column of the child row
+  private CacheKey createKeyForBatchFetch(ResultMapping propertyMapping, String foreignKey) {
+    CacheKey cacheKey = new CacheKey();
+    cacheKey.update(propertyMapping);
+    if (foreignKey != null) {
+      cacheKey.update(propertyMapping.getColumn());
+      cacheKey.update(foreignKey);
+    }
+    return cacheKey;
+  }
+
+  private void handleBatchFetch(ResultMapping propertyMapping, List<Object> keys) throws SQLException {
+    final MappedStatement nestedQuery = configuration.getMappedStatement(propertyMapping.getNestedQueryId());
+    final BatchFetchParameter parameterObject = new BatchFetchParameter(keys, propertyMapping.getForeignColumn());
+    final BoundSql nestedBoundSql = nestedQuery.getBoundSql(parameterObject);
+    final CacheKey key = executor.createCacheKey(nestedQuery, parameterObject, RowBounds.DEFAULT, nestedBoundSql);
+    // the cached rows carry their foreign key, they must not be mixed with the results of a regular call
+    key.update(BatchFetchParameter.class.getName());
+    key.update(propertyMapping.getForeignColumn());
+    final List<Object> rows = executor.query(nestedQuery, parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER, key, nestedBoundSql);
+    for (Object row : rows) {
+      final BatchFetchParameter.Row child = (BatchFetchParameter.Row) row;
+      linkToParents(createKeyForBatchFetch(propertyMapping, child.getForeignKey()), child.getValue());
+    }
+  }
+
   private CacheKey createKeyForMultipleResults(ResultSet rs, ResultMapping resultMapping, String names, String columns) throws SQLException {
     CacheKey cacheKey = new CacheKey();
     cacheKey.update(resultMapping);
@@ -815,16 +1053,25 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     // 获取嵌套查询所需参数
     final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rs, propertyMapping, nestedQueryParameterType, columnPrefix);
     Object value = null;
-    if (nestedQueryParameterObject != null) {
-      final BoundSql nestedBoundSql = nestedQuery.getBoundSql(nestedQueryParameterObject);
-      final CacheKey key = executor.createCacheKey(nestedQuery, nestedQueryParameterObject, RowBounds.DEFAULT, nestedBoundSql);
+    if (nestedQueryParameterObject != null && isBatchFetchAllowed(propertyMapping)) {
+      addBatchFetch(rs, metaResultObject, propertyMapping, nestedQueryParameterObject, columnPrefix);
+      value = DEFERED;
+    } else if (nestedQueryParameterObject != null) {
+      final Object parameterObject = propertyMapping.isBatchFetch()
+          ? prepareBatchParameter(Collections.singletonList(nestedQueryParameterObject)) : nestedQueryParameterObject;
+      final BoundSql nestedBoundSql = nestedQuery.getBoundSql(parameterObject);
+      final CacheKey key = executor.createCacheKey(nestedQuery, parameterObject, RowBounds.DEFAULT, nestedBoundSql);
       final Class<?> targetType = propertyMapping.getJavaType();
       if (executor.isCached(nestedQuery, key)) {
         // 缓存处理
         executor.deferLoad(nestedQuery, metaResultObject, property, key, targetType);
         value = DEFERED;
+      } else if (propertyMapping.isLazy() && propertyMapping.isBatchFetch()) {
+        lazyLoader.addLoader(property, metaResultObject, newBatchResultLoader(rs, propertyMapping, nestedQuery, nestedQueryParameterObject,
+            parameterObject, key, nestedBoundSql, columnPrefix));
+        value = DEFERED;
       } else {
-        final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql);
+        final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery, parameterObject, targetType, key, nestedBoundSql);
         // 如果将<association><collection>的fetchType设置为lazy，会将ResultLoader对象保存起来，等需要的时候再执行，否则立即执行
         if (propertyMapping.isLazy()) {
           lazyLoader.addLoader(property, metaResultObject, resultLoader);
@@ -967,13 +1214,15 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private void handleRowValuesForNestedResultMap(ResultSetWrapper rsw, ResultMap resultMap, ResultHandler<?> resultHandler, RowBounds rowBounds, ResultMapping parentMapping) throws SQLException {
     final DefaultResultContext<Object> resultContext = new DefaultResultContext<Object>();
     skipRows(rsw.getResultSet(), rowBounds);
+    // children are linked to their parents while the result set is still on their first row
+    final boolean resultOrdered = parentMapping == null && batchFetchColumn == null && isResultOrdered();
     Object rowValue = previousRowValue;
     while (shouldProcessMoreRows(resultContext, rowBounds) && rsw.getResultSet().next()) {
       final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw.getResultSet(), resultMap, null);
       final CacheKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
       Object partialObject = nestedResultObjects.get(rowKey);
       // issue #577 && #542
-      if (mappedStatement.isResultOrdered()) {
+      if (resultOrdered) {
         if (partialObject == null && rowValue != null) {
           nestedResultObjects.clear();
           storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw.getResultSet());
@@ -986,14 +1235,19 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
     }
-    if (rowValue != null && mappedStatement.isResultOrdered() && shouldProcessMoreRows(resultContext, rowBounds)) {
+    if (rowValue != null && resultOrdered && shouldProcessMoreRows(resultContext, rowBounds)) {
       storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw.getResultSet());
+      nestedResultObjects.clear();
       previousRowValue = null;
     } else if (rowValue != null) {
       previousRowValue = rowValue;
     }
   }
 
+  private boolean isResultOrdered() {
+    return orderedStreaming || mappedStatement.isResultOrdered();
+  }
+
   //
   // GET VALUE FROM ROW FOR NESTED RESULT MAP
   //
@@ -1015,7 +1269,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         if (shouldApplyAutomaticMappings(resultMap, true)) {
           foundValues = applyAutomaticMappings(rsw, resultMap, metaObject, columnPrefix) || foundValues;
         }
-        foundValues = applyPropertyMappings(rsw, resultMap, metaObject, lazyLoader, columnPrefix) || foundValues;
+        foundValues = applyPropertyMappings(rsw, resultMap, rsw.getPropertyColumns(resultMap, columnPrefix), metaObject, lazyLoader, columnPrefix)
+            || foundValues;
         putAncestor(rowValue, resultMapId, columnPrefix);
         foundValues = applyNestedResultMappings(rsw, resultMap, metaObject, columnPrefix, combinedKey, true) || foundValues;
         ancestorObjects.remove(resultMapId);
@@ -0,0 +1,93 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * The columns of a result set and everything resolved from them: column lists per result map,
+ * type handlers, column indexes and automatic mappings.
+ * <p>
+ * Layouts are kept by {@link org.apache.ibatis.mapping.MappedStatement} so the next executions of a statement reuse
+ * them as long as their result sets have the same column labels and types. Instances are thread safe.
+ */
+public class ResultSetLayout {
+
+  private final boolean useColumnLabel;
+  private final String[] columnLabels;
+  private final int[] columnTypes;
+
+  final List<String> columnNames;
+  final List<String> classNames;
+  final List<JdbcType> jdbcTypes;
+  final ConcurrentMap<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new ConcurrentHashMap<String, Map<Class<?>, TypeHandler<?>>>();
+  final ConcurrentMap<String, List<String>> mappedColumnNamesMap = new ConcurrentHashMap<String, List<String>>();
+  final ConcurrentMap<String, List<String>> unMappedColumnNamesMap = new ConcurrentHashMap<String, List<String>>();
+  final ConcurrentMap<String, int[]> propertyColumnIndexesMap = new ConcurrentHashMap<String, int[]>();
+  final ConcurrentMap<String, TypeHandler<?>[]> propertyTypeHandlersMap = new ConcurrentHashMap<String, TypeHandler<?>[]>();
+  final ConcurrentMap<String, List<?>> autoMappingsMap = new ConcurrentHashMap<String, List<?>>();
+
+  ResultSetLayout(ResultSetMetaData metaData, boolean useColumnLabel) throws SQLException {
+    this.useColumnLabel = useColumnLabel;
+    final int columnCount = metaData.getColumnCount();
+    final List<String> names = new ArrayList<String>(columnCount);
+    final List<String> classes = new ArrayList<String>(columnCount);
+    final List<JdbcType> types = new ArrayList<JdbcType>(columnCount);
+    columnLabels = new String[columnCount];
+    columnTypes = new int[columnCount];
+    for (int i = 1; i <= columnCount; i++) {
+      columnLabels[i - 1] = useColumnLabel ? metaData.getColumnLabel(i) : metaData.getColumnName(i);
+      columnTypes[i - 1] = metaData.getColumnType(i);
+      names.add(columnLabels[i - 1]);
+      types.add(JdbcType.forCode(columnTypes[i - 1]));
+      classes.add(metaData.getColumnClassName(i));
+    }
+    this.columnNames = Collections.unmodifiableList(names);
+    this.classNames = Collections.unmodifiableList(classes);
+    this.jdbcTypes = Collections.unmodifiableList(types);
+  }
+
+  /**
+   * Checks whether a result set has the columns this layout was resolved from.
+   * Only the column count, names and types are read, class names are assumed to follow the types.
+   */
+  boolean matches(ResultSetMetaData metaData, boolean useColumnLabel) throws SQLException {
+    if (this.useColumnLabel != useColumnLabel || metaData.getColumnCount() != columnLabels.length) {
+      return false;
+    }
+    for (int i = 1; i <= columnLabels.length; i++) {
+      if (metaData.getColumnType(i) != columnTypes[i - 1]) {
+        return false;
+      }
+      final String label = useColumnLabel ? metaData.getColumnLabel(i) : metaData.getColumnName(i);
+      if (label == null ? columnLabels[i - 1] != null : !label.equals(columnLabels[i - 1])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
@@ -19,15 +19,18 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.ObjectTypeHandler;
@@ -42,29 +45,49 @@ public class ResultSetWrapper {
 
   private final ResultSet resultSet;
   private final TypeHandlerRegistry typeHandlerRegistry;
-  private final List<String> columnNames = new ArrayList<String>();
-  private final List<String> classNames = new ArrayList<String>();
-  private final List<JdbcType> jdbcTypes = new ArrayList<JdbcType>();
-  private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<String, Map<Class<?>, TypeHandler<?>>>();
-  private Map<String, List<String>> mappedColumnNamesMap = new HashMap<String, List<String>>();
-  private Map<String, List<String>> unMappedColumnNamesMap = new HashMap<String, List<String>>();
+  // indexes are only used when the column names are the labels the result set looks columns up by
+  private final boolean useColumnIndexes;
+  // 结果集中所有列的名称、JDBC类型、java类型以及由此解析出的信息
+  private final ResultSetLayout layout;
+  private final List<String> columnNames;
+  private final List<String> classNames;
+  private final List<JdbcType> jdbcTypes;
+  // the property columns of the result maps read from this result set, with a map per result map for prefixed columns
+  private final Map<ResultMap, PropertyColumns> propertyColumnsMap = new IdentityHashMap<ResultMap, PropertyColumns>();
+  private final Map<ResultMap, Map<String, PropertyColumns>> prefixedPropertyColumnsMap = new IdentityHashMap<ResultMap, Map<String, PropertyColumns>>();
 
   public ResultSetWrapper(ResultSet rs, Configuration configuration) throws SQLException {
+    this(rs, configuration, new ResultSetLayout(rs.getMetaData(), configuration.isUseColumnLabel()));
+  }
+
+  /**
+   * Wraps a result set of a statement, reusing the layout resolved by a previous execution if the columns are the same.
+   */
+  public ResultSetWrapper(ResultSet rs, Configuration configuration, MappedStatement mappedStatement, int resultSetIndex) throws SQLException {
+    this(rs, configuration, resolveLayout(rs, configuration, mappedStatement, resultSetIndex));
+  }
+
+  private ResultSetWrapper(ResultSet rs, Configuration configuration, ResultSetLayout layout) {
     super();
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
     this.resultSet = rs;
-    // 获取结果集元数据
+    this.useColumnIndexes = configuration.isUseColumnLabel();
+    this.layout = layout;
+    this.columnNames = layout.columnNames;
+    this.classNames = layout.classNames;
+    this.jdbcTypes = layout.jdbcTypes;
+  }
+
+  private static ResultSetLayout resolveLayout(ResultSet rs, Configuration configuration, MappedStatement mappedStatement, int resultSetIndex)
+      throws SQLException {
     final ResultSetMetaData metaData = rs.getMetaData();
-    // 获取结果集列数量
-    final int columnCount = metaData.getColumnCount();
-    for (int i = 1; i <= columnCount; i++) {
-      // 保存结果集中所有列的名称
-      columnNames.add(configuration.isUseColumnLabel() ? metaData.getColumnLabel(i) : metaData.getColumnName(i));
-      // 保存结果集中所有列的JDBC类型
-      jdbcTypes.add(JdbcType.forCode(metaData.getColumnType(i)));
-      // 保存结果集中所有列的java类型
-      classNames.add(metaData.getColumnClassName(i));
+    final boolean useColumnLabel = configuration.isUseColumnLabel();
+    ResultSetLayout layout = mappedStatement.getResultSetLayout(resultSetIndex);
+    if (layout == null || !layout.matches(metaData, useColumnLabel)) {
+      layout = new ResultSetLayout(metaData, useColumnLabel);
+      mappedStatement.setResultSetLayout(resultSetIndex, layout);
     }
+    return layout;
   }
 
   public ResultSet getResultSet() {
@@ -76,7 +99,7 @@ public class ResultSetWrapper {
   }
 
   public List<String> getClassNames() {
-    return Collections.unmodifiableList(classNames);
+    return classNames;
   }
 
   public JdbcType getJdbcType(String columnName) {
@@ -88,6 +111,113 @@ public class ResultSetWrapper {
     return null;
   }
 
+  /**
+   * Returns the 1-based index of a column, looked up as the result set looks up column labels.
+   *
+   * @return the index, or 0 if the column must be read by its label
+   */
+  public int getColumnIndex(String columnName) {
+    if (useColumnIndexes && columnName != null) {
+      for (int i = 0; i < columnNames.size(); i++) {
+        if (columnNames.get(i).equalsIgnoreCase(columnName)) {
+          return i + 1;
+        }
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Returns the column indexes of the property mappings of a result map, in the order of
+   * {@link ResultMap#getPropertyResultMappings()}. The indexes are resolved once per result map and column prefix.
+   *
+   * @return the indexes, 0 for the mappings that have no column of their own or whose column must be read by its label
+   */
+  public int[] getPropertyColumnIndexes(ResultMap resultMap, String columnPrefix) {
+    final String mapKey = getMapKey(resultMap, columnPrefix);
+    int[] indexes = layout.propertyColumnIndexesMap.get(mapKey);
+    if (indexes == null) {
+      final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
+      indexes = new int[propertyMappings.size()];
+      for (int i = 0; i < indexes.length; i++) {
+        final ResultMapping propertyMapping = propertyMappings.get(i);
+        if (propertyMapping.getColumn() != null && propertyMapping.getNestedResultMapId() == null
+            && !propertyMapping.isCompositeResult()) {
+          final String column = columnPrefix == null || columnPrefix.length() == 0
+              ? propertyMapping.getColumn() : columnPrefix + propertyMapping.getColumn();
+          indexes[i] = getColumnIndex(column);
+        }
+      }
+      layout.propertyColumnIndexesMap.put(mapKey, indexes);
+    }
+    return indexes;
+  }
+
+  /**
+   * Returns the type handlers of the property mappings of a result map, in the order of
+   * {@link ResultMap#getPropertyResultMappings()}.
+   * Mappings with an {@link UnknownTypeHandler} get the handler it would pick for their column, so the column
+   * metadata is not read again for every value. The choice holds as long as the columns keep their types,
+   * a result set with other types gets a new layout and resolves the handlers again.
+   */
+  public TypeHandler<?>[] getPropertyTypeHandlers(ResultMap resultMap, String columnPrefix) {
+    final String mapKey = getMapKey(resultMap, columnPrefix);
+    TypeHandler<?>[] typeHandlers = layout.propertyTypeHandlersMap.get(mapKey);
+    if (typeHandlers == null) {
+      final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
+      final int[] columnIndexes = getPropertyColumnIndexes(resultMap, columnPrefix);
+      typeHandlers = new TypeHandler<?>[propertyMappings.size()];
+      for (int i = 0; i < typeHandlers.length; i++) {
+        final ResultMapping propertyMapping = propertyMappings.get(i);
+        typeHandlers[i] = propertyMapping.getTypeHandler();
+        if (typeHandlers[i] instanceof UnknownTypeHandler && columnIndexes[i] > 0) {
+          final Class<?> javaType = propertyMapping.getJavaType() == null ? Object.class : propertyMapping.getJavaType();
+          typeHandlers[i] = getTypeHandler(javaType, columnNames.get(columnIndexes[i] - 1));
+        }
+      }
+      layout.propertyTypeHandlersMap.put(mapKey, typeHandlers);
+    }
+    return typeHandlers;
+  }
+
+  /**
+   * Returns the columns of the property mappings of a result map, resolved once per result map and column prefix
+   * for this result set so the rows are mapped without building lookup keys.
+   */
+  PropertyColumns getPropertyColumns(ResultMap resultMap, String columnPrefix) throws SQLException {
+    if (columnPrefix == null) {
+      PropertyColumns propertyColumns = propertyColumnsMap.get(resultMap);
+      if (propertyColumns == null) {
+        propertyColumns = new PropertyColumns(this, resultMap, null);
+        propertyColumnsMap.put(resultMap, propertyColumns);
+      }
+      return propertyColumns;
+    }
+    Map<String, PropertyColumns> prefixedColumns = prefixedPropertyColumnsMap.get(resultMap);
+    if (prefixedColumns == null) {
+      prefixedColumns = new HashMap<String, PropertyColumns>();
+      prefixedPropertyColumnsMap.put(resultMap, prefixedColumns);
+    }
+    PropertyColumns propertyColumns = prefixedColumns.get(columnPrefix);
+    if (propertyColumns == null) {
+      propertyColumns = new PropertyColumns(this, resultMap, columnPrefix);
+      prefixedColumns.put(columnPrefix, propertyColumns);
+    }
+    return propertyColumns;
+  }
+
+  /**
+   * Returns the automatic mappings a result handler resolved for a result map and column prefix against these columns.
+   */
+  @SuppressWarnings("unchecked")
+  <T> List<T> getAutoMappings(ResultMap resultMap, String columnPrefix) {
+    return (List<T>) layout.autoMappingsMap.get(getMapKey(resultMap, columnPrefix));
+  }
+
+  <T> void putAutoMappings(ResultMap resultMap, String columnPrefix, List<T> autoMappings) {
+    layout.autoMappingsMap.put(getMapKey(resultMap, columnPrefix), autoMappings);
+  }
+
   /**
    * Gets the type handler to use when reading the result set.
    * Tries to get from the TypeHandlerRegistry by searching for the property type.
@@ -99,10 +229,14 @@ public class ResultSetWrapper {
    */
   public TypeHandler<?> getTypeHandler(Class<?> propertyType, String columnName) {
     TypeHandler<?> handler = null;
-    Map<Class<?>, TypeHandler<?>> columnHandlers = typeHandlerMap.get(columnName);
+    Map<Class<?>, TypeHandler<?>> columnHandlers = layout.typeHandlerMap.get(columnName);
     if (columnHandlers == null) {
-      columnHandlers = new HashMap<Class<?>, TypeHandler<?>>();
-      typeHandlerMap.put(columnName, columnHandlers);
+      columnHandlers = new ConcurrentHashMap<Class<?>, TypeHandler<?>>();
+      Map<Class<?>, TypeHandler<?>> existing = layout.typeHandlerMap.putIfAbsent(columnName, columnHandlers);
+      if (existing != null) {
+        columnHandlers = existing;
+        handler = columnHandlers.get(propertyType);
+      }
     } else {
       handler = columnHandlers.get(propertyType);
     }
@@ -162,24 +296,24 @@ public class ResultSetWrapper {
         unmappedColumnNames.add(columnName);
       }
     }
-    mappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), mappedColumnNames);
-    unMappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), unmappedColumnNames);
+    layout.unMappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), unmappedColumnNames);
+    layout.mappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), mappedColumnNames);
   }
 
   public List<String> getMappedColumnNames(ResultMap resultMap, String columnPrefix) throws SQLException {
-    List<String> mappedColumnNames = mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+    List<String> mappedColumnNames = layout.mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
     if (mappedColumnNames == null) {
       loadMappedAndUnmappedColumnNames(resultMap, columnPrefix);
-      mappedColumnNames = mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+      mappedColumnNames = layout.mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
     }
     return mappedColumnNames;
   }
 
   public List<String> getUnmappedColumnNames(ResultMap resultMap, String columnPrefix) throws SQLException {
-    List<String> unMappedColumnNames = unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+    List<String> unMappedColumnNames = layout.unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
     if (unMappedColumnNames == null) {
       loadMappedAndUnmappedColumnNames(resultMap, columnPrefix);
-      unMappedColumnNames = unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+      unMappedColumnNames = layout.unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
     }
     return unMappedColumnNames;
   }
@@ -198,5 +332,38 @@ public class ResultSetWrapper {
     }
     return prefixed;
   }
-  
+
+  /**
+   * The columns of the property mappings of a result map, in the order of {@link ResultMap#getPropertyResultMappings()}.
+   */
+  static final class PropertyColumns {
+
+    // the prefixed column of each mapping, null for the mappings without a column
+    final String[] columns;
+    // whether the column of each mapping is in the result set
+    final boolean[] present;
+    final int[] columnIndexes;
+    final TypeHandler<?>[] typeHandlers;
+
+    PropertyColumns(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+      final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
+      final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
+      columnIndexes = rsw.getPropertyColumnIndexes(resultMap, columnPrefix);
+      typeHandlers = rsw.getPropertyTypeHandlers(resultMap, columnPrefix);
+      columns = new String[columnIndexes.length];
+      present = new boolean[columnIndexes.length];
+      for (int i = 0; i < columns.length; i++) {
+        final ResultMapping propertyMapping = propertyMappings.get(i);
+        final String column = propertyMapping.getColumn();
+        if (column != null) {
+          columns[i] = column.length() == 0 || columnPrefix == null || columnPrefix.length() == 0 ? column : columnPrefix + column;
+          // the user may add a column attribute to a nested result map, it is ignored
+          present[i] = propertyMapping.getNestedResultMapId() == null
+              && (columnIndexes[i] > 0 || mappedColumnNames.contains(columns[i].toUpperCase(Locale.ENGLISH)));
+        }
+      }
+    }
+
+  }
+
 }
@@ -27,6 +27,9 @@ import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.metrics.MetricsCollector;
+import org.apache.ibatis.metrics.SlowStatementDetector;
+import org.apache.ibatis.metrics.StatementPhase;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
@@ -50,6 +53,7 @@ public abstract class BaseStatementHandler implements StatementHandler {
   protected final Executor executor;
   protected final MappedStatement mappedStatement;
   protected final RowBounds rowBounds;
+  protected final MetricsCollector metricsCollector;
 
   protected BoundSql boundSql;
 
@@ -58,6 +62,7 @@ public abstract class BaseStatementHandler implements StatementHandler {
     this.executor = executor;
     this.mappedStatement = mappedStatement;
     this.rowBounds = rowBounds;
+    this.metricsCollector = configuration.getMetricsCollector();
 
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
     this.objectFactory = configuration.getObjectFactory();
@@ -74,6 +79,9 @@ public abstract class BaseStatementHandler implements StatementHandler {
       // 生成主键，插入数据对象parameterObject当中
       generateKeys(parameterObject);
       boundSql = mappedStatement.getBoundSql(parameterObject);
+      if (metricsCollector instanceof SlowStatementDetector) {
+        ((SlowStatementDetector) metricsCollector).recordBoundSql(boundSql);
+      }
     }
 
     this.boundSql = boundSql;
@@ -113,6 +121,16 @@ public abstract class BaseStatementHandler implements StatementHandler {
 
   protected abstract Statement instantiateStatement(Connection connection) throws SQLException;
 
+  protected long startPhase() {
+    return metricsCollector == null ? 0 : System.nanoTime();
+  }
+
+  protected void endPhase(StatementPhase phase, long start) {
+    if (metricsCollector != null) {
+      metricsCollector.recordPhase(mappedStatement, phase, System.nanoTime() - start);
+    }
+  }
+
   protected void setStatementTimeout(Statement stmt, Integer transactionTimeout) throws SQLException {
     Integer queryTimeout = null;
     if (mappedStatement.getTimeout() != null) {
@@ -28,6 +28,7 @@ import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.metrics.StatementPhase;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 
@@ -49,7 +50,9 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   @Override
   public int update(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    long start = startPhase();
     ps.execute();
+    endPhase(StatementPhase.EXECUTION, start);
     int rows = ps.getUpdateCount();
     Object parameterObject = boundSql.getParameterObject();
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
@@ -67,7 +70,9 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    long start = startPhase();
     ps.execute();
+    endPhase(StatementPhase.EXECUTION, start);
     // 查询操作的话，在执行完查询后会调用ResultSetHandler来对结果集进行处理
     return resultSetHandler.<E> handleResultSets(ps);
   }
@@ -75,7 +80,9 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   @Override
   public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    long start = startPhase();
     ps.execute();
+    endPhase(StatementPhase.EXECUTION, start);
     return resultSetHandler.<E> handleCursorResultSets(ps);
   }
 
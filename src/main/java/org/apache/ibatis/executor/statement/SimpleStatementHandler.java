@@ -28,6 +28,7 @@ import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.metrics.StatementPhase;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 
@@ -47,15 +48,21 @@ public class SimpleStatementHandler extends BaseStatementHandler {
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
     int rows;
     if (keyGenerator instanceof Jdbc3KeyGenerator) {
+      long start = startPhase();
       statement.execute(sql, Statement.RETURN_GENERATED_KEYS);
+      endPhase(StatementPhase.EXECUTION, start);
       rows = statement.getUpdateCount();
       keyGenerator.processAfter(executor, mappedStatement, statement, parameterObject);
     } else if (keyGenerator instanceof SelectKeyGenerator) {
+      long start = startPhase();
       statement.execute(sql);
+      endPhase(StatementPhase.EXECUTION, start);
       rows = statement.getUpdateCount();
       keyGenerator.processAfter(executor, mappedStatement, statement, parameterObject);
     } else {
+      long start = startPhase();
       statement.execute(sql);
+      endPhase(StatementPhase.EXECUTION, start);
       rows = statement.getUpdateCount();
     }
     return rows;
@@ -70,14 +77,18 @@ public class SimpleStatementHandler extends BaseStatementHandler {
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
     String sql = boundSql.getSql();
+    long start = startPhase();
     statement.execute(sql);
+    endPhase(StatementPhase.EXECUTION, start);
     return resultSetHandler.<E>handleResultSets(statement);
   }
 
   @Override
   public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
     String sql = boundSql.getSql();
+    long start = startPhase();
     statement.execute(sql);
+    endPhase(StatementPhase.EXECUTION, start);
     return resultSetHandler.<E>handleCursorResultSets(statement);
   }
 
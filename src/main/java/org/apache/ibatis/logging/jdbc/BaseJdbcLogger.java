@@ -17,19 +17,18 @@ package org.apache.ibatis.logging.jdbc;
 
 import java.sql.Array;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.StringTokenizer;
 
 import org.apache.ibatis.logging.Log;
 
 /**
- * Base class for proxies to do logging
+ * Base class for proxies to do logging.
+ * <p>
+ * Parameters are recorded into a buffer that is owned by the proxy and reused for every execution
+ * of the statement, and messages are only formatted once the log is known to emit them,
+ * so debug logging does not allocate per parameter.
  * 
  * @author Clinton Begin
  * @author Eduardo Macarron
@@ -39,10 +38,15 @@ public abstract class BaseJdbcLogger {
   protected static final Set<String> SET_METHODS = new HashSet<String>();
   protected static final Set<String> EXECUTE_METHODS = new HashSet<String>();
 
-  private Map<Object, Object> columnMap = new HashMap<Object, Object>();
+  private static final int INITIAL_COLUMN_CAPACITY = 8;
 
-  private List<Object> columnNames = new ArrayList<Object>();
-  private List<Object> columnValues = new ArrayList<Object>();
+  private Object[] columnNames = new Object[INITIAL_COLUMN_CAPACITY];
+  private Object[] columnValues = new Object[INITIAL_COLUMN_CAPACITY];
+  private int columnCount;
+
+  private final StringBuilder messageBuilder = new StringBuilder();
+  private String inputPrefix;
+  private String outputPrefix;
 
   protected Log statementLog;
   protected int queryStack;
@@ -92,26 +96,43 @@ public abstract class BaseJdbcLogger {
   }
 
   protected void setColumn(Object key, Object value) {
-    columnMap.put(key, value);
-    columnNames.add(key);
-    columnValues.add(value);
+    if (columnCount == columnNames.length) {
+      columnNames = Arrays.copyOf(columnNames, columnCount << 1);
+      columnValues = Arrays.copyOf(columnValues, columnCount << 1);
+    }
+    columnNames[columnCount] = key;
+    columnValues[columnCount] = value;
+    columnCount++;
   }
 
   protected Object getColumn(Object key) {
-    return columnMap.get(key);
+    // the last value set for a parameter index wins, as it did with a map
+    for (int i = columnCount - 1; i >= 0; i--) {
+      if (key == null ? columnNames[i] == null : key.equals(columnNames[i])) {
+        return columnValues[i];
+      }
+    }
+    return null;
   }
 
   protected String getParameterValueString() {
-    List<Object> typeList = new ArrayList<Object>(columnValues.size());
-    for (Object value : columnValues) {
+    StringBuilder builder = new StringBuilder();
+    appendParameterValues(builder);
+    return builder.toString();
+  }
+
+  private void appendParameterValues(StringBuilder builder) {
+    for (int i = 0; i < columnCount; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      Object value = columnValues[i];
       if (value == null) {
-        typeList.add("null");
+        builder.append("null");
       } else {
-        typeList.add(objectValueString(value) + "(" + value.getClass().getSimpleName() + ")");
+        builder.append(objectValueString(value)).append('(').append(value.getClass().getSimpleName()).append(')');
       }
     }
-    final String parameters = typeList.toString();
-    return parameters.substring(1, parameters.length() - 1);
   }
 
   protected String objectValueString(Object value) {
@@ -149,25 +170,85 @@ public abstract class BaseJdbcLogger {
   }
 
   protected String getColumnString() {
-    return columnNames.toString();
+    StringBuilder builder = new StringBuilder("[");
+    for (int i = 0; i < columnCount; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(columnNames[i]);
+    }
+    return builder.append(']').toString();
   }
 
   protected void clearColumnInfo() {
-    columnMap.clear();
-    columnNames.clear();
-    columnValues.clear();
+    // releases the values so the buffer does not keep them alive between executions
+    Arrays.fill(columnNames, 0, columnCount, null);
+    Arrays.fill(columnValues, 0, columnCount, null);
+    columnCount = 0;
   }
 
   protected String removeBreakingWhitespace(String original) {
-    StringTokenizer whitespaceStripper = new StringTokenizer(original);
-    StringBuilder builder = new StringBuilder();
-    while (whitespaceStripper.hasMoreTokens()) {
-      builder.append(whitespaceStripper.nextToken());
-      builder.append(" ");
-    }
+    StringBuilder builder = new StringBuilder(original.length() + 1);
+    appendWithoutBreakingWhitespace(builder, original);
     return builder.toString();
   }
 
+  /**
+   * Appends every whitespace separated token of the text followed by a single space,
+   * the same output {@link java.util.StringTokenizer} based formatting used to produce.
+   */
+  private static void appendWithoutBreakingWhitespace(StringBuilder builder, String text) {
+    boolean inToken = false;
+    for (int i = 0, n = text.length(); i < n; i++) {
+      char c = text.charAt(i);
+      if (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f') {
+        if (inToken) {
+          builder.append(' ');
+          inToken = false;
+        }
+      } else {
+        builder.append(c);
+        inToken = true;
+      }
+    }
+    if (inToken) {
+      builder.append(' ');
+    }
+  }
+
+  /**
+   * Logs the sql being prepared or executed, collapsing its whitespace only when debug is enabled.
+   */
+  protected void debugSql(String label, String sql) {
+    if (statementLog.isDebugEnabled()) {
+      StringBuilder builder = startMessage(true).append(label);
+      appendWithoutBreakingWhitespace(builder, sql);
+      statementLog.debug(builder.toString());
+    }
+  }
+
+  /**
+   * Logs the parameters recorded since the last execution, formatting them only when debug is enabled.
+   */
+  protected void debugParameters() {
+    if (statementLog.isDebugEnabled()) {
+      StringBuilder builder = startMessage(true).append("Parameters: ");
+      appendParameterValues(builder);
+      statementLog.debug(builder.toString());
+    }
+  }
+
+  protected void debugCount(String label, int count) {
+    if (statementLog.isDebugEnabled()) {
+      statementLog.debug(startMessage(false).append(label).append(count).toString());
+    }
+  }
+
+  private StringBuilder startMessage(boolean input) {
+    messageBuilder.setLength(0);
+    return messageBuilder.append(prefix(input));
+  }
+
   protected boolean isDebugEnabled() {
     return statementLog.isDebugEnabled();
   }
@@ -189,6 +270,19 @@ public abstract class BaseJdbcLogger {
   }
 
   private String prefix(boolean isInput) {
+    if (isInput) {
+      if (inputPrefix == null) {
+        inputPrefix = createPrefix(true);
+      }
+      return inputPrefix;
+    }
+    if (outputPrefix == null) {
+      outputPrefix = createPrefix(false);
+    }
+    return outputPrefix;
+  }
+
+  private String createPrefix(boolean isInput) {
     char[] buffer = new char[queryStack * 2 + 2];
     Arrays.fill(buffer, '=');
     buffer[queryStack * 2 + 1] = ' ';
@@ -48,9 +48,7 @@ public final class PreparedStatementLogger extends BaseJdbcLogger implements Inv
         return method.invoke(this, params);
       }          
       if (EXECUTE_METHODS.contains(method.getName())) {
-        if (isDebugEnabled()) {
-          debug("Parameters: " + getParameterValueString(), true);
-        }
+        debugParameters();
         clearColumnInfo();
         if ("executeQuery".equals(method.getName())) {
           ResultSet rs = (ResultSet) method.invoke(statement, params);
@@ -71,7 +69,7 @@ public final class PreparedStatementLogger extends BaseJdbcLogger implements Inv
       } else if ("getUpdateCount".equals(method.getName())) {
         int updateCount = (Integer) method.invoke(statement, params);
         if (updateCount != -1) {
-          debug("   Updates: " + updateCount, false);
+          debugCount("   Updates: ", updateCount);
         }
         return updateCount;
       } else {
@@ -41,7 +41,7 @@ public final class ResultSetLogger extends BaseJdbcLogger implements InvocationH
   private boolean first = true;
   private int rows;
   private ResultSet rs;
-  private Set<Integer> blobColumns = new HashSet<Integer>();
+  private boolean[] blobColumns;
 
   static {
     BLOB_TYPES.add(Types.BINARY);
@@ -79,10 +79,9 @@ public final class ResultSetLogger extends BaseJdbcLogger implements InvocationH
             printColumnValues(columnCount);
           }
         } else {
-          debug("     Total: " + rows, false);
+          debugCount("     Total: ", rows);
         }
       }
-      clearColumnInfo();
       return o;
     } catch (Throwable t) {
       throw ExceptionUtil.unwrapThrowable(t);
@@ -92,10 +91,9 @@ public final class ResultSetLogger extends BaseJdbcLogger implements InvocationH
   private void printColumnHeaders(ResultSetMetaData rsmd, int columnCount) throws SQLException {
     StringBuilder row = new StringBuilder();
     row.append("   Columns: ");
+    blobColumns = new boolean[columnCount + 1];
     for (int i = 1; i <= columnCount; i++) {
-      if (BLOB_TYPES.contains(rsmd.getColumnType(i))) {
-        blobColumns.add(i);
-      }
+      blobColumns[i] = BLOB_TYPES.contains(rsmd.getColumnType(i));
       String colname = rsmd.getColumnLabel(i);
       row.append(colname);
       if (i != columnCount) {
@@ -111,7 +109,7 @@ public final class ResultSetLogger extends BaseJdbcLogger implements InvocationH
     for (int i = 1; i <= columnCount; i++) {
       String colname;
       try {
-        if (blobColumns.contains(i)) {
+        if (i < blobColumns.length && blobColumns[i]) {
           colname = "<<BLOB>>";
         } else {
           colname = rs.getString(i);
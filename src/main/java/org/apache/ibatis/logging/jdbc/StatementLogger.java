@@ -47,9 +47,7 @@ public final class StatementLogger extends BaseJdbcLogger implements InvocationH
         return method.invoke(this, params);
       }    
       if (EXECUTE_METHODS.contains(method.getName())) {
-        if (isDebugEnabled()) {
-          debug(" Executing: " + removeBreakingWhitespace((String) params[0]), true);
-        }
+        debugSql(" Executing: ", (String) params[0]);
         if ("executeQuery".equals(method.getName())) {
           ResultSet rs = (ResultSet) method.invoke(statement, params);
           return rs == null ? null : ResultSetLogger.newInstance(rs, statementLog, queryStack);
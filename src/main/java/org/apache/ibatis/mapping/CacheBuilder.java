@@ -23,12 +23,15 @@ import java.util.Properties;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.CacheStatistics;
 import org.apache.ibatis.builder.InitializingObject;
 import org.apache.ibatis.cache.decorators.BlockingCache;
 import org.apache.ibatis.cache.decorators.LoggingCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.ScheduledCache;
 import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.decorators.StatisticsCache;
+import org.apache.ibatis.cache.decorators.StorageStatisticsCache;
 import org.apache.ibatis.cache.decorators.SynchronizedCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.reflection.MetaObject;
@@ -48,6 +51,7 @@ public class CacheBuilder {
   private boolean readWrite;
   private Properties properties;
   private boolean blocking;
+  private CacheStatistics statistics;
 
   public CacheBuilder(String id) {
     this.id = id;
@@ -86,6 +90,11 @@ public class CacheBuilder {
     return this;
   }
   
+  public CacheBuilder statistics(CacheStatistics statistics) {
+    this.statistics = statistics;
+    return this;
+  }
+
   public CacheBuilder properties(Properties properties) {
     this.properties = properties;
     return this;
@@ -102,6 +111,9 @@ public class CacheBuilder {
     setCacheProperties(cache);
     // issue #352, do not apply decorators to custom caches
     if (PerpetualCache.class.equals(cache.getClass())) {
+      if (statistics != null) {
+        cache = new StorageStatisticsCache(cache, statistics);
+      }
       for (Class<? extends Cache> decorator : decorators) {
         // 如果设置了装饰类（默认是LruCache），则先实例化该decorator，然后调用其含有Cache参数的构造方法将被装饰的Cache实例作为参数传入，生成一个被装饰好的Cache
         cache = newCacheDecoratorInstance(decorator, cache);
@@ -113,6 +125,9 @@ public class CacheBuilder {
     } else if (!LoggingCache.class.isAssignableFrom(cache.getClass())) {
       cache = new LoggingCache(cache);
     }
+    if (statistics != null) {
+      cache = new StatisticsCache(cache, statistics);
+    }
     return cache;
   }
 
@@ -16,6 +16,7 @@
 package org.apache.ibatis.mapping;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -23,6 +24,7 @@ import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.resultset.ResultSetLayout;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.scripting.LanguageDriver;
@@ -59,6 +61,8 @@ public final class MappedStatement {
   private Log statementLog;
   private LanguageDriver lang;
   private String[] resultSets;
+  // column layouts of the result sets returned by the last executions, by result set position
+  private volatile ResultSetLayout[] resultSetLayouts = new ResultSetLayout[0];
 
   MappedStatement() {
     // constructor disabled
@@ -291,6 +295,25 @@ public final class MappedStatement {
     return resultSets;
   }
   
+  /**
+   * Returns the column layout resolved for a result set of a previous execution of this statement, or null if none.
+   */
+  public ResultSetLayout getResultSetLayout(int resultSetIndex) {
+    final ResultSetLayout[] layouts = resultSetLayouts;
+    return resultSetIndex < layouts.length ? layouts[resultSetIndex] : null;
+  }
+
+  public synchronized void setResultSetLayout(int resultSetIndex, ResultSetLayout layout) {
+    ResultSetLayout[] layouts = resultSetLayouts;
+    if (resultSetIndex >= layouts.length) {
+      layouts = Arrays.copyOf(layouts, resultSetIndex + 1);
+    } else {
+      layouts = layouts.clone();
+    }
+    layouts[resultSetIndex] = layout;
+    resultSetLayouts = layouts;
+  }
+
   public BoundSql getBoundSql(Object parameterObject) {
     BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
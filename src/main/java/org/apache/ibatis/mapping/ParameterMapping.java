@@ -21,6 +21,7 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.apache.ibatis.type.UnknownTypeHandler;
 
 /**
  * @author Clinton Begin
@@ -41,6 +42,8 @@ public class ParameterMapping {
   private String resultMapId;
   private String jdbcTypeName;
   private String expression;
+  // handler an unknown type handler resolved for the class of the last value
+  private volatile ResolvedTypeHandler resolvedTypeHandler;
 
   private ParameterMapping() {
   }
@@ -179,6 +182,25 @@ public class ParameterMapping {
     return typeHandler;
   }
 
+  /**
+   * Used when setting parameters to the PreparedStatement.
+   * When the type handler is an {@link UnknownTypeHandler}, returns the handler it delegates the value to instead.
+   * That handler is remembered for the next values of the same class, a value of another class resolves it again.
+   * @return
+   */
+  public TypeHandler<?> getTypeHandler(Object value) {
+    if (value == null || !(typeHandler instanceof UnknownTypeHandler)) {
+      return typeHandler;
+    }
+    ResolvedTypeHandler resolved = resolvedTypeHandler;
+    if (resolved == null || resolved.javaType != value.getClass()) {
+      resolved = new ResolvedTypeHandler(value.getClass(),
+          ((UnknownTypeHandler) typeHandler).getParameterTypeHandler(value.getClass(), jdbcType));
+      resolvedTypeHandler = resolved;
+    }
+    return resolved.typeHandler;
+  }
+
   /**
    * Used for handling output of callable statements
    * @return
@@ -219,4 +241,16 @@ public class ParameterMapping {
     sb.append('}');
     return sb.toString();
   }
+
+  private static class ResolvedTypeHandler {
+
+    private final Class<?> javaType;
+    private final TypeHandler<?> typeHandler;
+
+    private ResolvedTypeHandler(Class<?> javaType, TypeHandler<?> typeHandler) {
+      this.javaType = javaType;
+      this.typeHandler = typeHandler;
+    }
+  }
+
 }
@@ -56,6 +56,7 @@ public class ResultMapping {
   private String resultSet;
   private String foreignColumn;
   private boolean lazy;
+  private int batchSize;
 
   ResultMapping() {
   }
@@ -142,6 +143,11 @@ public class ResultMapping {
       resultMapping.lazy = lazy;
       return this;
     }
+
+    public Builder batchSize(int batchSize) {
+      resultMapping.batchSize = batchSize;
+      return this;
+    }
     
     public ResultMapping build() {
       // lock down collections
@@ -178,6 +184,21 @@ public class ResultMapping {
           throw new IllegalStateException("There should be the same number of columns and foreignColumns in property " + resultMapping.property);
         }
       }
+      if (resultMapping.batchSize < 0) {
+        throw new IllegalStateException("Batch size must not be negative in property " + resultMapping.property);
+      }
+      // batch fetching matches children to parents on a single foreign column
+      if (resultMapping.batchSize > 0) {
+        if (resultMapping.nestedQueryId == null) {
+          throw new IllegalStateException("Batch fetching requires a nested select in property " + resultMapping.property);
+        }
+        if (!resultMapping.composites.isEmpty() || resultMapping.column == null || resultMapping.column.contains(",")) {
+          throw new IllegalStateException("Batch fetching requires a single column in property " + resultMapping.property);
+        }
+        if (resultMapping.foreignColumn == null || resultMapping.foreignColumn.contains(",")) {
+          throw new IllegalStateException("Batch fetching requires a single foreignColumn in property " + resultMapping.property);
+        }
+      }
     }
     
     private void resolveTypeHandler() {
@@ -262,6 +283,17 @@ public class ResultMapping {
     this.lazy = lazy;
   }
 
+  /**
+   * @return the maximum number of keys loaded by a single nested select, 0 if the nested select runs once per row.
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public boolean isBatchFetch() {
+    return batchSize > 0;
+  }
+
   /**
    * 重写了equals方法，只要两个都是同一个ClassLoader加载的RequestMapping类生成的对象
    * 且两个的property属性存在且equals，那这两个RequestMapping对象就equal
@@ -315,6 +347,7 @@ public class ResultMapping {
     sb.append(", resultSet='").append(resultSet).append('\'');
     sb.append(", foreignColumn='").append(foreignColumn).append('\'');
     sb.append(", lazy=").append(lazy);
+    sb.append(", batchSize=").append(batchSize);
     sb.append('}');
     return sb.toString();
   }
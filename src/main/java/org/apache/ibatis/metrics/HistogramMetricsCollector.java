@@ -0,0 +1,80 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * Default {@link MetricsCollector}, it keeps lock free histograms per mapped statement id.
+ * Use the {@code HISTOGRAM} alias to enable it with the {@code metricsCollector} setting.
+ */
+public class HistogramMetricsCollector implements MetricsCollector {
+
+  private final ConcurrentMap<String, StatementStatistics> statistics = new ConcurrentHashMap<String, StatementStatistics>();
+
+  @Override
+  public void recordPhase(MappedStatement ms, StatementPhase phase, long elapsedNanos) {
+    getOrCreateStatistics(ms.getId()).recordPhase(phase, elapsedNanos);
+  }
+
+  @Override
+  public void recordRows(MappedStatement ms, int rows) {
+    getOrCreateStatistics(ms.getId()).recordRows(rows);
+  }
+
+  @Override
+  public void recordCacheHit(MappedStatement ms) {
+    getOrCreateStatistics(ms.getId()).recordCacheHit();
+  }
+
+  @Override
+  public void recordCacheMiss(MappedStatement ms) {
+    getOrCreateStatistics(ms.getId()).recordCacheMiss();
+  }
+
+  /**
+   * @return the metrics of the statement, or null if it was not executed
+   */
+  public StatementStatistics getStatistics(String statementId) {
+    return statistics.get(statementId);
+  }
+
+  public Map<String, StatementStatistics> getAllStatistics() {
+    return Collections.unmodifiableMap(statistics);
+  }
+
+  public void clear() {
+    statistics.clear();
+  }
+
+  private StatementStatistics getOrCreateStatistics(String statementId) {
+    StatementStatistics current = statistics.get(statementId);
+    if (current == null) {
+      StatementStatistics created = new StatementStatistics(statementId);
+      current = statistics.putIfAbsent(statementId, created);
+      if (current == null) {
+        current = created;
+      }
+    }
+    return current;
+  }
+
+}
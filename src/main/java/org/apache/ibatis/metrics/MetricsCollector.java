@@ -0,0 +1,46 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * Receives the metrics of the statements executed by MyBatis.
+ * <p>
+ * The executor, the statement handlers, the parameter handler and the result set handler call it
+ * at their phase boundaries when a collector is set on the configuration ({@code metricsCollector} setting).
+ * Nothing is measured when no collector is set. Implementations are called concurrently by every session
+ * and must be thread safe and cheap.
+ *
+ * @see HistogramMetricsCollector
+ */
+public interface MetricsCollector {
+
+  void recordPhase(MappedStatement ms, StatementPhase phase, long elapsedNanos);
+
+  void recordRows(MappedStatement ms, int rows);
+
+  /**
+   * Called when a query result is found in the second level cache.
+   */
+  void recordCacheHit(MappedStatement ms);
+
+  /**
+   * Called when a query result of a cached statement is not found in the second level cache.
+   */
+  void recordCacheMiss(MappedStatement ms);
+
+}
@@ -0,0 +1,101 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A statement execution that took longer than the slow statement threshold.
+ * Timings are in nanoseconds, the row count is -1 if the statement failed.
+ */
+public class SlowStatement {
+
+  private final String id;
+  private final String sql;
+  private final List<Object> parameters;
+  private final int rows;
+  private final long elapsedNanos;
+  private final long[] phaseNanos;
+  private final long timestamp;
+
+  SlowStatement(String id, String sql, List<Object> parameters, int rows, long elapsedNanos, long[] phaseNanos) {
+    this.id = id;
+    this.sql = sql;
+    this.parameters = Collections.unmodifiableList(parameters);
+    this.rows = rows;
+    this.elapsedNanos = elapsedNanos;
+    this.phaseNanos = phaseNanos;
+    this.timestamp = System.currentTimeMillis();
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  /**
+   * @return the values bound to the statement, in the order of its parameters
+   */
+  public List<Object> getParameters() {
+    return parameters;
+  }
+
+  public int getRows() {
+    return rows;
+  }
+
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  public long getPhaseNanos(StatementPhase phase) {
+    return phaseNanos[phase.ordinal()];
+  }
+
+  /**
+   * @return when the statement completed, in milliseconds since the epoch
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("Slow statement ").append(id)
+        .append(" took ").append(elapsedNanos / 1000000).append(" ms");
+    if (rows >= 0) {
+      sb.append(", ").append(rows).append(" rows");
+    } else {
+      sb.append(", failed");
+    }
+    sb.append(" (");
+    StatementPhase[] phases = StatementPhase.values();
+    for (int i = 0; i < phases.length; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(phases[i].name().toLowerCase()).append('=').append(phaseNanos[i] / 1000000).append(" ms");
+    }
+    sb.append(")\n  SQL: ").append(sql.replaceAll("\\s+", " ").trim());
+    sb.append("\n  Parameters: ").append(parameters);
+    return sb.toString();
+  }
+
+}
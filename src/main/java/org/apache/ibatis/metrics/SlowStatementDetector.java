@@ -0,0 +1,238 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Detects the statements that take longer than a threshold ({@code slowStatementThreshold} setting, in milliseconds).
+ * <p>
+ * The executor times every database round trip and the detector collects the phase timings reported while
+ * it runs, forwarding them to the metrics collector of the configuration if any. Nothing else is done for
+ * statements under the threshold. A slow statement is logged at warn level by this class' logger and kept
+ * in a ring buffer of the most recent slow statements, with its SQL, bound parameter values, row count
+ * and phase timings.
+ * <p>
+ * With the batch executor an update is only timed while it is added to the batch, the execution of the batch
+ * when the statements are flushed is not attributed to the statements it contains.
+ */
+public class SlowStatementDetector implements MetricsCollector {
+
+  private static final Log log = LogFactory.getLog(SlowStatementDetector.class);
+  private static final int DEFAULT_BUFFER_SIZE = 100;
+
+  private final long thresholdNanos;
+  private final MetricsCollector delegate;
+  private final ThreadLocal<Execution> currentExecution = new ThreadLocal<Execution>();
+  private final AtomicReferenceArray<SlowStatement> recentSlowStatements;
+  private final AtomicLong slowStatementCount = new AtomicLong();
+
+  public SlowStatementDetector(long thresholdMillis, MetricsCollector delegate) {
+    this(thresholdMillis, delegate, DEFAULT_BUFFER_SIZE);
+  }
+
+  public SlowStatementDetector(long thresholdMillis, MetricsCollector delegate, int bufferSize) {
+    if (thresholdMillis < 0) {
+      throw new IllegalArgumentException("Slow statement threshold must not be negative but was " + thresholdMillis);
+    }
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("Slow statement buffer size must be positive but was " + bufferSize);
+    }
+    this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    this.delegate = delegate;
+    this.recentSlowStatements = new AtomicReferenceArray<SlowStatement>(bufferSize);
+  }
+
+  public long getThresholdMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+  }
+
+  /**
+   * @return the metrics collector the phases are forwarded to, null if none
+   */
+  public MetricsCollector getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public void recordPhase(MappedStatement ms, StatementPhase phase, long elapsedNanos) {
+    if (delegate != null) {
+      delegate.recordPhase(ms, phase, elapsedNanos);
+    }
+    Execution execution = currentExecution.get();
+    if (execution != null) {
+      execution.phaseNanos[phase.ordinal()] += elapsedNanos;
+    }
+  }
+
+  @Override
+  public void recordRows(MappedStatement ms, int rows) {
+    if (delegate != null) {
+      delegate.recordRows(ms, rows);
+    }
+    Execution execution = currentExecution.get();
+    if (execution != null) {
+      execution.rows = rows;
+    }
+  }
+
+  @Override
+  public void recordCacheHit(MappedStatement ms) {
+    if (delegate != null) {
+      delegate.recordCacheHit(ms);
+    }
+  }
+
+  @Override
+  public void recordCacheMiss(MappedStatement ms) {
+    if (delegate != null) {
+      delegate.recordCacheMiss(ms);
+    }
+  }
+
+  /**
+   * Keeps the SQL built for the statement being timed on the current thread, if any.
+   * Updates build it in their statement handler, after the keys generated before the statement are set.
+   */
+  public void recordBoundSql(BoundSql boundSql) {
+    Execution execution = currentExecution.get();
+    if (execution != null) {
+      execution.boundSql = boundSql;
+    }
+  }
+
+  /**
+   * Starts timing a statement on the current thread. Must be followed by {@link #end}.
+   */
+  public Execution begin() {
+    Execution execution = new Execution(currentExecution.get());
+    currentExecution.set(execution);
+    return execution;
+  }
+
+  /**
+   * Ends the timing of a statement and records it if it was slow.
+   *
+   * @param boundSql the executed SQL, or null to use the one recorded by {@link #recordBoundSql}.
+   *                 It is built again from the parameter only if the statement was slow and none was recorded
+   * @param rows the affected or mapped rows, -1 if the statement failed
+   */
+  public void end(Execution execution, MappedStatement ms, Object parameter, BoundSql boundSql, int rows) {
+    long elapsedNanos = System.nanoTime() - execution.start;
+    if (execution.previous == null) {
+      currentExecution.remove();
+    } else {
+      currentExecution.set(execution.previous);
+    }
+    if (elapsedNanos < thresholdNanos) {
+      return;
+    }
+    if (rows >= 0 && execution.rows >= 0) {
+      rows = execution.rows;
+    }
+    if (boundSql == null) {
+      boundSql = execution.boundSql != null ? execution.boundSql : ms.getBoundSql(parameter);
+    }
+    SlowStatement slowStatement = new SlowStatement(ms.getId(), boundSql.getSql(), boundParameters(ms, boundSql),
+        rows, elapsedNanos, execution.phaseNanos);
+    long index = slowStatementCount.getAndIncrement();
+    recentSlowStatements.set((int) (index % recentSlowStatements.length()), slowStatement);
+    log.warn(slowStatement.toString());
+  }
+
+  /**
+   * @return the most recent slow statements, the oldest first
+   */
+  public List<SlowStatement> getRecentSlowStatements() {
+    List<SlowStatement> statements = new ArrayList<SlowStatement>();
+    long count = slowStatementCount.get();
+    int size = recentSlowStatements.length();
+    for (long i = Math.max(0, count - size); i < count; i++) {
+      SlowStatement statement = recentSlowStatements.get((int) (i % size));
+      if (statement != null) {
+        statements.add(statement);
+      }
+    }
+    return statements;
+  }
+
+  public long getSlowStatementCount() {
+    return slowStatementCount.get();
+  }
+
+  // mimic DefaultParameterHandler logic
+  private static List<Object> boundParameters(MappedStatement ms, BoundSql boundSql) {
+    Configuration configuration = ms.getConfiguration();
+    Object parameterObject = boundSql.getParameterObject();
+    List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+    List<Object> values = new ArrayList<Object>(parameterMappings.size());
+    MetaObject metaObject = null;
+    for (ParameterMapping parameterMapping : parameterMappings) {
+      if (parameterMapping.getMode() == ParameterMode.OUT) {
+        values.add(null);
+        continue;
+      }
+      String propertyName = parameterMapping.getProperty();
+      try {
+        if (boundSql.hasAdditionalParameter(propertyName)) {
+          values.add(boundSql.getAdditionalParameter(propertyName));
+        } else if (parameterObject == null) {
+          values.add(null);
+        } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+          values.add(parameterObject);
+        } else {
+          if (metaObject == null) {
+            metaObject = configuration.newMetaObject(parameterObject);
+          }
+          values.add(metaObject.getValue(propertyName));
+        }
+      } catch (RuntimeException e) {
+        values.add("<unavailable: " + e.getMessage() + ">");
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Timing of a statement on the current thread. Nested statements, such as nested selects, get their own.
+   */
+  public static final class Execution {
+
+    private final Execution previous;
+    private final long start = System.nanoTime();
+    private final long[] phaseNanos = new long[StatementPhase.values().length];
+    private int rows = -1;
+    private BoundSql boundSql;
+
+    private Execution(Execution previous) {
+      this.previous = previous;
+    }
+  }
+
+}
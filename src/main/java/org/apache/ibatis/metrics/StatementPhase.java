@@ -0,0 +1,42 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+/**
+ * The phases of a statement execution reported to the {@link MetricsCollector}.
+ */
+public enum StatementPhase {
+  /**
+   * Building the final SQL and its parameter mappings from the mapped statement.
+   */
+  SQL_GENERATION,
+  /**
+   * Getting the connection from the transaction.
+   */
+  CONNECTION_ACQUISITION,
+  /**
+   * Binding the parameter values to the prepared statement.
+   */
+  PARAMETER_SETTING,
+  /**
+   * Executing the statement in the database.
+   */
+  EXECUTION,
+  /**
+   * Mapping the result sets to result objects.
+   */
+  RESULT_MAPPING
+}
@@ -0,0 +1,91 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of a mapped statement collected by the {@link HistogramMetricsCollector}.
+ * Phase timings are in nanoseconds.
+ */
+public class StatementStatistics {
+
+  private final String id;
+  private final Map<StatementPhase, Histogram> phases = new EnumMap<StatementPhase, Histogram>(StatementPhase.class);
+  private final Histogram rows = new Histogram();
+  private final AtomicLong cacheHits = new AtomicLong();
+  private final AtomicLong cacheMisses = new AtomicLong();
+
+  public StatementStatistics(String id) {
+    this.id = id;
+    for (StatementPhase phase : StatementPhase.values()) {
+      phases.put(phase, new Histogram());
+    }
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public Histogram getPhase(StatementPhase phase) {
+    return phases.get(phase);
+  }
+
+  /**
+   * @return the histogram of the rows mapped by each query
+   */
+  public Histogram getRows() {
+    return rows;
+  }
+
+  public long getCacheHits() {
+    return cacheHits.get();
+  }
+
+  public long getCacheMisses() {
+    return cacheMisses.get();
+  }
+
+  void recordPhase(StatementPhase phase, long elapsedNanos) {
+    phases.get(phase).record(elapsedNanos);
+  }
+
+  void recordRows(int count) {
+    rows.record(count);
+  }
+
+  void recordCacheHit() {
+    cacheHits.incrementAndGet();
+  }
+
+  void recordCacheMiss() {
+    cacheMisses.incrementAndGet();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(id);
+    for (Map.Entry<StatementPhase, Histogram> entry : phases.entrySet()) {
+      sb.append("\n  ").append(entry.getKey()).append(": ").append(entry.getValue());
+    }
+    sb.append("\n  ROWS: ").append(rows);
+    sb.append("\n  CACHE: hits=").append(getCacheHits()).append(", misses=").append(getCacheMisses());
+    return sb.toString();
+  }
+
+}
@@ -0,0 +1,67 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter striped over padded cells so threads updating it concurrently rarely contend.
+ * Reads sum the cells, they are not atomic with respect to concurrent updates.
+ */
+public class StripedCounter {
+
+  private static final int MAX_STRIPES = 16;
+  // longs per 64 byte cache line, so two stripes never share a line
+  private static final int PADDING = 8;
+
+  private final int mask;
+  private final AtomicLongArray cells;
+
+  public StripedCounter() {
+    int stripes = 1;
+    int processors = Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES);
+    while (stripes < processors) {
+      stripes <<= 1;
+    }
+    this.mask = stripes - 1;
+    this.cells = new AtomicLongArray(stripes * PADDING);
+  }
+
+  public void increment() {
+    add(1);
+  }
+
+  public void add(long delta) {
+    long threadId = Thread.currentThread().getId();
+    int stripe = (int) (threadId ^ (threadId >>> 16)) & mask;
+    cells.addAndGet(stripe * PADDING, delta);
+  }
+
+  public long get() {
+    long sum = 0;
+    for (int i = 0; i < cells.length(); i += PADDING) {
+      sum += cells.get(i);
+    }
+    return sum;
+  }
+
+  public void reset() {
+    for (int i = 0; i < cells.length(); i += PADDING) {
+      cells.set(i, 0);
+    }
+  }
+
+}
@@ -30,6 +30,9 @@ import java.util.List;
 public class InterceptorChain {
 
   private final List<Interceptor> interceptors = new ArrayList<Interceptor>();
+  // interceptors applied when the pipeline is enabled, consecutive annotated ones are grouped in one pipeline
+  private final List<Interceptor> pipeline = new ArrayList<Interceptor>();
+  private boolean pipelineEnabled;
 
   /**
    * 获取代理对象，遍历所有的Interceptor定义，判断目标对象所属类是否被拦截，如果是的话就将其封装一下，所以最终返回的可能是一个经过多层代理的对象
@@ -37,7 +40,7 @@ public class InterceptorChain {
    * @return
    */
   public Object pluginAll(Object target) {
-    for (Interceptor interceptor : interceptors) {
+    for (Interceptor interceptor : pipelineEnabled ? pipeline : interceptors) {
       target = interceptor.plugin(target);
     }
     return target;
@@ -45,6 +48,29 @@ public class InterceptorChain {
 
   public void addInterceptor(Interceptor interceptor) {
     interceptors.add(interceptor);
+    if (InterceptorPipeline.supports(interceptor)) {
+      Interceptor last = pipeline.isEmpty() ? null : pipeline.get(pipeline.size() - 1);
+      if (!(last instanceof InterceptorPipeline)) {
+        last = new InterceptorPipeline();
+        pipeline.add(last);
+      }
+      ((InterceptorPipeline) last).addInterceptor(interceptor);
+    } else {
+      pipeline.add(interceptor);
+    }
+  }
+
+  public boolean isPipelineEnabled() {
+    return pipelineEnabled;
+  }
+
+  /**
+   * When enabled, the interceptors declaring their signatures with {@link Intercepts} are applied
+   * through a single proxy per target instead of one proxy per interceptor.
+   * Their {@link Interceptor#plugin(Object)} method is not called then.
+   */
+  public void setPipelineEnabled(boolean pipelineEnabled) {
+    this.pipelineEnabled = pipelineEnabled;
   }
   
   public List<Interceptor> getInterceptors() {
@@ -0,0 +1,182 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * Consecutive interceptors declaring their signatures with {@link Intercepts}, applied with a single proxy.
+ * <p>
+ * Signatures are resolved when an interceptor is added. For each target class the intercepted interfaces,
+ * the proxy constructor and the interceptors of every intercepted method are resolved once, so wrapping a target
+ * is one proxy instantiation and calling a method costs one lookup whatever the number of interceptors.
+ * Interceptors are called in the same order as with nested proxies, the last added one first.
+ * Their {@link Interceptor#plugin(Object)} method is not called.
+ */
+class InterceptorPipeline implements Interceptor {
+
+  private static final Dispatch NO_DISPATCH = new Dispatch(null, null);
+  private static final InvocationHandler PROTOTYPE_HANDLER = new InvocationHandler() {
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      throw new PluginException("The interceptor pipeline prototype proxy cannot be invoked.");
+    }
+  };
+
+  private final List<Interceptor> interceptors = new ArrayList<Interceptor>();
+  private final List<Map<Class<?>, Set<Method>>> signatureMaps = new ArrayList<Map<Class<?>, Set<Method>>>();
+  private final Map<Class<?>, Dispatch> dispatches = new ConcurrentHashMap<Class<?>, Dispatch>();
+
+  static boolean supports(Interceptor interceptor) {
+    return interceptor.getClass().isAnnotationPresent(Intercepts.class);
+  }
+
+  void addInterceptor(Interceptor interceptor) {
+    signatureMaps.add(Plugin.getSignatureMap(interceptor));
+    interceptors.add(interceptor);
+    dispatches.clear();
+  }
+
+  @Override
+  public Object plugin(Object target) {
+    Dispatch dispatch = getDispatch(target.getClass());
+    if (dispatch == NO_DISPATCH) {
+      return target;
+    }
+    try {
+      return dispatch.proxyConstructor.newInstance(new PipelineHandler(target, dispatch.chains));
+    } catch (Exception e) {
+      throw new PluginException("Could not create the interceptor pipeline proxy of " + target.getClass() + ". Cause: " + e, e);
+    }
+  }
+
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    Interceptor[] chain = getDispatch(invocation.getTarget().getClass()).chains.get(invocation.getMethod());
+    if (chain == null) {
+      return invocation.proceed();
+    }
+    return chain[0].intercept(new PipelineInvocation(invocation.getTarget(), invocation.getMethod(), invocation.getArgs(), chain, 0));
+  }
+
+  @Override
+  public void setProperties(Properties properties) {
+    // NOP
+  }
+
+  private Dispatch getDispatch(Class<?> type) {
+    Dispatch dispatch = dispatches.get(type);
+    if (dispatch == null) {
+      dispatch = resolveDispatch(type);
+      dispatches.put(type, dispatch);
+    }
+    return dispatch;
+  }
+
+  private Dispatch resolveDispatch(Class<?> type) {
+    final Set<Class<?>> interfaces = new LinkedHashSet<Class<?>>();
+    for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+      for (Class<?> i : c.getInterfaces()) {
+        for (Map<Class<?>, Set<Method>> signatureMap : signatureMaps) {
+          if (signatureMap.containsKey(i)) {
+            interfaces.add(i);
+          }
+        }
+      }
+    }
+    if (interfaces.isEmpty()) {
+      return NO_DISPATCH;
+    }
+    final Map<Method, List<Interceptor>> interceptorsByMethod = new HashMap<Method, List<Interceptor>>();
+    for (int i = interceptors.size() - 1; i >= 0; i--) {
+      for (Map.Entry<Class<?>, Set<Method>> entry : signatureMaps.get(i).entrySet()) {
+        if (!interfaces.contains(entry.getKey())) {
+          continue;
+        }
+        for (Method method : entry.getValue()) {
+          List<Interceptor> chain = interceptorsByMethod.get(method);
+          if (chain == null) {
+            chain = new ArrayList<Interceptor>();
+            interceptorsByMethod.put(method, chain);
+          }
+          if (!chain.contains(interceptors.get(i))) {
+            chain.add(interceptors.get(i));
+          }
+        }
+      }
+    }
+    final Map<Method, Interceptor[]> chains = new HashMap<Method, Interceptor[]>();
+    for (Map.Entry<Method, List<Interceptor>> entry : interceptorsByMethod.entrySet()) {
+      chains.put(entry.getKey(), entry.getValue().toArray(new Interceptor[entry.getValue().size()]));
+    }
+    try {
+      // the proxy class is shared by every target of this type, only its constructor is kept
+      Object prototype = Proxy.newProxyInstance(type.getClassLoader(), interfaces.toArray(new Class<?>[interfaces.size()]), PROTOTYPE_HANDLER);
+      return new Dispatch(prototype.getClass().getConstructor(InvocationHandler.class), chains);
+    } catch (NoSuchMethodException e) {
+      throw new PluginException("Could not find the constructor of the interceptor pipeline proxy of " + type + ". Cause: " + e, e);
+    }
+  }
+
+  private static class Dispatch {
+
+    private final Constructor<?> proxyConstructor;
+    private final Map<Method, Interceptor[]> chains;
+
+    private Dispatch(Constructor<?> proxyConstructor, Map<Method, Interceptor[]> chains) {
+      this.proxyConstructor = proxyConstructor;
+      this.chains = chains;
+    }
+  }
+
+  private static class PipelineHandler implements InvocationHandler {
+
+    private final Object target;
+    private final Map<Method, Interceptor[]> chains;
+
+    private PipelineHandler(Object target, Map<Method, Interceptor[]> chains) {
+      this.target = target;
+      this.chains = chains;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      try {
+        Interceptor[] chain = chains.get(method);
+        if (chain != null) {
+          return chain[0].intercept(new PipelineInvocation(target, method, args, chain, 0));
+        }
+        return method.invoke(target, args);
+      } catch (Exception e) {
+        throw ExceptionUtil.unwrapThrowable(e);
+      }
+    }
+  }
+
+}
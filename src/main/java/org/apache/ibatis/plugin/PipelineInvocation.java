@@ -0,0 +1,52 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Invocation of a flat interceptor pipeline, proceeding calls the next interceptor of the pipeline
+ * and the target once all of them have been called.
+ */
+class PipelineInvocation extends Invocation {
+
+  private final Interceptor[] interceptors;
+  private final int index;
+
+  PipelineInvocation(Object target, Method method, Object[] args, Interceptor[] interceptors, int index) {
+    super(target, method, args);
+    this.interceptors = interceptors;
+    this.index = index;
+  }
+
+  @Override
+  public Object proceed() throws InvocationTargetException, IllegalAccessException {
+    final int next = index + 1;
+    if (next == interceptors.length) {
+      return super.proceed();
+    }
+    try {
+      return interceptors[next].intercept(new PipelineInvocation(getTarget(), getMethod(), getArgs(), interceptors, next));
+    } catch (InvocationTargetException e) {
+      throw e;
+    } catch (Throwable t) {
+      // same as the reflective call through the proxy of the next interceptor
+      throw new InvocationTargetException(t);
+    }
+  }
+
+}
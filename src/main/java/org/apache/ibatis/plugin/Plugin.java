@@ -18,10 +18,12 @@ package org.apache.ibatis.plugin;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import org.apache.ibatis.reflection.ExceptionUtil;
 
@@ -36,6 +38,10 @@ import org.apache.ibatis.reflection.ExceptionUtil;
  */
 public class Plugin implements InvocationHandler {
 
+  // signatures only depend on the annotations of the interceptor class
+  private static final Map<Class<?>, Map<Class<?>, Set<Method>>> signatureMapCache =
+      Collections.synchronizedMap(new WeakHashMap<Class<?>, Map<Class<?>, Set<Method>>>());
+
   private Object target;
   private Interceptor interceptor;
   private Map<Class<?>, Set<Method>> signatureMap;
@@ -78,7 +84,16 @@ public class Plugin implements InvocationHandler {
      * @param interceptor 自定义的Interceptor
      * @return
      */
-  private static Map<Class<?>, Set<Method>> getSignatureMap(Interceptor interceptor) {
+  static Map<Class<?>, Set<Method>> getSignatureMap(Interceptor interceptor) {
+    Map<Class<?>, Set<Method>> signatureMap = signatureMapCache.get(interceptor.getClass());
+    if (signatureMap == null) {
+      signatureMap = resolveSignatureMap(interceptor);
+      signatureMapCache.put(interceptor.getClass(), signatureMap);
+    }
+    return signatureMap;
+  }
+
+  private static Map<Class<?>, Set<Method>> resolveSignatureMap(Interceptor interceptor) {
       //获取自定义拦截器（Interceptor）上的注解 @Intercepts
     Intercepts interceptsAnnotation = interceptor.getClass().getAnnotation(Intercepts.class);
     // issue #251
@@ -0,0 +1,289 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.lang.UsesJava8;
+
+/**
+ * {@link ParamMap} of a mapper method with several parameters, backed by an array of the argument values.
+ * <p>
+ * The names of the parameters and their generic names ({@code param1}, {@code param2}, ...) are resolved once per
+ * method into a {@link Layout}, so a call only copies its arguments into an array instead of filling a hash map.
+ * Lookups and updates of the parameters are served by the array. Any other change, and any call that needs the
+ * entries as a whole such as iterating a view, first moves the entries to the hash map, which serves everything
+ * from then on.
+ */
+public class IndexedParamMap extends ParamMap<Object> {
+
+  private static final long serialVersionUID = 2968542236435707632L;
+
+  // both null once the entries are in the hash map
+  private transient Layout layout;
+  private transient Object[] values;
+
+  IndexedParamMap(Layout layout, Object[] args) {
+    this.layout = layout;
+    this.values = new Object[layout.names.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = args[layout.argIndexes[i]];
+    }
+  }
+
+  /**
+   * @return the index of the value of a parameter, or -1 if it is not a parameter or the entries are in the hash map
+   */
+  public int indexOf(String name) {
+    return layout == null ? -1 : layout.indexOf(name);
+  }
+
+  /**
+   * @return the value at an index returned by {@link #indexOf(String)}
+   */
+  public Object getValue(int index) {
+    return values[index];
+  }
+
+  public void setValue(int index, Object value) {
+    values[index] = value;
+  }
+
+  private void moveToHashMap() {
+    if (layout != null) {
+      final String[] names = layout.names;
+      final Object[] args = values;
+      layout = null;
+      values = null;
+      for (int i = 0; i < names.length; i++) {
+        super.put(names[i], args[i]);
+      }
+    }
+  }
+
+  @Override
+  public Object get(Object key) {
+    if (layout == null) {
+      return super.get(key);
+    }
+    int index = layout.indexOf(key);
+    if (index < 0) {
+      throw new BindingException("Parameter '" + key + "' not found. Available parameters are " + keySet());
+    }
+    return values[index];
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return layout == null ? super.containsKey(key) : layout.indexOf(key) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return layout == null ? super.size() : values.length;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  public Object put(String key, Object value) {
+    int index = indexOf(key);
+    if (index >= 0) {
+      Object previous = values[index];
+      values[index] = value;
+      return previous;
+    }
+    moveToHashMap();
+    return super.put(key, value);
+  }
+
+  @Override
+  public void putAll(Map<? extends String, ? extends Object> m) {
+    moveToHashMap();
+    super.putAll(m);
+  }
+
+  @Override
+  public Object remove(Object key) {
+    moveToHashMap();
+    return super.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    moveToHashMap();
+    super.clear();
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    moveToHashMap();
+    return super.containsValue(value);
+  }
+
+  @Override
+  public Set<String> keySet() {
+    moveToHashMap();
+    return super.keySet();
+  }
+
+  @Override
+  public Collection<Object> values() {
+    moveToHashMap();
+    return super.values();
+  }
+
+  @Override
+  public Set<Map.Entry<String, Object>> entrySet() {
+    moveToHashMap();
+    return super.entrySet();
+  }
+
+  @Override
+  public Object clone() {
+    moveToHashMap();
+    return super.clone();
+  }
+
+  @UsesJava8
+  @Override
+  public Object getOrDefault(Object key, Object defaultValue) {
+    if (layout == null) {
+      return super.getOrDefault(key, defaultValue);
+    }
+    int index = layout.indexOf(key);
+    return index < 0 ? defaultValue : values[index];
+  }
+
+  @UsesJava8
+  @Override
+  public Object putIfAbsent(String key, Object value) {
+    moveToHashMap();
+    return super.putIfAbsent(key, value);
+  }
+
+  @UsesJava8
+  @Override
+  public boolean remove(Object key, Object value) {
+    moveToHashMap();
+    return super.remove(key, value);
+  }
+
+  @UsesJava8
+  @Override
+  public boolean replace(String key, Object oldValue, Object newValue) {
+    moveToHashMap();
+    return super.replace(key, oldValue, newValue);
+  }
+
+  @UsesJava8
+  @Override
+  public Object replace(String key, Object value) {
+    moveToHashMap();
+    return super.replace(key, value);
+  }
+
+  @UsesJava8
+  @Override
+  public Object computeIfAbsent(String key, Function<? super String, ? extends Object> mappingFunction) {
+    moveToHashMap();
+    return super.computeIfAbsent(key, mappingFunction);
+  }
+
+  @UsesJava8
+  @Override
+  public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ? extends Object> remappingFunction) {
+    moveToHashMap();
+    return super.computeIfPresent(key, remappingFunction);
+  }
+
+  @UsesJava8
+  @Override
+  public Object compute(String key, BiFunction<? super String, ? super Object, ? extends Object> remappingFunction) {
+    moveToHashMap();
+    return super.compute(key, remappingFunction);
+  }
+
+  @UsesJava8
+  @Override
+  public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ? extends Object> remappingFunction) {
+    moveToHashMap();
+    return super.merge(key, value, remappingFunction);
+  }
+
+  @UsesJava8
+  @Override
+  public void forEach(BiConsumer<? super String, ? super Object> action) {
+    moveToHashMap();
+    super.forEach(action);
+  }
+
+  @UsesJava8
+  @Override
+  public void replaceAll(BiFunction<? super String, ? super Object, ? extends Object> function) {
+    moveToHashMap();
+    super.replaceAll(function);
+  }
+
+  // the hash map is written by its own serialization, so it gets the entries first
+  private Object writeReplace() {
+    moveToHashMap();
+    return this;
+  }
+
+  /**
+   * Names of the parameters of a method, and the index of the argument each of them refers to.
+   */
+  static final class Layout {
+
+    private final String[] names;
+    private final int[] argIndexes;
+    private final Map<String, Integer> indexes;
+
+    /**
+     * @param argIndexes the index of the argument of each name
+     */
+    Layout(Map<String, Integer> argIndexes) {
+      this.names = new String[argIndexes.size()];
+      this.argIndexes = new int[argIndexes.size()];
+      this.indexes = new HashMap<String, Integer>();
+      int i = 0;
+      for (Map.Entry<String, Integer> entry : argIndexes.entrySet()) {
+        names[i] = entry.getKey();
+        this.argIndexes[i] = entry.getValue();
+        indexes.put(entry.getKey(), i);
+        i++;
+      }
+    }
+
+    int indexOf(Object name) {
+      Integer index = indexes.get(name);
+      return index == null ? -1 : index;
+    }
+  }
+
+}
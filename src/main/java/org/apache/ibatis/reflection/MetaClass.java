@@ -196,4 +196,12 @@ public class MetaClass {
     return reflector.hasDefaultConstructor();
   }
 
+  /**
+   * Returns the compiled form of a property expression of this class, such as {@code a.b[0].c}.
+   * Paths are parsed once and cached with the class information.
+   */
+  public PropertyPath getPropertyPath(String name) {
+    return reflector.getPropertyPath(name, reflectorFactory);
+  }
+
 }
@@ -19,6 +19,7 @@ package org.apache.ibatis.reflection;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
@@ -50,6 +51,12 @@ public class ParamNameResolver {
 
   private boolean hasParamAnnotation;
 
+  /**
+   * Names and generic names of the parameters, and the index of the argument of each of them,
+   * null when the single parameter is passed as is.
+   */
+  private final IndexedParamMap.Layout paramMapLayout;
+
   public ParamNameResolver(Configuration config, Method method) {
     final Class<?>[] paramTypes = method.getParameterTypes();
     // 获取方法参数上的注解，二维数组：第一维是参数的index；第二维是指定index上参数的注解（一个参数可以有多个注解）
@@ -89,6 +96,23 @@ public class ParamNameResolver {
       map.put(paramIndex, name);
     }
     names = Collections.unmodifiableSortedMap(map);
+    paramMapLayout = hasParamAnnotation || names.size() > 1 ? new IndexedParamMap.Layout(getParamMapArgIndexes()) : null;
+  }
+
+  private Map<String, Integer> getParamMapArgIndexes() {
+    final Map<String, Integer> argIndexes = new LinkedHashMap<String, Integer>();
+    int i = 0;
+    for (Map.Entry<Integer, String> entry : names.entrySet()) {
+      argIndexes.put(entry.getValue(), entry.getKey());
+      // add generic param names (param1, param2, ...)
+      final String genericParamName = GENERIC_NAME_PREFIX + String.valueOf(i + 1);
+      // ensure not to overwrite parameter named with @Param
+      if (!names.containsValue(genericParamName)) {
+        argIndexes.put(genericParamName, entry.getKey());
+      }
+      i++;
+    }
+    return argIndexes;
   }
 
   private String getActualParamName(Method method, int paramIndex) {
@@ -110,6 +134,20 @@ public class ParamNameResolver {
     return names.values().toArray(new String[0]);
   }
 
+  /**
+   * @return the number of non-special parameters.
+   */
+  public int getParamCount() {
+    return names.size();
+  }
+
+  /**
+   * @return the index of the argument passed as is to the statement, or -1 when the arguments are named.
+   */
+  public int getSingleParamIndex() {
+    return !hasParamAnnotation && names.size() == 1 ? names.firstKey() : -1;
+  }
+
   /**
    * <p>
    * A single non-special parameter is returned without a name.<br />
@@ -120,7 +158,7 @@ public class ParamNameResolver {
    * 解析方法参数，分多种情况（一下提到的参数个数是所有方法参数除去RowBound和ResultHandler类型参数后剩余的参数个数）：
    *    1. 如果没有参数，则直接返回null；
    *    2. 如果只有一个参数且没有使用@Param标注，返回参数值；
-   *    3. 如果只有一个参数且使用了@Param标注或方法有多个参数时，将参数封装成一个{@link ParamMap}，其本质是一个HashMap，key值为参数名称，value为参数值
+   *    3. 如果只有一个参数且使用了@Param标注或方法有多个参数时，将参数封装成一个{@link IndexedParamMap}，其本质是一个{@link ParamMap}，key值为参数名称，value为参数值
    */
   public Object getNamedParams(Object[] args) {
     final int paramCount = names.size();
@@ -131,22 +169,8 @@ public class ParamNameResolver {
       // 方法只有一个参数且没有使用@Param注解标注，直接获取args的第一个元素（names是Map<Integer, String>，key值为参数索引，value为参数名称）
       return args[names.firstKey()];
     } else {
-      // 多参数情况处理
-      final Map<String, Object> param = new ParamMap<Object>();
-      int i = 0;
-      // 将参数保存到一个HashMap当中，key为参数名，value为参数值
-      for (Map.Entry<Integer, String> entry : names.entrySet()) {
-        param.put(entry.getValue(), args[entry.getKey()]);
-        // add generic param names (param1, param2, ...)
-        final String genericParamName = GENERIC_NAME_PREFIX + String.valueOf(i + 1);
-        // ensure not to overwrite parameter named with @Param
-        if (!names.containsValue(genericParamName)) {
-          // TODO 将参数以key值为param1,param2...形式又保存了一次
-          param.put(genericParamName, args[entry.getKey()]);
-        }
-        i++;
-      }
-      return param;
+      // 多参数情况处理，参数名及param1,param2...形式的名称在构造时已经确定，这里只需要按索引复制参数值
+      return new IndexedParamMap(paramMapLayout, args);
     }
   }
 }
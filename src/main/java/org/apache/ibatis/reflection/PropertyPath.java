@@ -0,0 +1,276 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.property.PropertyTokenizer;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
+
+/**
+ * A property expression such as {@code a.b[0].c} parsed once into a chain of segments.
+ * <p>
+ * Each segment keeps the invokers it resolved for the last bean type it was applied to, so reading or writing
+ * a nested property of objects of the same types is a fixed sequence of direct invoker calls, without
+ * tokenizing the expression or creating a {@link MetaObject} per intermediate value.
+ * Values are read and written as {@link MetaObject#getValue(String)} and {@link MetaObject#setValue(String, Object)}
+ * do, which paths fall back to for collections and for objects with a custom {@link ObjectWrapper}.
+ * Instances are thread safe.
+ *
+ * @see MetaClass#getPropertyPath(String)
+ */
+public class PropertyPath {
+
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  private final String expression;
+  private final Segment[] segments;
+  private final ReflectorFactory reflectorFactory;
+
+  PropertyPath(String expression, Class<?> rootType, ReflectorFactory reflectorFactory) {
+    this.expression = expression;
+    this.reflectorFactory = reflectorFactory;
+    List<Segment> list = new ArrayList<Segment>();
+    PropertyTokenizer prop = new PropertyTokenizer(expression);
+    Class<?> type = rootType;
+    while (true) {
+      Segment segment = new Segment(prop.getName(), prop.getIndex(), expression.substring(expression.length() - remainingLength(prop)));
+      // resolves the invokers of the declared types ahead of time, they are resolved again if the runtime types differ
+      if (type != null && !Map.class.isAssignableFrom(type) && !Collection.class.isAssignableFrom(type)) {
+        Accessor accessor = segment.resolve(type);
+        type = accessor.reflector.hasGetter(prop.getName()) && prop.getIndex() == null ? accessor.reflector.getGetterType(prop.getName()) : null;
+      } else {
+        type = null;
+      }
+      list.add(segment);
+      if (!prop.hasNext()) {
+        break;
+      }
+      prop = prop.next();
+    }
+    this.segments = list.toArray(new Segment[list.size()]);
+  }
+
+  private static int remainingLength(PropertyTokenizer prop) {
+    return prop.getChildren() == null ? prop.getIndexedName().length() : prop.getIndexedName().length() + 1 + prop.getChildren().length();
+  }
+
+  /**
+   * Parses an expression without resolving anything ahead of time.
+   */
+  public static PropertyPath compile(String expression, ReflectorFactory reflectorFactory) {
+    return new PropertyPath(expression, null, reflectorFactory);
+  }
+
+  public String getExpression() {
+    return expression;
+  }
+
+  public Object getValue(Object root, ObjectFactory objectFactory, ObjectWrapperFactory objectWrapperFactory) {
+    if (root == null) {
+      return null;
+    }
+    Object target = root;
+    for (Segment segment : segments) {
+      if (target == null) {
+        return null;
+      }
+      if (needsMetaObject(target, objectWrapperFactory)) {
+        return MetaObject.forObject(target, objectFactory, objectWrapperFactory, reflectorFactory).getValue(segment.expression);
+      }
+      target = segment.get(target);
+    }
+    return target;
+  }
+
+  public void setValue(Object root, Object value, ObjectFactory objectFactory, ObjectWrapperFactory objectWrapperFactory) {
+    if (root == null) {
+      SystemMetaObject.NULL_META_OBJECT.setValue(expression, value);
+      return;
+    }
+    Object target = root;
+    int last = segments.length - 1;
+    for (int i = 0; i < last; i++) {
+      Segment segment = segments[i];
+      if (needsMetaObject(target, objectWrapperFactory)) {
+        MetaObject.forObject(target, objectFactory, objectWrapperFactory, reflectorFactory).setValue(segment.expression, value);
+        return;
+      }
+      Object child = segment.get(target);
+      if (child == null) {
+        if (value == null) {
+          // don't instantiate child path if value is null
+          return;
+        }
+        child = segment.instantiate(target, objectFactory);
+      }
+      target = child;
+    }
+    if (needsMetaObject(target, objectWrapperFactory)) {
+      MetaObject.forObject(target, objectFactory, objectWrapperFactory, reflectorFactory).setValue(segments[last].expression, value);
+    } else {
+      segments[last].set(target, value);
+    }
+  }
+
+  private static boolean needsMetaObject(Object target, ObjectWrapperFactory objectWrapperFactory) {
+    return target instanceof ObjectWrapper || target instanceof Collection || objectWrapperFactory.hasWrapperFor(target);
+  }
+
+  @Override
+  public String toString() {
+    return expression;
+  }
+
+  /**
+   * Invokers of a property of a bean type.
+   */
+  private static class Accessor {
+
+    private final Class<?> type;
+    private final Reflector reflector;
+    private final Invoker getter;
+    private final Invoker setter;
+
+    private Accessor(Class<?> type, Reflector reflector, String name) {
+      this.type = type;
+      this.reflector = reflector;
+      this.getter = reflector.hasGetter(name) ? reflector.getGetInvoker(name) : null;
+      this.setter = reflector.hasSetter(name) ? reflector.getSetInvoker(name) : null;
+    }
+  }
+
+  private class Segment {
+
+    private final String name;
+    private final String index;
+    // the expression from this segment to the end, used when falling back to a MetaObject
+    private final String expression;
+    private volatile Accessor accessor;
+
+    private Segment(String name, String index, String expression) {
+      this.name = name;
+      this.index = index;
+      this.expression = expression;
+    }
+
+    private Accessor resolve(Class<?> type) {
+      Accessor current = accessor;
+      if (current == null || current.type != type) {
+        current = new Accessor(type, reflectorFactory.findForClass(type), name);
+        accessor = current;
+      }
+      return current;
+    }
+
+    private Object get(Object target) {
+      if (index == null) {
+        return getProperty(target);
+      }
+      Object collection = "".equals(name) ? target : getProperty(target);
+      if (collection instanceof Map) {
+        return ((Map<?, ?>) collection).get(index);
+      }
+      int i = Integer.parseInt(index);
+      if (collection instanceof List) {
+        return ((List<?>) collection).get(i);
+      } else if (collection != null && collection.getClass().isArray()) {
+        return Array.get(collection, i);
+      } else {
+        throw new ReflectionException("The '" + name + "' property of " + collection + " is not a List or Array.");
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void set(Object target, Object value) {
+      if (index == null) {
+        setProperty(target, value);
+        return;
+      }
+      Object collection = "".equals(name) ? target : getProperty(target);
+      if (collection instanceof Map) {
+        ((Map<Object, Object>) collection).put(index, value);
+        return;
+      }
+      int i = Integer.parseInt(index);
+      if (collection instanceof List) {
+        ((List<Object>) collection).set(i, value);
+      } else if (collection != null && collection.getClass().isArray()) {
+        Array.set(collection, i, value);
+      } else {
+        throw new ReflectionException("The '" + name + "' property of " + collection + " is not a List or Array.");
+      }
+    }
+
+    private Object getProperty(Object target) {
+      if (target instanceof Map) {
+        return ((Map<?, ?>) target).get(name);
+      }
+      Accessor current = resolve(target.getClass());
+      Invoker getter = current.getter != null ? current.getter : current.reflector.getGetInvoker(name);
+      try {
+        return getter.invoke(target, NO_ARGUMENTS);
+      } catch (Throwable t) {
+        Throwable cause = ExceptionUtil.unwrapThrowable(t);
+        throw new ReflectionException("Could not get property '" + name + "' from " + target.getClass() + ".  Cause: " + cause.toString(), cause);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void setProperty(Object target, Object value) {
+      if (target instanceof Map) {
+        ((Map<Object, Object>) target).put(name, value);
+        return;
+      }
+      try {
+        Accessor current = resolve(target.getClass());
+        Invoker setter = current.setter != null ? current.setter : current.reflector.getSetInvoker(name);
+        try {
+          setter.invoke(target, new Object[] { value });
+        } catch (Throwable t) {
+          throw ExceptionUtil.unwrapThrowable(t);
+        }
+      } catch (Throwable t) {
+        throw new ReflectionException("Could not set property '" + name + "' of '" + target.getClass() + "' with value '" + value + "' Cause: " + t.toString(), t);
+      }
+    }
+
+    private Object instantiate(Object target, ObjectFactory objectFactory) {
+      if (target instanceof Map) {
+        Object map = new HashMap<String, Object>();
+        set(target, map);
+        return map;
+      }
+      Class<?> type = resolve(target.getClass()).reflector.getSetterType(name);
+      try {
+        Object newObject = objectFactory.create(type);
+        set(target, newObject);
+        return newObject;
+      } catch (Exception e) {
+        throw new ReflectionException("Cannot set value of property '" + expression + "' because '" + expression + "' is null and cannot be instantiated on instance of " + type.getName() + ". Cause:" + e.toString(), e);
+      }
+    }
+  }
+
+}
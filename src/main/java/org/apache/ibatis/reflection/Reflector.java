@@ -31,6 +31,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ibatis.reflection.invoker.GetFieldInvoker;
 import org.apache.ibatis.reflection.invoker.Invoker;
@@ -51,6 +53,11 @@ import org.apache.ibatis.reflection.property.PropertyNamer;
 public class Reflector {
 
   private static final String[] EMPTY_STRING_ARRAY = new String[0];
+  /**
+   * Bound of the property paths cached per class. Most come from mappings, but parameter expressions of
+   * dynamic SQL may be built at runtime, past the bound they are parsed on each call.
+   */
+  static final int MAX_CACHED_PROPERTY_PATHS = 1024;
 
   private Class<?> type;
   private String[] readablePropertyNames = EMPTY_STRING_ARRAY;
@@ -62,6 +69,7 @@ public class Reflector {
   private Constructor<?> defaultConstructor;
 
   private Map<String, String> caseInsensitivePropertyMap = new HashMap<String, String>();
+  private final ConcurrentMap<String, PropertyPath> propertyPaths = new ConcurrentHashMap<String, PropertyPath>();
 
   public Reflector(Class<?> clazz) {
     type = clazz;
@@ -506,4 +514,18 @@ public class Reflector {
   public String findPropertyName(String name) {
     return caseInsensitivePropertyMap.get(name.toUpperCase(Locale.ENGLISH));
   }
+
+  PropertyPath getPropertyPath(String expression, ReflectorFactory reflectorFactory) {
+    PropertyPath path = propertyPaths.get(expression);
+    if (path == null) {
+      path = new PropertyPath(expression, type, reflectorFactory);
+      if (propertyPaths.size() < MAX_CACHED_PROPERTY_PATHS) {
+        PropertyPath existing = propertyPaths.putIfAbsent(expression, path);
+        if (existing != null) {
+          path = existing;
+        }
+      }
+    }
+    return path;
+  }
 }
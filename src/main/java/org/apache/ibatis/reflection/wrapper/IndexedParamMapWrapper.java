@@ -0,0 +1,63 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.wrapper;
+
+import org.apache.ibatis.reflection.IndexedParamMap;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.property.PropertyTokenizer;
+
+/**
+ * {@link MapWrapper} of the parameter object of a mapper method, the parameters are read and written by their index
+ * in the array of the map.
+ */
+public class IndexedParamMapWrapper extends MapWrapper {
+
+  private final IndexedParamMap paramMap;
+
+  public IndexedParamMapWrapper(MetaObject metaObject, IndexedParamMap paramMap) {
+    super(metaObject, paramMap);
+    this.paramMap = paramMap;
+  }
+
+  @Override
+  public Object get(PropertyTokenizer prop) {
+    if (prop.getIndex() == null) {
+      int index = paramMap.indexOf(prop.getName());
+      if (index >= 0) {
+        return paramMap.getValue(index);
+      }
+    }
+    return super.get(prop);
+  }
+
+  @Override
+  public void set(PropertyTokenizer prop, Object value) {
+    if (prop.getIndex() == null) {
+      int index = paramMap.indexOf(prop.getName());
+      if (index >= 0) {
+        paramMap.setValue(index, value);
+        return;
+      }
+    }
+    super.set(prop, value);
+  }
+
+  @Override
+  public boolean hasGetter(String name) {
+    return paramMap.indexOf(name) >= 0 || super.hasGetter(name);
+  }
+
+}
@@ -25,7 +25,9 @@ import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
-import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.metrics.MetricsCollector;
+import org.apache.ibatis.metrics.StatementPhase;
+import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeException;
@@ -51,6 +53,7 @@ public class DefaultParameterHandler implements ParameterHandler {
   private final Object parameterObject;
   private BoundSql boundSql;
   private Configuration configuration;
+  private MetaClass parameterMetaClass;
 
   public DefaultParameterHandler(MappedStatement mappedStatement, Object parameterObject, BoundSql boundSql) {
     this.mappedStatement = mappedStatement;
@@ -68,6 +71,8 @@ public class DefaultParameterHandler implements ParameterHandler {
   @Override
   public void setParameters(PreparedStatement ps) {
     ErrorContext.instance().activity("setting parameters").object(mappedStatement.getParameterMap().getId());
+    final MetricsCollector metricsCollector = configuration.getMetricsCollector();
+    final long start = metricsCollector == null ? 0 : System.nanoTime();
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
     if (parameterMappings != null) {
       for (int i = 0; i < parameterMappings.size(); i++) {
@@ -95,10 +100,10 @@ public class DefaultParameterHandler implements ParameterHandler {
             // 如果对应的参数设置了TypeHandler的话，直接将参数值赋值给value，在下边会使用TypeHandler处理值
             value = parameterObject;
           } else {
-            MetaObject metaObject = configuration.newMetaObject(parameterObject);
-            value = metaObject.getValue(propertyName);
+            value = getPropertyValue(propertyName);
           }
-          TypeHandler typeHandler = parameterMapping.getTypeHandler();
+          // mappings of unknown type bind values with the handler resolved for their class
+          TypeHandler typeHandler = parameterMapping.getTypeHandler(value);
           JdbcType jdbcType = parameterMapping.getJdbcType();
           if (value == null && jdbcType == null) {
             // 如果value和jdbcType都为null，设置jdbcType=JdbcType.OTHER
@@ -115,6 +120,17 @@ public class DefaultParameterHandler implements ParameterHandler {
         }
       }
     }
+    if (metricsCollector != null) {
+      metricsCollector.recordPhase(mappedStatement, StatementPhase.PARAMETER_SETTING, System.nanoTime() - start);
+    }
+  }
+
+  private Object getPropertyValue(String propertyName) {
+    if (parameterMetaClass == null) {
+      parameterMetaClass = MetaClass.forClass(parameterObject.getClass(), configuration.getReflectorFactory());
+    }
+    return parameterMetaClass.getPropertyPath(propertyName)
+        .getValue(parameterObject, configuration.getObjectFactory(), configuration.getObjectWrapperFactory());
   }
 
 }
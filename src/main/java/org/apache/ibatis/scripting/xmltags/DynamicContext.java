@@ -23,7 +23,7 @@ import ognl.OgnlException;
 import ognl.OgnlRuntime;
 import ognl.PropertyAccessor;
 
-import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -47,10 +47,9 @@ public class DynamicContext {
 
   public DynamicContext(Configuration configuration, Object parameterObject) {
     if (parameterObject != null && !(parameterObject instanceof Map)) {
-      MetaObject metaObject = configuration.newMetaObject(parameterObject);
-      bindings = new ContextMap(metaObject);
+      bindings = new ContextMap(configuration, parameterObject);
     } else {
-      bindings = new ContextMap(null);
+      bindings = new ContextMap(null, null);
     }
     // TODO parameter_object_key设置为了_parameter（这个应该是和当只有一个String参数时使用#{_parameter}来获取参数值相关）
     /**
@@ -92,9 +91,14 @@ public class DynamicContext {
   static class ContextMap extends HashMap<String, Object> {
     private static final long serialVersionUID = 2977601501966151582L;
 
-    private MetaObject parameterMetaObject;
-    public ContextMap(MetaObject parameterMetaObject) {
-      this.parameterMetaObject = parameterMetaObject;
+    private final Configuration configuration;
+    private final Object parameterObject;
+    private final MetaClass parameterMetaClass;
+
+    public ContextMap(Configuration configuration, Object parameterObject) {
+      this.configuration = configuration;
+      this.parameterObject = parameterObject;
+      this.parameterMetaClass = parameterObject == null ? null : MetaClass.forClass(parameterObject.getClass(), configuration.getReflectorFactory());
     }
 
     /**
@@ -109,9 +113,9 @@ public class DynamicContext {
         return super.get(strKey);
       }
 
-      if (parameterMetaObject != null) {
+      if (parameterMetaClass != null) {
         // issue #61 do not modify the context when reading
-        return parameterMetaObject.getValue(strKey);
+        return parameterMetaClass.getPropertyPath(strKey).getValue(parameterObject, configuration.getObjectFactory(), configuration.getObjectWrapperFactory());
       }
 
       return null;
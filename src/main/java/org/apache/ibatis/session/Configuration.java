@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.session;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -24,6 +25,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import org.apache.ibatis.binding.MapperRegistry;
 import org.apache.ibatis.builder.CacheRefResolver;
@@ -31,6 +35,7 @@ import org.apache.ibatis.builder.ResultMapResolver;
 import org.apache.ibatis.builder.annotation.MethodResolver;
 import org.apache.ibatis.builder.xml.XMLStatementBuilder;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStatisticsRegistry;
 import org.apache.ibatis.cache.decorators.FifoCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.SoftCache;
@@ -45,8 +50,10 @@ import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ReuseExecutor;
 import org.apache.ibatis.executor.SimpleExecutor;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.loader.PregeneratingProxyFactory;
 import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
+import org.apache.ibatis.executor.loader.enhanced.EnhancedProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
@@ -54,6 +61,7 @@ import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.executor.statement.RoutingStatementHandler;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.io.VFS;
+import org.apache.ibatis.lang.UsesJava8;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.logging.commons.JakartaCommonsLoggingImpl;
@@ -68,7 +76,11 @@ import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMap;
 import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.mapping.VendorDatabaseIdProvider;
+import org.apache.ibatis.metrics.HistogramMetricsCollector;
+import org.apache.ibatis.metrics.MetricsCollector;
+import org.apache.ibatis.metrics.SlowStatementDetector;
 import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.plugin.Interceptor;
 import org.apache.ibatis.plugin.InterceptorChain;
@@ -83,6 +95,8 @@ import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.scripting.LanguageDriverRegistry;
 import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.apache.ibatis.tracing.NoOpTracer;
+import org.apache.ibatis.tracing.Tracer;
 import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
 import org.apache.ibatis.transaction.managed.ManagedTransactionFactory;
@@ -128,6 +142,12 @@ public class Configuration {
 
   protected boolean lazyLoadingEnabled = false;
   protected ProxyFactory proxyFactory = new JavassistProxyFactory(); // #224 Using internal Javassist instead of OGNL
+  protected boolean pregenerateLazyLoadingProxies;
+  protected MetricsCollector metricsCollector;
+  protected Integer slowStatementThreshold;
+  protected SlowStatementDetector slowStatementDetector;
+  protected Tracer tracer = NoOpTracer.INSTANCE;
+  protected boolean generateMapperImplementations;
 
   protected String databaseId;
   /**
@@ -146,6 +166,7 @@ public class Configuration {
 
   protected final Map<String, MappedStatement> mappedStatements = new StrictMap<MappedStatement>("Mapped Statements collection");
   protected final Map<String, Cache> caches = new StrictMap<Cache>("Caches collection");
+  protected final CacheStatisticsRegistry cacheStatisticsRegistry = new CacheStatisticsRegistry();
   protected final Map<String, ResultMap> resultMaps = new StrictMap<ResultMap>("Result Maps collection");
   protected final Map<String, ParameterMap> parameterMaps = new StrictMap<ParameterMap>("Parameter Maps collection");
   protected final Map<String, KeyGenerator> keyGenerators = new StrictMap<KeyGenerator>("Key Generators collection");
@@ -199,6 +220,9 @@ public class Configuration {
 
     typeAliasRegistry.registerAlias("CGLIB", CglibProxyFactory.class);
     typeAliasRegistry.registerAlias("JAVASSIST", JavassistProxyFactory.class);
+    typeAliasRegistry.registerAlias("ENHANCED", EnhancedProxyFactory.class);
+
+    typeAliasRegistry.registerAlias("HISTOGRAM", HistogramMetricsCollector.class);
 
     languageRegistry.setDefaultDriverClass(XMLLanguageDriver.class);
     languageRegistry.register(RawLanguageDriver.class);
@@ -250,6 +274,34 @@ public class Configuration {
     this.useActualParamName = useActualParamName;
   }
 
+  public boolean isInterceptorPipelineEnabled() {
+    return interceptorChain.isPipelineEnabled();
+  }
+
+  public void setInterceptorPipelineEnabled(boolean interceptorPipelineEnabled) {
+    interceptorChain.setPipelineEnabled(interceptorPipelineEnabled);
+  }
+
+  public boolean isCacheStatisticsEnabled() {
+    return cacheStatisticsRegistry.isEnabled();
+  }
+
+  public void setCacheStatisticsEnabled(boolean cacheStatisticsEnabled) {
+    cacheStatisticsRegistry.setEnabled(cacheStatisticsEnabled);
+  }
+
+  public boolean isCacheStatisticsJmxEnabled() {
+    return cacheStatisticsRegistry.isJmxEnabled();
+  }
+
+  public void setCacheStatisticsJmxEnabled(boolean cacheStatisticsJmxEnabled) {
+    cacheStatisticsRegistry.setJmxEnabled(cacheStatisticsJmxEnabled);
+  }
+
+  public CacheStatisticsRegistry getCacheStatisticsRegistry() {
+    return cacheStatisticsRegistry;
+  }
+
   public boolean isReturnInstanceForEmptyRow() {
     return returnInstanceForEmptyRow;
   }
@@ -355,6 +407,111 @@ public class Configuration {
     this.proxyFactory = proxyFactory;
   }
 
+  public boolean isPregenerateLazyLoadingProxies() {
+    return pregenerateLazyLoadingProxies;
+  }
+
+  public void setPregenerateLazyLoadingProxies(boolean pregenerateLazyLoadingProxies) {
+    this.pregenerateLazyLoadingProxies = pregenerateLazyLoadingProxies;
+  }
+
+  /**
+   * @since 3.4.3
+   */
+  public boolean isGenerateMapperImplementations() {
+    return generateMapperImplementations;
+  }
+
+  /**
+   * When enabled, mappers are instances of classes generated with Javassist that call the
+   * {@link SqlSession} directly instead of JDK dynamic proxies.
+   *
+   * @since 3.4.3
+   */
+  public void setGenerateMapperImplementations(boolean generateMapperImplementations) {
+    this.generateMapperImplementations = generateMapperImplementations;
+  }
+
+  /**
+   * @return the collector the statement phases are reported to, or null if metrics are disabled.
+   *     It is the slow statement detector when a slow statement threshold is set, it forwards to the collector set.
+   */
+  public MetricsCollector getMetricsCollector() {
+    return slowStatementDetector != null ? slowStatementDetector : metricsCollector;
+  }
+
+  public void setMetricsCollector(MetricsCollector metricsCollector) {
+    this.metricsCollector = metricsCollector;
+    resetSlowStatementDetector();
+  }
+
+  public Integer getSlowStatementThreshold() {
+    return slowStatementThreshold;
+  }
+
+  /**
+   * @param slowStatementThreshold the time in milliseconds above which statements are logged as slow, null to disable it
+   */
+  public void setSlowStatementThreshold(Integer slowStatementThreshold) {
+    this.slowStatementThreshold = slowStatementThreshold;
+    resetSlowStatementDetector();
+  }
+
+  /**
+   * @return the slow statement detector, or null if no slow statement threshold is set
+   */
+  public SlowStatementDetector getSlowStatementDetector() {
+    return slowStatementDetector;
+  }
+
+  private void resetSlowStatementDetector() {
+    slowStatementDetector = slowStatementThreshold == null ? null : new SlowStatementDetector(slowStatementThreshold, metricsCollector);
+  }
+
+  /**
+   * @return the tracer of the statements, never null
+   */
+  public Tracer getTracer() {
+    return tracer;
+  }
+
+  /**
+   * @param tracer the tracer of the statements, null to disable tracing
+   */
+  public void setTracer(Tracer tracer) {
+    this.tracer = tracer == null ? NoOpTracer.INSTANCE : tracer;
+  }
+
+  /**
+   * Generates the lazy loading proxy classes of the result maps with lazy nested selects,
+   * if the proxy factory is able to generate them ahead of time.
+   */
+  public void generateLazyLoadingProxyClasses() {
+    if (!(proxyFactory instanceof PregeneratingProxyFactory)) {
+      return;
+    }
+    // result maps are registered with their short name too
+    for (Object value : new ArrayList<Object>(resultMaps.values())) {
+      if (value instanceof ResultMap && hasLazyNestedQueries((ResultMap) value)) {
+        ResultMap resultMap = (ResultMap) value;
+        List<Class<?>> constructorArgTypes = new ArrayList<Class<?>>();
+        for (ResultMapping constructorMapping : resultMap.getConstructorResultMappings()) {
+          constructorArgTypes.add(constructorMapping.getJavaType());
+        }
+        ((PregeneratingProxyFactory) proxyFactory).pregenerateProxyClass(resultMap.getType(), constructorArgTypes);
+      }
+    }
+  }
+
+  private boolean hasLazyNestedQueries(ResultMap resultMap) {
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.getNestedQueryId() != null && propertyMapping.isLazy()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   public boolean isAggressiveLazyLoading() {
     return aggressiveLazyLoading;
   }
@@ -754,6 +911,29 @@ public class Configuration {
     cacheRefMap.put(namespace, referencedNamespace);
   }
 
+  /**
+   * Switches the registries to read only lookup tables once the configuration is complete.
+   * Registering anything afterwards is still allowed, the registry that changes goes back to its regular map.
+   *
+   * @since 3.4.3
+   */
+  public void freeze() {
+    freeze(mappedStatements);
+    freeze(caches);
+    freeze(resultMaps);
+    freeze(parameterMaps);
+    freeze(keyGenerators);
+    freeze(sqlFragments);
+    typeAliasRegistry.freeze();
+    mapperRegistry.freeze();
+  }
+
+  private void freeze(Map<String, ?> registry) {
+    if (registry instanceof StrictMap) {
+      ((StrictMap<?>) registry).freeze();
+    }
+  }
+
   /*
    * Parses all the unprocessed statement nodes in the cache. It is recommended
    * to call this method once all the mappers are added as it provides fail-fast
@@ -835,6 +1015,7 @@ public class Configuration {
 
     private static final long serialVersionUID = -4950446264854982944L;
     private final String name;
+    private transient volatile FrozenLookup<String, V> frozen;
 
     public StrictMap(String name, int initialCapacity, float loadFactor) {
       super(initialCapacity, loadFactor);
@@ -856,8 +1037,39 @@ public class Configuration {
       this.name = name;
     }
 
+    /**
+     * Moves the entries to a read only lookup table and releases the entries of the hash map, so the lookups are served
+     * by the table without keeping a second copy of the registry. The map goes back to a regular hash map on the next
+     * change or on the first call that needs all of its entries, such as iterating a view.
+     */
+    public synchronized void freeze() {
+      thaw();
+      frozen = new FrozenLookup<String, V>(this);
+      super.clear();
+    }
+
+    public boolean isFrozen() {
+      return frozen != null;
+    }
+
+    // refills the hash map before dropping the lookup table, lookups keep using the table until it is complete
+    private void thaw() {
+      if (frozen != null) {
+        synchronized (this) {
+          final FrozenLookup<String, V> lookup = frozen;
+          if (lookup != null) {
+            for (Map.Entry<String, V> entry : lookup.toMap().entrySet()) {
+              super.put(entry.getKey(), entry.getValue());
+            }
+            frozen = null;
+          }
+        }
+      }
+    }
+
     @SuppressWarnings("unchecked")
     public V put(String key, V value) {
+      thaw();
       if (containsKey(key)) {
         throw new IllegalArgumentException(name + " already contains value for " + key);
       }
@@ -872,8 +1084,160 @@ public class Configuration {
       return super.put(key, value);
     }
 
+    @Override
+    public void putAll(Map<? extends String, ? extends V> m) {
+      thaw();
+      super.putAll(m);
+    }
+
+    @Override
+    public V remove(Object key) {
+      thaw();
+      return super.remove(key);
+    }
+
+    @Override
+    public void clear() {
+      thaw();
+      super.clear();
+    }
+
+    @Override
+    public int size() {
+      FrozenLookup<String, V> lookup = frozen;
+      return lookup != null ? lookup.size() : super.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      FrozenLookup<String, V> lookup = frozen;
+      return lookup != null ? lookup.containsKey(key) : super.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+      thaw();
+      return super.containsValue(value);
+    }
+
+    @Override
+    public Set<String> keySet() {
+      thaw();
+      return super.keySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+      thaw();
+      return super.values();
+    }
+
+    @Override
+    public Set<Map.Entry<String, V>> entrySet() {
+      thaw();
+      return super.entrySet();
+    }
+
+    @Override
+    public Object clone() {
+      thaw();
+      return super.clone();
+    }
+
+    @UsesJava8
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+      FrozenLookup<String, V> lookup = frozen;
+      if (lookup == null) {
+        return super.getOrDefault(key, defaultValue);
+      }
+      return lookup.containsKey(key) ? lookup.get(key) : defaultValue;
+    }
+
+    @UsesJava8
+    @Override
+    public V putIfAbsent(String key, V value) {
+      thaw();
+      return super.putIfAbsent(key, value);
+    }
+
+    @UsesJava8
+    @Override
+    public boolean remove(Object key, Object value) {
+      thaw();
+      return super.remove(key, value);
+    }
+
+    @UsesJava8
+    @Override
+    public boolean replace(String key, V oldValue, V newValue) {
+      thaw();
+      return super.replace(key, oldValue, newValue);
+    }
+
+    @UsesJava8
+    @Override
+    public V replace(String key, V value) {
+      thaw();
+      return super.replace(key, value);
+    }
+
+    @UsesJava8
+    @Override
+    public V computeIfAbsent(String key, Function<? super String, ? extends V> mappingFunction) {
+      thaw();
+      return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @UsesJava8
+    @Override
+    public V computeIfPresent(String key, BiFunction<? super String, ? super V, ? extends V> remappingFunction) {
+      thaw();
+      return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @UsesJava8
+    @Override
+    public V compute(String key, BiFunction<? super String, ? super V, ? extends V> remappingFunction) {
+      thaw();
+      return super.compute(key, remappingFunction);
+    }
+
+    @UsesJava8
+    @Override
+    public V merge(String key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+      thaw();
+      return super.merge(key, value, remappingFunction);
+    }
+
+    @UsesJava8
+    @Override
+    public void forEach(BiConsumer<? super String, ? super V> action) {
+      thaw();
+      super.forEach(action);
+    }
+
+    @UsesJava8
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super V, ? extends V> function) {
+      thaw();
+      super.replaceAll(function);
+    }
+
+    // the hash map is written by its own serialization, so it gets its entries back first
+    private Object writeReplace() {
+      thaw();
+      return this;
+    }
+
     public V get(Object key) {
-      V value = super.get(key);
+      FrozenLookup<String, V> lookup = frozen;
+      V value = lookup != null ? lookup.get(key) : super.get(key);
       if (value == null) {
         throw new IllegalArgumentException(name + " does not contain value for " + key);
       }
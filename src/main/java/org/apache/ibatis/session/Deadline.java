@@ -0,0 +1,97 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
+
+/**
+ * A point in time by which the statements of a call must complete.
+ * <p>
+ * When a deadline is set on a {@link DefaultSqlSession}, or bound to the current thread for every session it uses,
+ * a pooled connection is not waited for beyond it, the query timeout of the statements is lowered to the time left
+ * and statements still running when it passes are cancelled. Calls started after it passed fail
+ * before reaching the database.
+ *
+ * @see DefaultSqlSession#setDeadline(Deadline)
+ * @see #bind(Deadline)
+ */
+public final class Deadline {
+
+  private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<Deadline>();
+
+  private final long expirationNanos;
+
+  private Deadline(long expirationNanos) {
+    this.expirationNanos = expirationNanos;
+  }
+
+  public static Deadline after(long timeout, TimeUnit unit) {
+    return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+  }
+
+  /**
+   * @return the deadline bound to the current thread, or null if there is none
+   */
+  public static Deadline current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Binds a deadline to the current thread, the caller restores the previous one once done.
+   *
+   * @param deadline the deadline to bind, null to unbind the current one
+   * @return the deadline that was bound before, or null
+   */
+  public static Deadline bind(Deadline deadline) {
+    Deadline previous = CURRENT.get();
+    if (deadline == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(deadline);
+    }
+    return previous;
+  }
+
+  public boolean isExpired() {
+    return expirationNanos - System.nanoTime() <= 0;
+  }
+
+  /**
+   * @return the time left, 0 if the deadline has passed
+   */
+  public long getRemaining(TimeUnit unit) {
+    long remainingNanos = expirationNanos - System.nanoTime();
+    return remainingNanos <= 0 ? 0 : unit.convert(remainingNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @return the time left in seconds rounded up, as expected by {@link java.sql.Statement#setQueryTimeout(int)},
+   *     at least 1 as 0 means no timeout
+   */
+  public int getRemainingSeconds() {
+    long remainingNanos = expirationNanos - System.nanoTime();
+    long seconds = (remainingNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    return (int) Math.max(1, Math.min(Integer.MAX_VALUE, seconds));
+  }
+
+  @Override
+  public String toString() {
+    return "Deadline[remaining=" + getRemaining(TimeUnit.MILLISECONDS) + "ms]";
+  }
+
+}
@@ -0,0 +1,112 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read only open addressing table used to serve the lookups of a registry once the configuration is frozen.
+ * <p>
+ * Keys, values and the spread hash of every key are kept in parallel arrays, so a lookup compares hashes
+ * before calling {@code equals} and does not go through the entry objects of a {@link java.util.HashMap}.
+ * Null keys are not supported.
+ */
+public final class FrozenLookup<K, V> {
+
+  private final Object[] keys;
+  private final Object[] values;
+  private final int[] hashes;
+  private final int mask;
+  private final int size;
+
+  public FrozenLookup(Map<? extends K, ? extends V> map) {
+    int capacity = 2;
+    // keeps the load factor at or below 0.5 so probe sequences stay short
+    while (capacity < map.size() * 2) {
+      capacity <<= 1;
+    }
+    this.keys = new Object[capacity];
+    this.values = new Object[capacity];
+    this.hashes = new int[capacity];
+    this.mask = capacity - 1;
+    for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+      Object key = entry.getKey();
+      if (key == null) {
+        throw new IllegalArgumentException("Null keys are not supported by " + getClass().getSimpleName());
+      }
+      int hash = hash(key);
+      int index = hash & mask;
+      while (keys[index] != null) {
+        index = (index + 1) & mask;
+      }
+      keys[index] = key;
+      values[index] = entry.getValue();
+      hashes[index] = hash;
+    }
+    this.size = map.size();
+  }
+
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    int index = indexOf(key);
+    return index < 0 ? null : (V) values[index];
+  }
+
+  public boolean containsKey(Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Copies the entries of the table to a new map.
+   */
+  @SuppressWarnings("unchecked")
+  public Map<K, V> toMap() {
+    final Map<K, V> map = new HashMap<K, V>(size * 4 / 3 + 1);
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != null) {
+        map.put((K) keys[i], (V) values[i]);
+      }
+    }
+    return map;
+  }
+
+  private int indexOf(Object key) {
+    if (key == null) {
+      return -1;
+    }
+    int hash = hash(key);
+    int index = hash & mask;
+    Object candidate;
+    while ((candidate = keys[index]) != null) {
+      if (hashes[index] == hash && (candidate == key || candidate.equals(key))) {
+        return index;
+      }
+      index = (index + 1) & mask;
+    }
+    return -1;
+  }
+
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+}
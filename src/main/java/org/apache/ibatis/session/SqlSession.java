@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorOptions;
 import org.apache.ibatis.executor.BatchResult;
 
 /**
@@ -138,7 +139,8 @@ public interface SqlSession extends Closeable {
    * @param <T> the returned cursor element type.
    * @param statement Unique identifier matching the statement to use.
    * @param parameter A parameter object to pass to the statement.
-   * @param rowBounds  Bounds to limit object retrieval
+   * @param rowBounds  Bounds to limit object retrieval, a {@link CursorOptions} also sets the fetch size,
+   *                   forward only hint and prefetching of the cursor
    * @return Cursor of mapped objects
    */
   <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds);
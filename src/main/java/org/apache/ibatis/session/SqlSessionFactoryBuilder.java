@@ -96,6 +96,10 @@ public class SqlSessionFactoryBuilder {
   }
     
   public SqlSessionFactory build(Configuration config) {
+    if (config.isPregenerateLazyLoadingProxies()) {
+      config.generateLazyLoadingProxyClasses();
+    }
+    config.freeze();
     return new DefaultSqlSessionFactory(config);
   }
 
@@ -26,6 +26,7 @@ import java.util.Map;
 
 import org.apache.ibatis.binding.BindingException;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.defaults.PrefetchingCursor;
 import org.apache.ibatis.exceptions.ExceptionFactory;
 import org.apache.ibatis.exceptions.TooManyResultsException;
 import org.apache.ibatis.executor.BatchResult;
@@ -35,6 +36,7 @@ import org.apache.ibatis.executor.result.DefaultMapResultHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.Deadline;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
@@ -56,6 +58,7 @@ public class DefaultSqlSession implements SqlSession {
   private boolean autoCommit;
   private boolean dirty;
   private List<Cursor<?>> cursorList;
+  private Deadline deadline;
 
   public DefaultSqlSession(Configuration configuration, Executor executor, boolean autoCommit) {
     this.configuration = configuration;
@@ -121,6 +124,8 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds) {
+    stopPrefetching();
+    Deadline previousDeadline = bindDeadline();
     try {
       MappedStatement ms = configuration.getMappedStatement(statement);
       Cursor<T> cursor = executor.queryCursor(ms, wrapCollection(parameter), rowBounds);
@@ -129,6 +134,7 @@ public class DefaultSqlSession implements SqlSession {
     } catch (Exception e) {
       throw ExceptionFactory.wrapException("Error querying database.  Cause: " + e, e);
     } finally {
+      unbindDeadline(previousDeadline);
       ErrorContext.instance().reset();
     }
   }
@@ -153,12 +159,15 @@ public class DefaultSqlSession implements SqlSession {
    */
   @Override
   public <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds) {
+    stopPrefetching();
+    Deadline previousDeadline = bindDeadline();
     try {
       MappedStatement ms = configuration.getMappedStatement(statement);
       return executor.query(ms, wrapCollection(parameter), rowBounds, Executor.NO_RESULT_HANDLER);
     } catch (Exception e) {
       throw ExceptionFactory.wrapException("Error querying database.  Cause: " + e, e);
     } finally {
+      unbindDeadline(previousDeadline);
       ErrorContext.instance().reset();
     }
   }
@@ -175,12 +184,15 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public void select(String statement, Object parameter, RowBounds rowBounds, ResultHandler handler) {
+    stopPrefetching();
+    Deadline previousDeadline = bindDeadline();
     try {
       MappedStatement ms = configuration.getMappedStatement(statement);
       executor.query(ms, wrapCollection(parameter), rowBounds, handler);
     } catch (Exception e) {
       throw ExceptionFactory.wrapException("Error querying database.  Cause: " + e, e);
     } finally {
+      unbindDeadline(previousDeadline);
       ErrorContext.instance().reset();
     }
   }
@@ -202,6 +214,8 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public int update(String statement, Object parameter) {
+    stopPrefetching();
+    Deadline previousDeadline = bindDeadline();
     try {
       dirty = true;
       MappedStatement ms = configuration.getMappedStatement(statement);
@@ -209,6 +223,7 @@ public class DefaultSqlSession implements SqlSession {
     } catch (Exception e) {
       throw ExceptionFactory.wrapException("Error updating database.  Cause: " + e, e);
     } finally {
+      unbindDeadline(previousDeadline);
       ErrorContext.instance().reset();
     }
   }
@@ -230,12 +245,15 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public void commit(boolean force) {
+    stopPrefetching();
+    Deadline previousDeadline = bindDeadline();
     try {
       executor.commit(isCommitOrRollbackRequired(force));
       dirty = false;
     } catch (Exception e) {
       throw ExceptionFactory.wrapException("Error committing transaction.  Cause: " + e, e);
     } finally {
+      unbindDeadline(previousDeadline);
       ErrorContext.instance().reset();
     }
   }
@@ -247,34 +265,46 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public void rollback(boolean force) {
+    stopPrefetching();
+    Deadline previousDeadline = bindDeadline();
     try {
       executor.rollback(isCommitOrRollbackRequired(force));
       dirty = false;
     } catch (Exception e) {
       throw ExceptionFactory.wrapException("Error rolling back transaction.  Cause: " + e, e);
     } finally {
+      unbindDeadline(previousDeadline);
       ErrorContext.instance().reset();
     }
   }
 
   @Override
   public List<BatchResult> flushStatements() {
+    stopPrefetching();
+    Deadline previousDeadline = bindDeadline();
     try {
       return executor.flushStatements();
     } catch (Exception e) {
       throw ExceptionFactory.wrapException("Error flushing statements.  Cause: " + e, e);
     } finally {
+      unbindDeadline(previousDeadline);
       ErrorContext.instance().reset();
     }
   }
 
   @Override
   public void close() {
+    Deadline previousDeadline = bindDeadline();
     try {
-      executor.close(isCommitOrRollbackRequired(false));
-      closeCursors();
+      // cursors first, a prefetching cursor may still be using the executor
+      try {
+        closeCursors();
+      } finally {
+        executor.close(isCommitOrRollbackRequired(false));
+      }
       dirty = false;
     } finally {
+      unbindDeadline(previousDeadline);
       ErrorContext.instance().reset();
     }
   }
@@ -304,6 +334,7 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public Connection getConnection() {
+    stopPrefetching();
     try {
       return executor.getTransaction().getConnection();
     } catch (SQLException e) {
@@ -313,9 +344,55 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public void clearCache() {
+    stopPrefetching();
     executor.clearLocalCache();
   }
 
+  /**
+   * Sets the deadline the calls of this session must complete by.
+   * It stays set until it is replaced, so it can bound a single call or every call of the session.
+   * Other sessions can be bounded by binding a deadline to the current thread with {@link Deadline#bind(Deadline)}.
+   * @param deadline the deadline, or null to remove it
+   * @see Deadline
+   */
+  public void setDeadline(Deadline deadline) {
+    this.deadline = deadline;
+  }
+
+  /**
+   * @return the deadline set on this session, or null
+   */
+  public Deadline getDeadline() {
+    return deadline;
+  }
+
+  /**
+   * Binds the deadline of this session to the current thread for the duration of a call.
+   * @return the deadline to restore once the call completes
+   */
+  private Deadline bindDeadline() {
+    return deadline == null ? null : Deadline.bind(deadline);
+  }
+
+  private void unbindDeadline(Deadline previousDeadline) {
+    if (deadline != null) {
+      Deadline.bind(previousDeadline);
+    }
+  }
+
+  /**
+   * Background threads of prefetching cursors use the executor, they are stopped before this session uses it.
+   */
+  private void stopPrefetching() {
+    if (cursorList != null) {
+      for (Cursor<?> cursor : cursorList) {
+        if (cursor instanceof PrefetchingCursor) {
+          ((PrefetchingCursor<?>) cursor).stopPrefetching();
+        }
+      }
+    }
+  }
+
   private <T> void registerCursor(Cursor<T> cursor) {
     if (cursorList == null) {
       cursorList = new ArrayList<Cursor<?>>();
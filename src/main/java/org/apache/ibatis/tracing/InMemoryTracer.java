@@ -0,0 +1,114 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracer that samples every call and keeps the ended spans in memory, meant for tests.
+ */
+public class InMemoryTracer implements Tracer {
+
+  private final List<Span> spans = new ArrayList<Span>();
+
+  @Override
+  public boolean isSampled(String statementId) {
+    return true;
+  }
+
+  @Override
+  public TraceSpan startSpan(TraceSpan parent, String statementId, String sql) {
+    return new Span((Span) parent, statementId, sql);
+  }
+
+  /**
+   * @return the ended spans, in the order they ended
+   */
+  public List<Span> getSpans() {
+    synchronized (spans) {
+      return new ArrayList<Span>(spans);
+    }
+  }
+
+  public void clear() {
+    synchronized (spans) {
+      spans.clear();
+    }
+  }
+
+  public class Span implements TraceSpan {
+
+    private final Span parent;
+    private final String statementId;
+    private final String sql;
+    private final long startNanos = System.nanoTime();
+    private long elapsedNanos;
+    private int rows;
+    private Throwable failure;
+    private boolean ended;
+
+    private Span(Span parent, String statementId, String sql) {
+      this.parent = parent;
+      this.statementId = statementId;
+      this.sql = sql;
+    }
+
+    @Override
+    public void end(int rows, Throwable failure) {
+      if (ended) {
+        throw new IllegalStateException("Span of " + statementId + " was already ended");
+      }
+      this.elapsedNanos = System.nanoTime() - startNanos;
+      this.rows = rows;
+      this.failure = failure;
+      this.ended = true;
+      synchronized (spans) {
+        spans.add(this);
+      }
+    }
+
+    public Span getParent() {
+      return parent;
+    }
+
+    public String getStatementId() {
+      return statementId;
+    }
+
+    public String getSql() {
+      return sql;
+    }
+
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+
+    public int getRows() {
+      return rows;
+    }
+
+    public Throwable getFailure() {
+      return failure;
+    }
+
+    @Override
+    public String toString() {
+      return statementId + " rows=" + rows + (failure == null ? "" : " failure=" + failure);
+    }
+  }
+
+}
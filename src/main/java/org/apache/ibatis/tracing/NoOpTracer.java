@@ -0,0 +1,42 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.tracing;
+
+/**
+ * Default tracer, it never samples a call so tracing costs a single branch per statement.
+ */
+public class NoOpTracer implements Tracer {
+
+  public static final NoOpTracer INSTANCE = new NoOpTracer();
+
+  private static final TraceSpan NO_OP_SPAN = new TraceSpan() {
+    @Override
+    public void end(int rows, Throwable failure) {
+      // nothing to do
+    }
+  };
+
+  @Override
+  public boolean isSampled(String statementId) {
+    return false;
+  }
+
+  @Override
+  public TraceSpan startSpan(TraceSpan parent, String statementId, String sql) {
+    return NO_OP_SPAN;
+  }
+
+}
@@ -0,0 +1,58 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.tracing;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracer decorator that samples one top level call out of every {@code interval} calls.
+ */
+public class SamplingTracer implements Tracer {
+
+  private final Tracer delegate;
+  private final int interval;
+  private final AtomicLong calls = new AtomicLong();
+
+  public SamplingTracer(Tracer delegate, int interval) {
+    if (interval < 1) {
+      throw new IllegalArgumentException("Sampling interval must be at least 1 but was " + interval);
+    }
+    this.delegate = delegate;
+    this.interval = interval;
+  }
+
+  @Override
+  public boolean isSampled(String statementId) {
+    if (interval > 1 && calls.getAndIncrement() % interval != 0) {
+      return false;
+    }
+    return delegate.isSampled(statementId);
+  }
+
+  @Override
+  public TraceSpan startSpan(TraceSpan parent, String statementId, String sql) {
+    return delegate.startSpan(parent, statementId, sql);
+  }
+
+  public Tracer getDelegate() {
+    return delegate;
+  }
+
+  public int getInterval() {
+    return interval;
+  }
+
+}
@@ -0,0 +1,33 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.tracing;
+
+/**
+ * A traced statement call, ended exactly once.
+ * <p>
+ * The span of a query ends when its results are mapped, the span of a cursor when it is closed or consumed.
+ */
+public interface TraceSpan {
+
+  int UNKNOWN_ROWS = -1;
+
+  /**
+   * @param rows the number of rows mapped or updated, {@link #UNKNOWN_ROWS} if the call failed or the count is not known
+   * @param failure the exception thrown by the call, null if it succeeded
+   */
+  void end(int rows, Throwable failure);
+
+}
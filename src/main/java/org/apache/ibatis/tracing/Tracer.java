@@ -0,0 +1,50 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.tracing;
+
+/**
+ * Creates spans for the statements executed by MyBatis, typically to report them to a distributed tracing system.
+ * <p>
+ * The executor asks {@link #isSampled(String)} before anything is done for a top level call, and only sampled calls
+ * get a span. Calls made while a sampled call is running (nested selects) are traced as its children without
+ * asking again, calls made while an unsampled call is running are not traced.
+ * Implementations are called concurrently by every session and must be thread safe.
+ *
+ * @see NoOpTracer
+ * @see SamplingTracer
+ * @see InMemoryTracer
+ */
+public interface Tracer {
+
+  /**
+   * Takes the head sampling decision of a top level call.
+   *
+   * @param statementId the id of the mapped statement about to be executed
+   * @return true if the call must be traced
+   */
+  boolean isSampled(String statementId);
+
+  /**
+   * Called right before a sampled statement is executed.
+   *
+   * @param parent the span of the enclosing call, null for a top level call
+   * @param statementId the id of the mapped statement
+   * @param sql the sql sent to the database
+   * @return the span to end once the statement completes, never null
+   */
+  TraceSpan startSpan(TraceSpan parent, String statementId, String sql);
+
+}
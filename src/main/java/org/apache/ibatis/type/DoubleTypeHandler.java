@@ -49,4 +49,18 @@ public class DoubleTypeHandler extends BaseTypeHandler<Double> {
     return cs.getDouble(columnIndex);
   }
 
+  /**
+   * Reads the column without boxing, SQL NULL is returned as {@code 0}. Only called by MyBatis on this exact class,
+   * subclasses are read through the {@link TypeHandler} methods.
+   */
+  public double getDouble(ResultSet rs, String columnName)
+      throws SQLException {
+    return rs.getDouble(columnName);
+  }
+
+  public double getDouble(ResultSet rs, int columnIndex)
+      throws SQLException {
+    return rs.getDouble(columnIndex);
+  }
+
 }
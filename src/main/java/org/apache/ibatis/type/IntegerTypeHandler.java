@@ -48,4 +48,19 @@ public class IntegerTypeHandler extends BaseTypeHandler<Integer> {
       throws SQLException {
     return cs.getInt(columnIndex);
   }
+
+  /**
+   * Reads the column without boxing, SQL NULL is returned as {@code 0}. Only called by MyBatis on this exact class,
+   * subclasses are read through the {@link TypeHandler} methods.
+   */
+  public int getInt(ResultSet rs, String columnName)
+      throws SQLException {
+    return rs.getInt(columnName);
+  }
+
+  public int getInt(ResultSet rs, int columnIndex)
+      throws SQLException {
+    return rs.getInt(columnIndex);
+  }
+
 }
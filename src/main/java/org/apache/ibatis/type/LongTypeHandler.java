@@ -48,4 +48,19 @@ public class LongTypeHandler extends BaseTypeHandler<Long> {
       throws SQLException {
     return cs.getLong(columnIndex);
   }
+
+  /**
+   * Reads the column without boxing, SQL NULL is returned as {@code 0}. Only called by MyBatis on this exact class,
+   * subclasses are read through the {@link TypeHandler} methods.
+   */
+  public long getLong(ResultSet rs, String columnName)
+      throws SQLException {
+    return rs.getLong(columnName);
+  }
+
+  public long getLong(ResultSet rs, int columnIndex)
+      throws SQLException {
+    return rs.getLong(columnIndex);
+  }
+
 }
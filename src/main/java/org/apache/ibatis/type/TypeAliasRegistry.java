@@ -31,6 +31,7 @@ import java.util.Set;
 
 import org.apache.ibatis.io.ResolverUtil;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.FrozenLookup;
 
 /**
  * @author Clinton Begin
@@ -41,6 +42,7 @@ import org.apache.ibatis.io.Resources;
 public class TypeAliasRegistry {
 
   private final Map<String, Class<?>> TYPE_ALIASES = new HashMap<String, Class<?>>();
+  private volatile FrozenLookup<String, Class<?>> frozenAliases;
 
   public TypeAliasRegistry() {
     registerAlias("string", String.class);
@@ -113,7 +115,13 @@ public class TypeAliasRegistry {
       // issue #748
       String key = string.toLowerCase(Locale.ENGLISH);
       Class<T> value;
-      if (TYPE_ALIASES.containsKey(key)) {
+      FrozenLookup<String, Class<?>> lookup = frozenAliases;
+      if (lookup != null) {
+        value = (Class<T>) lookup.get(key);
+        if (value == null && !lookup.containsKey(key)) {
+          value = (Class<T>) Resources.classForName(string);
+        }
+      } else if (TYPE_ALIASES.containsKey(key)) {
         value = (Class<T>) TYPE_ALIASES.get(key);
       } else {
         value = (Class<T>) Resources.classForName(string);
@@ -170,9 +178,19 @@ public class TypeAliasRegistry {
     if (TYPE_ALIASES.containsKey(key) && TYPE_ALIASES.get(key) != null && !TYPE_ALIASES.get(key).equals(value)) {
       throw new TypeException("The alias '" + alias + "' is already mapped to the value '" + TYPE_ALIASES.get(key).getName() + "'.");
     }
+    frozenAliases = null;
     TYPE_ALIASES.put(key, value);
   }
 
+  /**
+   * Serves the alias lookups from a read only snapshot until the next alias is registered.
+   *
+   * @since 3.4.3
+   */
+  public void freeze() {
+    frozenAliases = new FrozenLookup<String, Class<?>>(TYPE_ALIASES);
+  }
+
   public void registerAlias(String alias, String value) {
     try {
       registerAlias(alias, Resources.classForName(value));
@@ -30,6 +30,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.ibatis.io.ResolverUtil;
 import org.apache.ibatis.io.Resources;
@@ -62,6 +64,11 @@ public final class TypeHandlerRegistry {
 
   private static final Map<JdbcType, TypeHandler<?>> NULL_TYPE_HANDLER_MAP = new HashMap<JdbcType, TypeHandler<?>>();
 
+  // handlers resolved for a java type by JDBC type ordinal, the last slot is for a null JDBC type
+  private final ConcurrentMap<Type, AtomicReferenceArray<Object>> resolvedTypeHandlers = new ConcurrentHashMap<Type, AtomicReferenceArray<Object>>();
+  private static final int NULL_JDBC_TYPE_SLOT = JdbcType.values().length;
+  private static final Object NO_TYPE_HANDLER = new Object();
+
   public TypeHandlerRegistry() {
     register(Boolean.class, new BooleanTypeHandler());
     register(boolean.class, new BooleanTypeHandler());
@@ -210,8 +217,34 @@ public final class TypeHandlerRegistry {
     return getTypeHandler(javaTypeReference.getRawType(), jdbcType);
   }
 
+  /**
+   * Looks the handler up in the resolved handlers first, the registrations are only searched on a miss.
+   * Handlers that cannot be found are remembered as well. Registering a handler drops all resolved handlers.
+   */
   @SuppressWarnings("unchecked")
   private <T> TypeHandler<T> getTypeHandler(Type type, JdbcType jdbcType) {
+    if (type == null) {
+      return (TypeHandler<T>) resolveTypeHandler(type, jdbcType);
+    }
+    AtomicReferenceArray<Object> resolved = resolvedTypeHandlers.get(type);
+    if (resolved == null) {
+      resolved = new AtomicReferenceArray<Object>(NULL_JDBC_TYPE_SLOT + 1);
+      AtomicReferenceArray<Object> existing = resolvedTypeHandlers.putIfAbsent(type, resolved);
+      if (existing != null) {
+        resolved = existing;
+      }
+    }
+    final int slot = jdbcType == null ? NULL_JDBC_TYPE_SLOT : jdbcType.ordinal();
+    Object handler = resolved.get(slot);
+    if (handler == null) {
+      handler = resolveTypeHandler(type, jdbcType);
+      resolved.set(slot, handler == null ? NO_TYPE_HANDLER : handler);
+    }
+    // type drives generics here
+    return handler == NO_TYPE_HANDLER ? null : (TypeHandler<T>) handler;
+  }
+
+  private TypeHandler<?> resolveTypeHandler(Type type, JdbcType jdbcType) {
     Map<JdbcType, TypeHandler<?>> jdbcHandlerMap = getJdbcHandlerMap(type);
     TypeHandler<?> handler = null;
     if (jdbcHandlerMap != null) {
@@ -224,8 +257,7 @@ public final class TypeHandlerRegistry {
         handler = pickSoleHandler(jdbcHandlerMap);
       }
     }
-    // type drives generics here
-    return (TypeHandler<T>) handler;
+    return handler;
   }
 
   @SuppressWarnings({ "rawtypes", "unchecked" })
@@ -351,11 +383,12 @@ public final class TypeHandlerRegistry {
   private void register(Type javaType, JdbcType jdbcType, TypeHandler<?> handler) {
     if (javaType != null) {
       Map<JdbcType, TypeHandler<?>> map = TYPE_HANDLER_MAP.get(javaType);
-      if (map == null) {
+      if (map == null || map == NULL_TYPE_HANDLER_MAP) {
         map = new HashMap<JdbcType, TypeHandler<?>>();
         TYPE_HANDLER_MAP.put(javaType, map);
       }
       map.put(jdbcType, handler);
+      resolvedTypeHandlers.clear();
     }
     ALL_TYPE_HANDLERS_MAP.put(handler.getClass(), handler);
   }
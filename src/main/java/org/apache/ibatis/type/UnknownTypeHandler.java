@@ -22,6 +22,8 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ibatis.io.Resources;
 
@@ -33,6 +35,8 @@ public class UnknownTypeHandler extends BaseTypeHandler<Object> {
   private static final ObjectTypeHandler OBJECT_TYPE_HANDLER = new ObjectTypeHandler();
 
   private TypeHandlerRegistry typeHandlerRegistry;
+  // classes of the column class names reported by drivers, Void for the names that cannot be loaded
+  private final ConcurrentMap<String, Class<?>> columnClasses = new ConcurrentHashMap<String, Class<?>>();
 
   public UnknownTypeHandler(TypeHandlerRegistry typeHandlerRegistry) {
     this.typeHandlerRegistry = typeHandlerRegistry;
@@ -69,15 +73,20 @@ public class UnknownTypeHandler extends BaseTypeHandler<Object> {
   }
 
   private TypeHandler<? extends Object> resolveTypeHandler(Object parameter, JdbcType jdbcType) {
-    TypeHandler<? extends Object> handler;
     if (parameter == null) {
+      return OBJECT_TYPE_HANDLER;
+    }
+    return getParameterTypeHandler(parameter.getClass(), jdbcType);
+  }
+
+  /**
+   * Returns the handler non null parameters of a class are delegated to.
+   */
+  public TypeHandler<?> getParameterTypeHandler(Class<?> parameterType, JdbcType jdbcType) {
+    TypeHandler<?> handler = typeHandlerRegistry.getTypeHandler(parameterType, jdbcType);
+    // check if handler is null (issue #270)
+    if (handler == null || handler instanceof UnknownTypeHandler) {
       handler = OBJECT_TYPE_HANDLER;
-    } else {
-      handler = typeHandlerRegistry.getTypeHandler(parameter.getClass(), jdbcType);
-      // check if handler is null (issue #270)
-      if (handler == null || handler instanceof UnknownTypeHandler) {
-        handler = OBJECT_TYPE_HANDLER;
-      }
     }
     return handler;
   }
@@ -129,10 +138,24 @@ public class UnknownTypeHandler extends BaseTypeHandler<Object> {
   }
 
   private Class<?> safeGetClassForColumn(ResultSetMetaData rsmd, Integer columnIndex) {
+    final String className;
     try {
-      return Resources.classForName(rsmd.getColumnClassName(columnIndex));
+      className = rsmd.getColumnClassName(columnIndex);
     } catch (Exception e) {
       return null;
     }
+    if (className == null) {
+      return null;
+    }
+    Class<?> clazz = columnClasses.get(className);
+    if (clazz == null) {
+      try {
+        clazz = Resources.classForName(className);
+      } catch (Exception e) {
+        clazz = Void.class;
+      }
+      columnClasses.put(className, clazz);
+    }
+    return clazz == Void.class ? null : clazz;
   }
 }
@@ -0,0 +1,191 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.domain.blog.Post;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class GeneratedMapperTest {
+
+  private static DataSource dataSource;
+  private static SqlSessionFactory sqlSessionFactory;
+
+  public interface UnboundMapper {
+    Blog selectUnbound(int id);
+  }
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    dataSource = BaseDataTest.createBlogDataSource();
+    BaseDataTest.runScript(dataSource, BaseDataTest.BLOG_DDL);
+    BaseDataTest.runScript(dataSource, BaseDataTest.BLOG_DATA);
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration());
+  }
+
+  private static Configuration configuration() {
+    Environment environment = new Environment("Production", new JdbcTransactionFactory(), dataSource);
+    Configuration configuration = new Configuration(environment);
+    configuration.setGenerateMapperImplementations(true);
+    configuration.setUseActualParamName(false);
+    configuration.getTypeAliasRegistry().registerAlias(Blog.class);
+    configuration.getTypeAliasRegistry().registerAlias(Post.class);
+    configuration.getTypeAliasRegistry().registerAlias(Author.class);
+    configuration.addMapper(BoundBlogMapper.class);
+    configuration.addMapper(BoundAuthorMapper.class);
+    configuration.addMapper(UnboundMapper.class);
+    return configuration;
+  }
+
+  @Test
+  public void shouldUseGeneratedImplementation() {
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      BoundBlogMapper mapper = session.getMapper(BoundBlogMapper.class);
+      assertTrue(mapper instanceof GeneratedMapper);
+      assertTrue(!Proxy.isProxyClass(mapper.getClass()));
+      assertEquals(mapper.getClass(), session.getMapper(BoundBlogMapper.class).getClass());
+    } finally {
+      session.close();
+    }
+  }
+
+  @Test
+  public void shouldShareTheGeneratedClassBetweenConfigurations() {
+    Configuration otherConfiguration = configuration();
+    // the statement the other configuration knows is called directly
+    List<ParameterMapping> parameterMappings = Collections.singletonList(
+        new ParameterMapping.Builder(otherConfiguration, "id", Integer.class).build());
+    List<ResultMap> resultMaps = Collections.singletonList(
+        new ResultMap.Builder(otherConfiguration, "unboundBlog", Blog.class, new ArrayList<ResultMapping>()).build());
+    otherConfiguration.addMappedStatement(new MappedStatement.Builder(otherConfiguration, UnboundMapper.class.getName() + ".selectUnbound",
+        new StaticSqlSource(otherConfiguration, "select * from blog where id = ?", parameterMappings), SqlCommandType.SELECT)
+        .resultMaps(resultMaps).build());
+    SqlSession session = sqlSessionFactory.openSession();
+    SqlSession sameSession = new SqlSessionFactoryBuilder().build(configuration()).openSession();
+    SqlSession otherSession = new SqlSessionFactoryBuilder().build(otherConfiguration).openSession();
+    try {
+      assertSame(session.getMapper(BoundBlogMapper.class).getClass(), sameSession.getMapper(BoundBlogMapper.class).getClass());
+      assertSame(session.getMapper(BoundBlogMapper.class).getClass(), otherSession.getMapper(BoundBlogMapper.class).getClass());
+      UnboundMapper otherMapper = otherSession.getMapper(UnboundMapper.class);
+      assertTrue(otherMapper instanceof GeneratedMapper);
+      assertNotSame(session.getMapper(UnboundMapper.class).getClass(), otherMapper.getClass());
+      assertEquals("Jim Business", otherMapper.selectUnbound(1).getTitle());
+    } finally {
+      session.close();
+      sameSession.close();
+      otherSession.close();
+    }
+  }
+
+  @Test
+  public void shouldSelectWithDirectCalls() {
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      BoundBlogMapper mapper = session.getMapper(BoundBlogMapper.class);
+      assertEquals("Jim Business", mapper.selectBlog(1).getTitle());
+      assertEquals(2, mapper.selectBlogs().size());
+      assertNotNull(mapper.selectBlogByDefault30ParamNames(1, "Jim Business"));
+      assertNotNull(mapper.selectBlogWithAParamNamedValue("id", 1, "Jim Business"));
+      Map<Integer, Blog> blogs = mapper.selectBlogsAsMapById();
+      assertEquals(2, blogs.size());
+      assertEquals(1, mapper.selectRangeBlogsAsMapById(new RowBounds(1, 1)).size());
+      List<Post> posts = mapper.selectPostsLike(new RowBounds(1, 1), "%a%");
+      assertEquals(1, posts.size());
+    } finally {
+      session.close();
+    }
+  }
+
+  @Test
+  public void shouldDelegateOtherShapesToMapperMethod() {
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      BoundBlogMapper mapper = session.getMapper(BoundBlogMapper.class);
+      mapper.selectRandom();
+      int count = 0;
+      for (Blog blog : mapper.openRangeBlogs(RowBounds.DEFAULT)) {
+        assertNotNull(blog);
+        count++;
+      }
+      assertEquals(2, count);
+      BoundAuthorMapper authorMapper = session.getMapper(BoundAuthorMapper.class);
+      assertEquals(3, authorMapper.findPostsInArray(new Integer[] { 1, 3, 5 }).size());
+    } finally {
+      session.close();
+    }
+  }
+
+  @Test
+  public void shouldInsertWithDirectCall() {
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      BoundAuthorMapper mapper = session.getMapper(BoundAuthorMapper.class);
+      Author author = new Author(-1, "cbegin", "******", "cbegin@nowhere.com", "N/A", Section.NEWS);
+      assertEquals(1, mapper.insertAuthor(author));
+      session.rollback();
+    } finally {
+      session.close();
+    }
+  }
+
+  @Test
+  public void shouldFailOnCallWhenStatementIsMissing() {
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      UnboundMapper mapper = session.getMapper(UnboundMapper.class);
+      mapper.selectUnbound(1);
+      fail("Method without a statement should fail");
+    } catch (BindingException e) {
+      assertTrue(e.getMessage().contains("Invalid bound statement (not found)"));
+    } finally {
+      session.close();
+    }
+  }
+
+}
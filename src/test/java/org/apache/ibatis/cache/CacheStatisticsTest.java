@@ -0,0 +1,140 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.ibatis.cache.decorators.StatisticsCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.Test;
+
+public class CacheStatisticsTest {
+
+  @Test
+  public void shouldCountRequestsAndPuts() {
+    CacheStatistics statistics = new CacheStatistics("stats");
+    Cache cache = new CacheBuilder("stats").statistics(statistics).build();
+    assertTrue(cache instanceof StatisticsCache);
+    assertSame(statistics, ((StatisticsCache) cache).getStatistics());
+    cache.putObject("a", "A");
+    cache.getObject("a");
+    cache.getObject("a");
+    cache.getObject("b");
+    assertEquals(1, statistics.getPuts());
+    assertEquals(2, statistics.getHits());
+    assertEquals(1, statistics.getMisses());
+    assertEquals(3, statistics.getRequests());
+    assertEquals(2d / 3, statistics.getHitRatio(), 0.0001);
+    assertEquals(1, statistics.getSize());
+  }
+
+  @Test
+  public void shouldTellEvictionsFromRemovals() {
+    CacheStatistics statistics = new CacheStatistics("stats");
+    Cache cache = new CacheBuilder("stats").size(2).statistics(statistics).build();
+    cache.putObject("a", "A");
+    cache.putObject("b", "B");
+    cache.putObject("c", "C");
+    assertEquals(1, statistics.getEvictions());
+    cache.removeObject("c");
+    assertEquals(1, statistics.getRemovals());
+    assertEquals(1, statistics.getEvictions());
+    assertEquals(1, statistics.getSize());
+  }
+
+  @Test
+  public void shouldNotCountTheLockReleasesOfABlockingCacheAsRemovals() {
+    CacheStatistics statistics = new CacheStatistics("stats");
+    Cache cache = new CacheBuilder("stats").blocking(true).statistics(statistics).build();
+    assertNull(cache.getObject("a"));
+    cache.putObject("a", "A");
+    assertNull(cache.getObject("b"));
+    cache.removeObject("b");
+    assertEquals(0, statistics.getRemovals());
+    assertEquals(0, statistics.getEvictions());
+    assertEquals(1, statistics.getSize());
+  }
+
+  @Test
+  public void shouldEstimateTheMemoryOfSerializedValues() {
+    CacheStatistics statistics = new CacheStatistics("stats");
+    Cache cache = new CacheBuilder("stats").readWrite(true).statistics(statistics).build();
+    cache.putObject("a", "some value");
+    long oneEntry = statistics.getEstimatedMemory();
+    assertTrue(oneEntry > 0);
+    cache.putObject("a", "some value");
+    assertEquals(oneEntry, statistics.getEstimatedMemory());
+    cache.putObject("b", "some value");
+    assertEquals(2 * oneEntry, statistics.getEstimatedMemory());
+    cache.removeObject("a");
+    assertEquals(oneEntry, statistics.getEstimatedMemory());
+    cache.clear();
+    assertEquals(0, statistics.getEstimatedMemory());
+    assertEquals(1, statistics.getClears());
+  }
+
+  @Test
+  public void shouldRegisterMBeansWhenJmxIsEnabled() throws Exception {
+    CacheStatisticsRegistry registry = new CacheStatisticsRegistry();
+    registry.setJmxEnabled(true);
+    CacheStatistics statistics = new CacheStatistics("org.apache.ibatis.cache.CacheStatisticsTest");
+    registry.register(statistics);
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = registry.objectName(statistics.getId());
+    try {
+      statistics.recordHit();
+      assertEquals(1L, server.getAttribute(name, "Hits"));
+      assertSame(statistics, registry.getStatistics(statistics.getId()));
+    } finally {
+      registry.unregisterMBeans();
+    }
+    assertFalse(server.isRegistered(name));
+  }
+
+  @Test
+  public void shouldKeepTheMBeansOfEachRegistry() throws Exception {
+    CacheStatisticsRegistry registry = new CacheStatisticsRegistry();
+    registry.setJmxEnabled(true);
+    CacheStatisticsRegistry otherRegistry = new CacheStatisticsRegistry();
+    otherRegistry.setJmxEnabled(true);
+    String cacheId = "org.apache.ibatis.cache.CacheStatisticsTest";
+    registry.register(new CacheStatistics(cacheId));
+    otherRegistry.register(new CacheStatistics(cacheId));
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = registry.objectName(cacheId);
+    ObjectName otherName = otherRegistry.objectName(cacheId);
+    try {
+      assertFalse(name.equals(otherName));
+      assertTrue(server.isRegistered(name));
+      assertTrue(server.isRegistered(otherName));
+    } finally {
+      registry.unregisterMBeans();
+      otherRegistry.unregisterMBeans();
+    }
+    assertFalse(server.isRegistered(name));
+    assertFalse(server.isRegistered(otherName));
+  }
+
+}
@@ -0,0 +1,116 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.Test;
+
+public class PrefetchingCursorTest {
+
+  @Test(timeout = 10000)
+  public void shouldHandErrorsOfTheProducerToTheCaller() throws Exception {
+    @SuppressWarnings("unchecked")
+    Cursor<String> delegate = mock(Cursor.class);
+    when(delegate.iterator()).thenReturn(new Iterator<String>() {
+      private int count;
+
+      @Override
+      public boolean hasNext() {
+        if (count == 1) {
+          throw new AssertionError("driver failure");
+        }
+        return true;
+      }
+
+      @Override
+      public String next() {
+        count++;
+        return "first";
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    });
+    PrefetchingCursor<String> cursor = new PrefetchingCursor<String>(delegate, 0, 1);
+    Iterator<String> iterator = cursor.iterator();
+    assertEquals("first", iterator.next());
+    try {
+      iterator.hasNext();
+      fail("The error of the producer should be thrown to the caller");
+    } catch (AssertionError e) {
+      assertEquals("driver failure", e.getMessage());
+    }
+    assertTrue(cursor.isConsumed());
+    cursor.close();
+  }
+
+  @Test(timeout = 10000)
+  public void shouldMapTheRemainingObjectsOnTheCallerThreadOnceStopped() throws Exception {
+    final List<Thread> threads = new ArrayList<Thread>();
+    @SuppressWarnings("unchecked")
+    Cursor<Integer> delegate = mock(Cursor.class);
+    when(delegate.iterator()).thenReturn(new Iterator<Integer>() {
+      private int count;
+
+      @Override
+      public boolean hasNext() {
+        return count < 10;
+      }
+
+      @Override
+      public Integer next() {
+        threads.add(Thread.currentThread());
+        return count++;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    });
+    PrefetchingCursor<Integer> cursor = new PrefetchingCursor<Integer>(delegate, 0, 2);
+    Iterator<Integer> iterator = cursor.iterator();
+    assertEquals(Integer.valueOf(0), iterator.next());
+    cursor.stopPrefetching();
+    int mappedInBackground = threads.size();
+
+    List<Integer> remaining = new ArrayList<Integer>();
+    while (iterator.hasNext()) {
+      remaining.add(iterator.next());
+    }
+    assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9), remaining);
+    for (Thread thread : threads.subList(mappedInBackground, threads.size())) {
+      assertSame(Thread.currentThread(), thread);
+    }
+    assertTrue(cursor.isConsumed());
+    cursor.close();
+  }
+
+}
@@ -0,0 +1,123 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.Deadline;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DeadlineScopeTest {
+
+  @Mock
+  private Statement statement;
+
+  private final StatementExecutor executor = new StatementExecutor();
+
+  @After
+  public void unbindDeadline() {
+    Deadline.bind(null);
+  }
+
+  @Test
+  public void shouldLowerTheQueryTimeoutAndRestoreIt() throws Exception {
+    when(statement.getQueryTimeout()).thenReturn(30);
+    Deadline.bind(Deadline.after(1500, TimeUnit.MILLISECONDS));
+    executor.flushStatements();
+    verify(statement).setQueryTimeout(2);
+    verify(statement).setQueryTimeout(30);
+  }
+
+  @Test
+  public void shouldLeaveTheScopeToTheEnclosingCall() throws Exception {
+    when(statement.getQueryTimeout()).thenReturn(30);
+    Deadline.bind(Deadline.after(1500, TimeUnit.MILLISECONDS));
+    executor.nestedCall = true;
+    executor.flushStatements();
+    verify(statement).setQueryTimeout(30);
+  }
+
+  @Test
+  public void shouldCancelStatementsRunningWhenTheDeadlinePasses() throws Exception {
+    Deadline.bind(Deadline.after(50, TimeUnit.MILLISECONDS));
+    executor.applyDeadline(statement);
+    verify(statement, timeout(5000)).cancel();
+  }
+
+  @Test
+  public void shouldRejectStatementsRegisteredAfterTheDeadline() throws Exception {
+    DeadlineScope scope = new DeadlineScope(Deadline.after(1, TimeUnit.MINUTES));
+    scope.run();
+    try {
+      scope.register(statement, 30);
+      fail("Should have failed");
+    } catch (DeadlineExceededException e) {
+      // expected
+    }
+    scope.release();
+    verify(statement).setQueryTimeout(30);
+  }
+
+  @Test(expected = DeadlineExceededException.class)
+  public void shouldNotApplyAnExpiredDeadline() throws Exception {
+    Deadline.bind(Deadline.after(-1, TimeUnit.MILLISECONDS));
+    executor.applyDeadline(statement);
+  }
+
+  /**
+   * Runs the statement when flushing, and optionally a nested call, like a selectKey run by an update.
+   */
+  private class StatementExecutor extends SimpleExecutor {
+
+    private boolean nestedCall;
+    private boolean running;
+
+    StatementExecutor() {
+      super(new Configuration(), null);
+    }
+
+    @Override
+    public List<BatchResult> doFlushStatements(boolean isRollback) throws SQLException {
+      if (!running) {
+        running = true;
+        applyDeadline(statement);
+        if (nestedCall) {
+          flushStatements();
+          verify(statement, never()).setQueryTimeout(30);
+        }
+        running = false;
+      }
+      return Collections.<BatchResult>emptyList();
+    }
+  }
+
+}
@@ -17,11 +17,13 @@ package org.apache.ibatis.executor.loader;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 import net.sf.cglib.proxy.Factory;
 
@@ -69,4 +71,24 @@ public class CglibProxyTest extends SerializableProxyTest {
     assertFalse(author.getClass().equals(author2.getClass()));
   }
 
+  @Test
+  public void shouldPregenerateTheProxyClassOfAResultType() throws Exception {
+    CglibProxyFactory factory = new CglibProxyFactory();
+    assertFalse(factory.getProxyClassCache().contains(Author.class));
+    factory.pregenerateProxyClass(Author.class, new ArrayList<Class<?>>());
+    assertTrue(factory.getProxyClassCache().contains(Author.class));
+    Object proxy = factory.createProxy(author, new ResultLoaderMap(), new Configuration(), new DefaultObjectFactory(), new ArrayList<Class<?>>(), new ArrayList<Object>());
+    assertSame(factory.getProxyClassCache().getProxyClass(Author.class), proxy.getClass());
+  }
+
+  @Test
+  public void shouldSkipThePregenerationOfAProxyClassWithoutMatchingConstructor() throws Exception {
+    CglibProxyFactory factory = new CglibProxyFactory();
+    List<Class<?>> constructorArgTypes = new ArrayList<Class<?>>();
+    constructorArgTypes.add(Thread.class);
+    factory.pregenerateProxyClass(Author.class, constructorArgTypes);
+    Object proxy = factory.createProxy(author, new ResultLoaderMap(), new Configuration(), new DefaultObjectFactory(), new ArrayList<Class<?>>(), new ArrayList<Object>());
+    assertTrue(proxy instanceof Author);
+  }
+
 }
@@ -17,11 +17,13 @@ package org.apache.ibatis.executor.loader;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 import javassist.util.proxy.Proxy;
 
@@ -69,4 +71,24 @@ public class JavassistProxyTest extends SerializableProxyTest {
     assertFalse(author.getClass().equals(author2.getClass()));
   }
 
+  @Test
+  public void shouldPregenerateTheProxyClassOfAResultType() throws Exception {
+    JavassistProxyFactory factory = new JavassistProxyFactory();
+    assertFalse(factory.getProxyClassCache().contains(Author.class));
+    factory.pregenerateProxyClass(Author.class, new ArrayList<Class<?>>());
+    assertTrue(factory.getProxyClassCache().contains(Author.class));
+    Object proxy = factory.createProxy(author, new ResultLoaderMap(), new Configuration(), new DefaultObjectFactory(), new ArrayList<Class<?>>(), new ArrayList<Object>());
+    assertSame(factory.getProxyClassCache().getProxyClass(Author.class), proxy.getClass());
+  }
+
+  @Test
+  public void shouldSkipThePregenerationOfAProxyClassWithoutMatchingConstructor() throws Exception {
+    JavassistProxyFactory factory = new JavassistProxyFactory();
+    List<Class<?>> constructorArgTypes = new ArrayList<Class<?>>();
+    constructorArgTypes.add(Thread.class);
+    factory.pregenerateProxyClass(Author.class, constructorArgTypes);
+    Object proxy = factory.createProxy(author, new ResultLoaderMap(), new Configuration(), new DefaultObjectFactory(), new ArrayList<Class<?>>(), new ArrayList<Object>());
+    assertTrue(proxy instanceof Author);
+  }
+
 }
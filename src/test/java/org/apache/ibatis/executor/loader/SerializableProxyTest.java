@@ -17,6 +17,7 @@ package org.apache.ibatis.executor.loader;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
@@ -39,6 +40,14 @@ public abstract class SerializableProxyTest {
   protected Author author = new Author(999, "someone", "!@#@!#!@#", "someone@somewhere.com", "blah", Section.NEWS);
   
   protected ProxyFactory proxyFactory;
+
+  @Test
+  public void shouldReuseTheProxyClassOfAResultType() throws Exception {
+    Object proxy = proxyFactory.createProxy(author, new ResultLoaderMap(), new Configuration(), new DefaultObjectFactory(), new ArrayList<Class<?>>(), new ArrayList<Object>());
+    Object proxy2 = proxyFactory.createProxy(author, new ResultLoaderMap(), new Configuration(), new DefaultObjectFactory(), new ArrayList<Class<?>>(), new ArrayList<Object>());
+    assertSame(proxy.getClass(), proxy2.getClass());
+    assertEquals(author, proxy2);
+  }
   
   @Test
   public void shouldKeepGenericTypes() throws Exception {
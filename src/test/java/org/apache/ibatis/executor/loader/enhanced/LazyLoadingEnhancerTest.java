@@ -0,0 +1,201 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader.enhanced;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.executor.loader.ResultLoader;
+import org.apache.ibatis.executor.loader.ResultLoaderMap;
+import org.apache.ibatis.session.Configuration;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LazyLoadingEnhancerTest {
+
+  private Configuration configuration;
+  private List<String> loadedValues;
+  private Class<?> dogClass;
+
+  @Before
+  public void setUp() throws Exception {
+    configuration = new Configuration();
+    loadedValues = new ArrayList<String>();
+    LazyLoadingEnhancer enhancer = new LazyLoadingEnhancer(Collections.singletonList(Pet.class.getPackage().getName()));
+    dogClass = new EnhancingClassLoader(enhancer).loadClass(Dog.class.getName());
+  }
+
+  @Test
+  public void shouldWeaveTheHooksIntoTheClassHierarchy() throws Exception {
+    assertTrue(LazyLoadingEnhanced.class.isAssignableFrom(dogClass));
+    assertTrue(LazyLoadingEnhanced.class.isAssignableFrom(dogClass.getSuperclass()));
+    assertFalse(LazyLoadingEnhanced.class.isAssignableFrom(Dog.class));
+  }
+
+  @Test
+  public void shouldLoadTheReadPropertyOnly() throws Exception {
+    Object dog = newLazyDog();
+    assertEquals("Bob", invoke(dog, "getOwner"));
+    assertEquals(Collections.singletonList("owner"), loadedValues);
+    assertNotNull(lazyLoaderOf(dog, dogClass));
+    assertEquals("Husky", invoke(dog, "getBreed"));
+    assertEquals("Bob", invoke(dog, "getOwner"));
+    assertEquals(2, loadedValues.size());
+    assertNull(lazyLoaderOf(dog, dogClass));
+  }
+
+  @Test
+  public void shouldLoadEverythingWhenAggressive() throws Exception {
+    configuration.setAggressiveLazyLoading(true);
+    Object dog = newLazyDog();
+    invoke(dog, "getName");
+    assertEquals(2, loadedValues.size());
+    assertNull(lazyLoaderOf(dog, dogClass.getSuperclass()));
+    assertEquals("Husky", invoke(dog, "getBreed"));
+    assertEquals(2, loadedValues.size());
+  }
+
+  @Test
+  public void shouldLoadEverythingOnTriggerMethods() throws Exception {
+    Object dog = newLazyDog();
+    dog.toString();
+    assertEquals(2, loadedValues.size());
+    loadedValues.clear();
+    configuration.setLazyLoadTriggerMethods(Collections.singleton("setName"));
+    dog = newLazyDog();
+    invoke(dog, "setName", "Rex");
+    assertEquals(2, loadedValues.size());
+  }
+
+  @Test
+  public void shouldNotProxyEnhancedObjects() throws Exception {
+    EnhancedProxyFactory proxyFactory = new EnhancedProxyFactory();
+    Object dog = dogClass.newInstance();
+    Object result = proxyFactory.createProxy(dog, new ResultLoaderMap(), configuration, configuration.getObjectFactory(),
+        new ArrayList<Class<?>>(), new ArrayList<Object>());
+    assertSame(dog, result);
+    Object plainDog = new Dog();
+    result = proxyFactory.createProxy(plainDog, new ResultLoaderMap(), configuration, configuration.getObjectFactory(),
+        new ArrayList<Class<?>>(), new ArrayList<Object>());
+    assertTrue(result instanceof Dog);
+    assertFalse(result.getClass() == Dog.class);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectMissingArgumentsOfTheMainClass() throws Exception {
+    LazyLoadingEnhancer.main(new String[] { "target/classes" });
+  }
+
+  private Object newLazyDog() throws Exception {
+    Object dog = dogClass.newInstance();
+    ResultLoaderMap lazyLoader = new ResultLoaderMap();
+    Object proxy = new EnhancedProxyFactory().createProxy(dog, lazyLoader, configuration, configuration.getObjectFactory(),
+        new ArrayList<Class<?>>(), new ArrayList<Object>());
+    assertSame(dog, proxy);
+    lazyLoader.addLoader("owner", configuration.newMetaObject(dog), new StubResultLoader(configuration, "owner", "Bob"));
+    lazyLoader.addLoader("breed", configuration.newMetaObject(dog), new StubResultLoader(configuration, "breed", "Husky"));
+    return dog;
+  }
+
+  private static Object invoke(Object target, String methodName, Object... args) throws Exception {
+    for (Method method : target.getClass().getMethods()) {
+      if (method.getName().equals(methodName) && method.getParameterTypes().length == args.length) {
+        return method.invoke(target, args);
+      }
+    }
+    throw new NoSuchMethodException(methodName);
+  }
+
+  private static Object lazyLoaderOf(Object target, Class<?> type) throws Exception {
+    Field field = type.getDeclaredField(LazyLoadingEnhancer.LAZY_LOADER_FIELD);
+    field.setAccessible(true);
+    return field.get(target);
+  }
+
+  private class StubResultLoader extends ResultLoader {
+
+    private final String property;
+    private final String value;
+
+    StubResultLoader(Configuration configuration, String property, String value) {
+      super(configuration, null, null, null, String.class, null, null);
+      this.property = property;
+      this.value = value;
+    }
+
+    @Override
+    public Object loadResult() throws SQLException {
+      loadedValues.add(property);
+      return value;
+    }
+  }
+
+  private static class EnhancingClassLoader extends ClassLoader {
+
+    private final LazyLoadingEnhancer enhancer;
+
+    EnhancingClassLoader(LazyLoadingEnhancer enhancer) {
+      super(LazyLoadingEnhancerTest.class.getClassLoader());
+      this.enhancer = enhancer;
+    }
+
+    @Override
+    protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      if (!name.equals(Pet.class.getName()) && !name.equals(Dog.class.getName())) {
+        return super.loadClass(name, resolve);
+      }
+      Class<?> loaded = findLoadedClass(name);
+      if (loaded == null) {
+        try {
+          byte[] bytes = enhancer.enhance(name, readClassFile(name));
+          loaded = defineClass(name, bytes, 0, bytes.length);
+        } catch (Exception e) {
+          throw new ClassNotFoundException(name, e);
+        }
+      }
+      return loaded;
+    }
+
+    private byte[] readClassFile(String name) throws Exception {
+      InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class");
+      try {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+      } finally {
+        in.close();
+      }
+    }
+  }
+
+}
@@ -44,6 +44,7 @@ import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.IntegerTypeHandler;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 import org.junit.Assert;
@@ -87,7 +88,7 @@ public class DefaultResultSetHandlerTest {
     when(rs.getMetaData()).thenReturn(rsmd);
     when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
     when(rs.next()).thenReturn(true).thenReturn(false);
-    when(rs.getInt("CoLuMn1")).thenReturn(100);
+    when(rs.getInt(1)).thenReturn(100);
     when(rs.wasNull()).thenReturn(false);
     when(rsmd.getColumnCount()).thenReturn(1);
     when(rsmd.getColumnLabel(1)).thenReturn("CoLuMn1");
@@ -130,6 +131,57 @@ public class DefaultResultSetHandlerTest {
     }
   }
 
+  @Test
+  public void shouldCallTheOverriddenMethodsOfBuiltInHandlerSubclassesForPrimitiveProperties() throws Exception {
+    final Configuration config = new Configuration();
+    final TypeHandler<Integer> typeHandler = new IntegerTypeHandler() {
+      @Override
+      public Integer getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return rs.getInt(columnName) * 10;
+      }
+
+      @Override
+      public Integer getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return rs.getInt(columnIndex) * 10;
+      }
+    };
+    final ResultMap resultMap = new ResultMap.Builder(config, "counterMap", Counter.class, Collections.singletonList(
+        new ResultMapping.Builder(config, "count", "count", typeHandler).javaType(int.class).build())).build();
+    final MappedStatement ms = new MappedStatement.Builder(config, "selectCounter", new StaticSqlSource(config, "some select statement"),
+        SqlCommandType.SELECT).resultMaps(Collections.singletonList(resultMap)).build();
+    final DefaultResultSetHandler defaultResultSetHandler = new DefaultResultSetHandler(null/*executor*/, ms,
+        null/*parameterHandler*/, null/*resultHandler*/, null/*boundSql*/, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(false);
+    when(rs.getInt(1)).thenReturn(4);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnLabel(1)).thenReturn("count");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false);
+
+    final List<Object> results = defaultResultSetHandler.handleResultSets(stmt);
+    assertEquals(1, results.size());
+    assertEquals(40, ((Counter) results.get(0)).getCount());
+  }
+
+  public static class Counter {
+    private int count;
+
+    public int getCount() {
+      return count;
+    }
+
+    public void setCount(int count) {
+      this.count = count;
+    }
+  }
+
   MappedStatement getMappedStatement() {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
@@ -0,0 +1,157 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.IntegerTypeHandler;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ResultSetWrapperTest {
+
+  @Mock
+  private ResultSet rs;
+  @Mock
+  private ResultSetMetaData rsmd;
+
+  @Test
+  public void shouldResolveColumnIndexesOfPropertyMappings() throws Exception {
+    Configuration configuration = new Configuration();
+    ResultSetWrapper rsw = new ResultSetWrapper(mockResultSet("ID", "P_NAME"), configuration);
+    assertEquals(1, rsw.getColumnIndex("id"));
+    assertEquals(2, rsw.getColumnIndex("p_name"));
+    assertEquals(0, rsw.getColumnIndex("missing"));
+
+    ResultMap resultMap = resultMap(configuration);
+    int[] indexes = rsw.getPropertyColumnIndexes(resultMap, null);
+    assertArrayEquals(new int[] { 1, 0 }, indexes);
+    assertSame(indexes, rsw.getPropertyColumnIndexes(resultMap, null));
+    assertArrayEquals(new int[] { 0, 2 }, rsw.getPropertyColumnIndexes(resultMap, "P_"));
+  }
+
+  @Test
+  public void shouldResolvePropertyColumnsOncePerResultMapAndPrefix() throws Exception {
+    Configuration configuration = new Configuration();
+    ResultSetWrapper rsw = new ResultSetWrapper(mockResultSet("ID", "P_NAME"), configuration);
+    ResultMap resultMap = resultMap(configuration);
+    ResultSetWrapper.PropertyColumns columns = rsw.getPropertyColumns(resultMap, null);
+    assertSame(columns, rsw.getPropertyColumns(resultMap, null));
+    assertArrayEquals(new String[] { "id", "name" }, columns.columns);
+    assertArrayEquals(new boolean[] { true, false }, columns.present);
+
+    ResultSetWrapper.PropertyColumns prefixed = rsw.getPropertyColumns(resultMap, "P_");
+    assertSame(prefixed, rsw.getPropertyColumns(resultMap, new String("P_")));
+    assertArrayEquals(new String[] { "P_id", "P_name" }, prefixed.columns);
+    assertArrayEquals(new boolean[] { false, true }, prefixed.present);
+    assertArrayEquals(new int[] { 0, 2 }, prefixed.columnIndexes);
+  }
+
+  @Test
+  public void shouldReadColumnsByLabelWhenColumnNamesAreNotLabels() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setUseColumnLabel(false);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnName(1)).thenReturn("ID");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    ResultSetWrapper rsw = new ResultSetWrapper(rs, configuration);
+    assertEquals(0, rsw.getColumnIndex("ID"));
+    assertArrayEquals(new int[] { 0, 0 }, rsw.getPropertyColumnIndexes(resultMap(configuration), null));
+  }
+
+  @Test
+  public void shouldReuseLayoutOfPreviousExecutionsWithTheSameColumns() throws Exception {
+    Configuration configuration = new Configuration();
+    MappedStatement ms = new MappedStatement.Builder(configuration, "select", new StaticSqlSource(configuration, "select"), SqlCommandType.SELECT).build();
+    ResultMap resultMap = resultMap(configuration);
+    ResultSetWrapper first = new ResultSetWrapper(mockResultSet("ID", "NAME"), configuration, ms, 0);
+    int[] indexes = first.getPropertyColumnIndexes(resultMap, null);
+    assertNotNull(ms.getResultSetLayout(0));
+    assertNull(ms.getResultSetLayout(1));
+
+    ResultSetWrapper second = new ResultSetWrapper(mockResultSet("ID", "NAME"), configuration, ms, 0);
+    assertSame(indexes, second.getPropertyColumnIndexes(resultMap, null));
+
+    ResultSetWrapper third = new ResultSetWrapper(mockResultSet("NAME", "ID"), configuration, ms, 0);
+    assertArrayEquals(new int[] { 2, 1 }, third.getPropertyColumnIndexes(resultMap, null));
+    assertArrayEquals(new int[] { 1, 2 }, indexes);
+  }
+
+  @Test
+  public void shouldResolveUnknownTypeHandlersFromColumnTypes() throws Exception {
+    Configuration configuration = new Configuration();
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rsmd.getColumnCount()).thenReturn(2);
+    when(rsmd.getColumnLabel(1)).thenReturn("ID");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getName());
+    when(rsmd.getColumnLabel(2)).thenReturn("OTHER");
+    when(rsmd.getColumnType(2)).thenReturn(Types.VARCHAR);
+    ResultSetWrapper rsw = new ResultSetWrapper(rs, configuration);
+    List<ResultMapping> mappings = new ArrayList<ResultMapping>();
+    mappings.add(new ResultMapping.Builder(configuration, "id", "id", Object.class).build());
+    mappings.add(new ResultMapping.Builder(configuration, "name", "name", Object.class).build());
+    ResultMap resultMap = new ResultMap.Builder(configuration, "objectMap", HashMap.class, mappings).build();
+
+    TypeHandler<?>[] typeHandlers = rsw.getPropertyTypeHandlers(resultMap, null);
+    assertSame(IntegerTypeHandler.class, typeHandlers[0].getClass());
+    assertSame(configuration.getTypeHandlerRegistry().getUnknownTypeHandler(), typeHandlers[1]);
+    assertSame(typeHandlers, rsw.getPropertyTypeHandlers(resultMap, null));
+  }
+
+  private ResultSet mockResultSet(String... labels) throws Exception {
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rsmd.getColumnCount()).thenReturn(labels.length);
+    for (int i = 0; i < labels.length; i++) {
+      when(rsmd.getColumnLabel(i + 1)).thenReturn(labels[i]);
+      when(rsmd.getColumnType(i + 1)).thenReturn(Types.VARCHAR);
+    }
+    return rs;
+  }
+
+  private ResultMap resultMap(Configuration configuration) {
+    TypeHandlerRegistry registry = configuration.getTypeHandlerRegistry();
+    List<ResultMapping> mappings = new ArrayList<ResultMapping>();
+    mappings.add(new ResultMapping.Builder(configuration, "id", "id", registry.getTypeHandler(Integer.class)).build());
+    mappings.add(new ResultMapping.Builder(configuration, "name", "name", registry.getTypeHandler(String.class)).build());
+    return new ResultMap.Builder(configuration, "testMap", HashMap.class, mappings).build();
+  }
+
+}
@@ -17,17 +17,24 @@ package org.apache.ibatis.jdbc;
 
 import static org.junit.Assert.*;
 
+import java.lang.management.ManagementFactory;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.TimeUnit;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.datasource.pooled.PoolMetrics;
 import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.session.Deadline;
 import org.hsqldb.jdbc.JDBCConnection;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -75,6 +82,77 @@ public class PooledDataSourceTest extends BaseDataTest {
     }
   }
 
+  @Test
+  public void shouldRecordCheckoutWaitAndUsageTimes() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolMaximumActiveConnections(1);
+      ds.setPoolTimeToWait(50);
+      ds.setPoolMaximumCheckoutTime(100000);
+      final Connection connection = ds.getConnection();
+      assertEquals(1, ds.getPoolMetrics().getActiveConnections());
+      Thread releaser = new Thread() {
+        @Override
+        public void run() {
+          try {
+            Thread.sleep(120);
+            connection.close();
+          } catch (Exception e) {
+            // the waiting caller fails the test
+          }
+        }
+      };
+      releaser.start();
+      Connection next = ds.getConnection();
+      releaser.join();
+      next.close();
+      PoolMetrics metrics = ds.getPoolMetrics();
+      assertEquals(2, metrics.getCheckoutWaitTime().getCount());
+      assertTrue(metrics.getMaxCheckoutWaitTime() >= 100);
+      assertTrue(metrics.getWaitTimeoutCount() >= 1);
+      assertEquals(2, metrics.getUsageTime().getCount());
+      assertTrue(metrics.getMaxUsageTime() >= 100);
+      assertEquals(0, metrics.getActiveConnections());
+      assertEquals(1, metrics.getIdleConnections());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  public void shouldRegisterPoolMetricsInJmx() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName("org.apache.ibatis:type=PooledDataSource,name=\"jpetstore\"");
+    ds.setPoolJmxName("jpetstore");
+    try {
+      ds.getConnection().close();
+      assertEquals(1L, server.getAttribute(name, "RequestCount"));
+      assertEquals(1, server.getAttribute(name, "IdleConnections"));
+    } finally {
+      ds.setPoolJmxName(null);
+      ds.forceCloseAll();
+    }
+    assertFalse(server.isRegistered(name));
+  }
+
+  @Test
+  public void shouldUnregisterPoolMetricsWhenClosed() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName("org.apache.ibatis:type=PooledDataSource,name=\"jpetstore-closed\"");
+    ds.setPoolJmxName("jpetstore-closed");
+    try {
+      ds.setPoolMaximumIdleConnections(2);
+      ds.getConnection().close();
+      assertTrue(server.isRegistered(name));
+    } finally {
+      ds.close();
+    }
+    assertFalse(server.isRegistered(name));
+    assertEquals(0, ds.getPoolState().getIdleConnectionCount());
+  }
+
   @Test
   public void shouldNotFailCallingToStringOverAnInvalidConnection() throws Exception {
     PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
@@ -90,6 +168,28 @@ public class PooledDataSourceTest extends BaseDataTest {
     JDBCConnection realConnection = (JDBCConnection) PooledDataSource.unwrapConnection(c);
   }
 
+  @Test
+  public void shouldNotWaitForAConnectionBeyondTheDeadline() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    ds.setPoolMaximumActiveConnections(1);
+    ds.setPoolMaximumCheckoutTime(60000);
+    ds.setPoolTimeToWait(60000);
+    Connection connection = ds.getConnection();
+    Deadline previous = Deadline.bind(Deadline.after(100, TimeUnit.MILLISECONDS));
+    long start = System.nanoTime();
+    try {
+      ds.getConnection();
+      fail("Should have timed out");
+    } catch (SQLTimeoutException e) {
+      assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 10000);
+      assertEquals(1, ds.getPoolMetrics().getWaitTimeoutCount());
+    } finally {
+      Deadline.bind(previous);
+      connection.close();
+      ds.forceCloseAll();
+    }
+  }
+
   @Ignore("See the comments")
   @Test
   public void shouldReconnectWhenServerKilledLeakedConnection() throws Exception {
@@ -25,6 +25,8 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.sql.Array;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.when;
 
@@ -57,4 +59,27 @@ public class BaseJdbcLoggerTest {
     assertThat(logger.getParameterValueString(),
         StringStartsWith.startsWith("[one, two, three]"));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldReuseParameterBufferAfterClear() throws Exception {
+    for (int i = 1; i <= 20; i++) {
+      logger.setColumn(i, i);
+    }
+    assertEquals(Integer.valueOf(20), logger.getColumn(20));
+    logger.clearColumnInfo();
+    assertNull(logger.getColumn(20));
+    logger.setColumn(1, "a");
+    logger.setColumn(2, null);
+    logger.setColumn(1, "b");
+    assertEquals("b", logger.getColumn(1));
+    assertEquals("a(String), null, b(String)", logger.getParameterValueString());
+    assertEquals("[1, 2, 1]", logger.getColumnString());
+  }
+
+  @Test
+  public void shouldRemoveBreakingWhitespace() throws Exception {
+    assertEquals("select * from blog where id = ? ",
+        logger.removeBreakingWhitespace("\n  select *\r\n\tfrom blog\f  where id = ?  \n"));
+    assertEquals("", logger.removeBreakingWhitespace(" \n "));
+  }
+}
@@ -0,0 +1,53 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.mapping;
+
+import static org.junit.Assert.assertSame;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.IntegerTypeHandler;
+import org.apache.ibatis.type.ObjectTypeHandler;
+import org.apache.ibatis.type.StringTypeHandler;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.junit.Test;
+
+public class ParameterMappingTest {
+
+  @Test
+  public void shouldResolveTypeHandlerOfUnknownMappingsPerValueClass() {
+    Configuration configuration = new Configuration();
+    TypeHandlerRegistry registry = configuration.getTypeHandlerRegistry();
+    ParameterMapping mapping = new ParameterMapping.Builder(configuration, "value", Object.class).build();
+    assertSame(registry.getUnknownTypeHandler(), mapping.getTypeHandler());
+    assertSame(registry.getUnknownTypeHandler(), mapping.getTypeHandler(null));
+
+    TypeHandler<?> integerHandler = mapping.getTypeHandler(1);
+    assertSame(IntegerTypeHandler.class, integerHandler.getClass());
+    assertSame(integerHandler, mapping.getTypeHandler(2));
+    assertSame(StringTypeHandler.class, mapping.getTypeHandler("a").getClass());
+    assertSame(ObjectTypeHandler.class, mapping.getTypeHandler(new Object()).getClass());
+    assertSame(integerHandler, mapping.getTypeHandler(3));
+  }
+
+  @Test
+  public void shouldKeepKnownTypeHandlers() {
+    Configuration configuration = new Configuration();
+    ParameterMapping mapping = new ParameterMapping.Builder(configuration, "value", String.class).build();
+    assertSame(mapping.getTypeHandler(), mapping.getTypeHandler(1));
+  }
+
+}
@@ -0,0 +1,114 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class HistogramMetricsCollectorTest extends BaseDataTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private HistogramMetricsCollector metricsCollector;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    createBlogDataSource();
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/builder/MapperConfig.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+  }
+
+  @Before
+  public void setUpCollector() {
+    metricsCollector = new HistogramMetricsCollector();
+    sqlSessionFactory.getConfiguration().setMetricsCollector(metricsCollector);
+  }
+
+  @Test
+  public void shouldRecordThePhasesOfAQuery() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Object> authors = sqlSession.selectList("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAllAuthors");
+      StatementStatistics statistics = metricsCollector.getStatistics("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAllAuthors");
+      for (StatementPhase phase : StatementPhase.values()) {
+        assertEquals(phase.name(), 1, statistics.getPhase(phase).getCount());
+      }
+      assertEquals(1, statistics.getRows().getCount());
+      assertEquals(authors.size(), statistics.getRows().getMax());
+      assertEquals(0, statistics.getCacheHits() + statistics.getCacheMisses());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldRecordSecondLevelCacheHitsAndMisses() {
+    String statementId = "org.apache.ibatis.builder.CachedAuthorMapper.selectAuthorWithInlineParams";
+    for (int i = 0; i < 3; i++) {
+      SqlSession sqlSession = sqlSessionFactory.openSession();
+      try {
+        sqlSession.selectOne(statementId, 101);
+      } finally {
+        sqlSession.close();
+      }
+    }
+    StatementStatistics statistics = metricsCollector.getStatistics(statementId);
+    assertTrue(statistics.getCacheMisses() <= 1);
+    assertEquals(3, statistics.getCacheHits() + statistics.getCacheMisses());
+    assertEquals(statistics.getCacheMisses(), statistics.getPhase(StatementPhase.EXECUTION).getCount());
+  }
+
+  @Test
+  public void shouldRecordUpdates() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      sqlSession.delete("org.apache.ibatis.domain.blog.mappers.AuthorMapper.deleteAuthor", -1);
+      StatementStatistics statistics = metricsCollector.getStatistics("org.apache.ibatis.domain.blog.mappers.AuthorMapper.deleteAuthor");
+      assertEquals(1, statistics.getPhase(StatementPhase.EXECUTION).getCount());
+      assertEquals(1, statistics.getPhase(StatementPhase.PARAMETER_SETTING).getCount());
+      assertEquals(0, statistics.getPhase(StatementPhase.RESULT_MAPPING).getCount());
+    } finally {
+      sqlSession.rollback();
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldNotRecordWithoutCollector() {
+    sqlSessionFactory.getConfiguration().setMetricsCollector(null);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      sqlSession.selectList("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAllAuthors");
+    } finally {
+      sqlSession.close();
+    }
+    assertNull(metricsCollector.getStatistics("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAllAuthors"));
+  }
+
+}
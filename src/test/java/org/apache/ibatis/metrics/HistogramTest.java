@@ -0,0 +1,67 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+  @Test
+  public void shouldMapValuesToBucketsContainingThem() {
+    long[] values = {0, 1, 3, 4, 5, 7, 8, 9, 100, 1000, 123456789L, Long.MAX_VALUE};
+    for (long value : values) {
+      int index = Histogram.bucketIndex(value);
+      assertTrue(value + " above its bucket", value <= Histogram.bucketUpperBound(index));
+      if (index > 0) {
+        assertTrue(value + " below its bucket", value > Histogram.bucketUpperBound(index - 1));
+      }
+    }
+  }
+
+  @Test
+  public void shouldReportPercentilesWithinTheBucketError() {
+    Histogram histogram = new Histogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i);
+    }
+    assertEquals(1000, histogram.getCount());
+    assertEquals(500500, histogram.getSum());
+    assertEquals(1000, histogram.getMax());
+    assertEquals(500.5, histogram.getMean(), 0.001);
+    long median = histogram.getValueAtPercentile(50);
+    assertTrue(median >= 500 && median < 625);
+    assertEquals(1000, histogram.getValueAtPercentile(100));
+    assertEquals(1, histogram.getValueAtPercentile(0));
+  }
+
+  @Test
+  public void shouldBeEmptyAfterReset() {
+    Histogram histogram = new Histogram();
+    histogram.record(42);
+    histogram.reset();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getValueAtPercentile(99));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectInvalidPercentiles() {
+    new Histogram().getValueAtPercentile(101);
+  }
+
+}
@@ -0,0 +1,140 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SlowStatementDetectorTest extends BaseDataTest {
+
+  private static final String NAMESPACE = "org.apache.ibatis.domain.blog.mappers.AuthorMapper.";
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    createBlogDataSource();
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/builder/MapperConfig.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+  }
+
+  @After
+  public void disableDetection() {
+    sqlSessionFactory.getConfiguration().setSlowStatementThreshold(null);
+    sqlSessionFactory.getConfiguration().setMetricsCollector(null);
+  }
+
+  @Test
+  public void shouldRecordSlowQueriesWithTheirParameters() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setSlowStatementThreshold(0);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      sqlSession.selectOne(NAMESPACE + "selectAuthor", 101);
+    } finally {
+      sqlSession.close();
+    }
+    List<SlowStatement> slowStatements = configuration.getSlowStatementDetector().getRecentSlowStatements();
+    assertEquals(1, slowStatements.size());
+    SlowStatement slowStatement = slowStatements.get(0);
+    assertEquals(NAMESPACE + "selectAuthor", slowStatement.getId());
+    assertEquals(Arrays.<Object>asList(101), slowStatement.getParameters());
+    assertEquals(1, slowStatement.getRows());
+    assertTrue(slowStatement.getSql().contains("where id = ?"));
+    assertTrue(slowStatement.getPhaseNanos(StatementPhase.EXECUTION) > 0);
+    assertTrue(slowStatement.getElapsedNanos() >= slowStatement.getPhaseNanos(StatementPhase.EXECUTION));
+    assertTrue(slowStatement.toString().contains("Parameters: [101]"));
+  }
+
+  @Test
+  public void shouldRecordSlowUpdatesWithTheirRowCount() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setSlowStatementThreshold(0);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      sqlSession.delete(NAMESPACE + "deleteAuthor", -1);
+    } finally {
+      sqlSession.rollback();
+      sqlSession.close();
+    }
+    SlowStatement slowStatement = configuration.getSlowStatementDetector().getRecentSlowStatements().get(0);
+    assertEquals(NAMESPACE + "deleteAuthor", slowStatement.getId());
+    assertEquals(0, slowStatement.getRows());
+    assertEquals(Arrays.<Object>asList(-1), slowStatement.getParameters());
+  }
+
+  @Test
+  public void shouldRecordTheExecutedSqlRatherThanRebuildIt() {
+    SlowStatementDetector detector = new SlowStatementDetector(0, null);
+    MappedStatement ms = sqlSessionFactory.getConfiguration().getMappedStatement(NAMESPACE + "deleteAuthor");
+    SlowStatementDetector.Execution execution = detector.begin();
+    detector.recordBoundSql(ms.getBoundSql(101));
+    detector.end(execution, ms, 102, null, 1);
+    assertEquals(Arrays.<Object>asList(101), detector.getRecentSlowStatements().get(0).getParameters());
+  }
+
+  @Test
+  public void shouldIgnoreFastStatementsAndForwardPhases() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    HistogramMetricsCollector metricsCollector = new HistogramMetricsCollector();
+    configuration.setMetricsCollector(metricsCollector);
+    configuration.setSlowStatementThreshold(60000);
+    SlowStatementDetector detector = configuration.getSlowStatementDetector();
+    assertSame(detector, configuration.getMetricsCollector());
+    assertSame(metricsCollector, detector.getDelegate());
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      sqlSession.selectList(NAMESPACE + "selectAllAuthors");
+    } finally {
+      sqlSession.close();
+    }
+    assertEquals(0, detector.getSlowStatementCount());
+    assertNotNull(metricsCollector.getStatistics(NAMESPACE + "selectAllAuthors"));
+  }
+
+  @Test
+  public void shouldKeepTheMostRecentSlowStatements() {
+    SlowStatementDetector detector = new SlowStatementDetector(0, null, 2);
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    for (int i = 0; i < 3; i++) {
+      detector.end(detector.begin(), configuration.getMappedStatement(NAMESPACE + "selectAuthor"), 100 + i, null, 1);
+    }
+    List<SlowStatement> slowStatements = detector.getRecentSlowStatements();
+    assertEquals(3, detector.getSlowStatementCount());
+    assertEquals(2, slowStatements.size());
+    assertEquals(Arrays.<Object>asList(101), slowStatements.get(0).getParameters());
+    assertEquals(Arrays.<Object>asList(102), slowStatements.get(1).getParameters());
+  }
+
+}
@@ -17,8 +17,12 @@ package org.apache.ibatis.plugin;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import org.junit.Test;
 
+import java.lang.reflect.Proxy;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
@@ -39,6 +43,69 @@ public class PluginTest {
     assertFalse("Always".equals(map.toString()));
   }
 
+  @Test
+  public void pipelineShouldCallInterceptorsInTheSameOrderAsNestedProxies() {
+    InterceptorChain nested = new InterceptorChain();
+    InterceptorChain pipeline = new InterceptorChain();
+    pipeline.setPipelineEnabled(true);
+    for (String name : new String[] { "A", "B", "C" }) {
+      nested.addInterceptor(new AppendingMapPlugin(name));
+      pipeline.addInterceptor(new AppendingMapPlugin(name));
+    }
+    Map map = new HashMap();
+    map.put("key", "value");
+    Map nestedMap = (Map) nested.pluginAll(map);
+    Map pipelineMap = (Map) pipeline.pluginAll(map);
+    assertEquals("valueABC", nestedMap.get("key"));
+    assertEquals(nestedMap.get("key"), pipelineMap.get("key"));
+    assertEquals(1, pipelineMap.size());
+  }
+
+  @Test
+  public void pipelineShouldWrapWithASingleProxy() {
+    InterceptorChain pipeline = new InterceptorChain();
+    pipeline.setPipelineEnabled(true);
+    pipeline.addInterceptor(new AlwaysMapPlugin());
+    pipeline.addInterceptor(new AppendingMapPlugin("A"));
+    Map map = (Map) pipeline.pluginAll(new HashMap());
+    assertTrue(Proxy.isProxyClass(map.getClass()));
+    assertEquals("AlwaysA", map.get("Anything"));
+    assertFalse("Always".equals(map.toString()));
+  }
+
+  @Test
+  public void pipelineShouldNotWrapTargetsWithoutInterceptedInterfaces() {
+    InterceptorChain pipeline = new InterceptorChain();
+    pipeline.setPipelineEnabled(true);
+    pipeline.addInterceptor(new AlwaysMapPlugin());
+    Object target = new Object();
+    assertSame(target, pipeline.pluginAll(target));
+  }
+
+  @Intercepts({
+      @Signature(type = Map.class, method = "get", args = {Object.class})})
+  public static class AppendingMapPlugin implements Interceptor {
+    private final String suffix;
+
+    public AppendingMapPlugin(String suffix) {
+      this.suffix = suffix;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      return invocation.proceed() + suffix;
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+  }
+
   @Intercepts({
       @Signature(type = Map.class, method = "get", args = {Object.class})})
   public static class AlwaysMapPlugin implements Interceptor {
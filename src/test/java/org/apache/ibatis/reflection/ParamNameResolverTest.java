@@ -0,0 +1,128 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.Test;
+
+public class ParamNameResolverTest {
+
+  interface Mapper {
+    void select(@Param("id") int id, RowBounds rowBounds, @Param("param1") String name, String title);
+  }
+
+  private ParamNameResolver resolver() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setUseActualParamName(false);
+    Method method = Mapper.class.getMethod("select", int.class, RowBounds.class, String.class, String.class);
+    return new ParamNameResolver(configuration, method);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> namedParams(ParamNameResolver resolver) {
+    return (Map<String, Object>) resolver.getNamedParams(new Object[] { 1, RowBounds.DEFAULT, "jim", "business" });
+  }
+
+  @Test
+  public void shouldNameParametersAndAddGenericNames() throws Exception {
+    Map<String, Object> params = namedParams(resolver());
+    assertTrue(params instanceof ParamMap);
+    assertEquals(5, params.size());
+    assertEquals("jim", params.get("param2"));
+    Map<String, Object> expected = new HashMap<String, Object>();
+    expected.put("id", 1);
+    expected.put("param1", "jim");
+    expected.put("param2", "jim");
+    expected.put("2", "business");
+    expected.put("param3", "business");
+    assertEquals(expected, params);
+    assertFalse(params.containsKey("param4"));
+  }
+
+  @Test
+  public void shouldFailOnUnknownParameter() throws Exception {
+    Map<String, Object> params = namedParams(resolver());
+    try {
+      params.get("unknown");
+      fail("Unknown parameter should not be found");
+    } catch (BindingException e) {
+      assertTrue(e.getMessage().contains("Parameter 'unknown' not found"));
+    }
+  }
+
+  @Test
+  public void shouldCreateIndependentMapsPerCall() throws Exception {
+    ParamNameResolver resolver = resolver();
+    Map<String, Object> params = namedParams(resolver);
+    assertEquals(1, params.remove("id"));
+    params.put("offset", 10);
+    assertFalse(params.containsKey("id"));
+    Map<String, Object> otherParams = namedParams(resolver);
+    assertEquals(1, otherParams.get("id"));
+    assertFalse(otherParams.containsKey("offset"));
+  }
+
+  @Test
+  public void shouldReadAndWriteParametersByIndex() throws Exception {
+    IndexedParamMap params = (IndexedParamMap) namedParams(resolver());
+    int index = params.indexOf("param3");
+    assertEquals("business", params.getValue(index));
+    assertEquals(-1, params.indexOf("unknown"));
+
+    MetaObject metaObject = SystemMetaObject.forObject(params);
+    assertTrue(metaObject.hasGetter("id"));
+    metaObject.setValue("param3", "pleasure");
+    assertEquals("pleasure", params.get("param3"));
+    assertEquals("business", metaObject.getValue("2"));
+    assertEquals(index, params.indexOf("param3"));
+
+    params.put("offset", 10);
+    assertEquals(-1, params.indexOf("param3"));
+    assertEquals("pleasure", metaObject.getValue("param3"));
+    assertEquals(10, metaObject.getValue("offset"));
+    assertEquals(6, params.size());
+  }
+
+  @Test
+  public void shouldSerializeTheParameters() throws Exception {
+    Map<String, Object> params = namedParams(resolver());
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(params);
+    out.close();
+    Object copy = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+    assertEquals(params, copy);
+    assertEquals("jim", ((Map<?, ?>) copy).get("param1"));
+  }
+
+}
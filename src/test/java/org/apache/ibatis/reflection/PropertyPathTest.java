@@ -0,0 +1,147 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.domain.misc.RichType;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
+import org.junit.Test;
+
+public class PropertyPathTest {
+
+  private final ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+  private final ObjectFactory objectFactory = new DefaultObjectFactory();
+  private final ObjectWrapperFactory objectWrapperFactory = new DefaultObjectWrapperFactory();
+
+  @Test
+  public void shouldCachePathsPerClass() {
+    MetaClass meta = MetaClass.forClass(RichType.class, reflectorFactory);
+    PropertyPath path = meta.getPropertyPath("richType.richProperty");
+    assertSame(path, meta.getPropertyPath("richType.richProperty"));
+    assertSame(path, MetaClass.forClass(RichType.class, reflectorFactory).getPropertyPath("richType.richProperty"));
+    assertEquals("richType.richProperty", path.getExpression());
+  }
+
+  @Test
+  public void shouldSetAndGetNestedPropertiesInstantiatingIntermediates() {
+    RichType rich = new RichType();
+    PropertyPath path = MetaClass.forClass(RichType.class, reflectorFactory).getPropertyPath("richType.richType.richField");
+    path.setValue(rich, "foo", objectFactory, objectWrapperFactory);
+    assertEquals("foo", path.getValue(rich, objectFactory, objectWrapperFactory));
+    assertEquals("foo", SystemMetaObject.forObject(rich).getValue("richType.richType.richField"));
+  }
+
+  @Test
+  public void shouldNotInstantiateIntermediatesForNullValues() {
+    RichType rich = new RichType();
+    PropertyPath path = MetaClass.forClass(RichType.class, reflectorFactory).getPropertyPath("richType.richField");
+    path.setValue(rich, null, objectFactory, objectWrapperFactory);
+    assertNull(rich.getRichType());
+    assertNull(path.getValue(rich, objectFactory, objectWrapperFactory));
+  }
+
+  @Test
+  public void shouldAccessIndexedProperties() {
+    RichType rich = new RichType();
+    MetaClass meta = MetaClass.forClass(RichType.class, reflectorFactory);
+    assertEquals("bar", meta.getPropertyPath("richList[0]").getValue(rich, objectFactory, objectWrapperFactory));
+    meta.getPropertyPath("richList[0]").setValue(rich, "baz", objectFactory, objectWrapperFactory);
+    assertEquals("baz", rich.getRichList().get(0));
+    meta.getPropertyPath("richMap[key]").setValue(rich, "value", objectFactory, objectWrapperFactory);
+    assertEquals("value", meta.getPropertyPath("richMap.key").getValue(rich, objectFactory, objectWrapperFactory));
+    assertEquals("value", rich.getRichMap().get("key"));
+  }
+
+  @Test
+  public void shouldAccessArrayElements() {
+    Object[] array = new Object[] { "a", "b" };
+    PropertyPath path = PropertyPath.compile("[1]", reflectorFactory);
+    assertEquals("b", path.getValue(array, objectFactory, objectWrapperFactory));
+    path.setValue(array, "c", objectFactory, objectWrapperFactory);
+    assertEquals("c", array[1]);
+  }
+
+  @Test
+  public void shouldAccessMapsAndFollowRuntimeTypes() {
+    Map<String, Object> map = new HashMap<String, Object>();
+    PropertyPath path = PropertyPath.compile("bean.richProperty", reflectorFactory);
+    path.setValue(map, "foo", objectFactory, objectWrapperFactory);
+    assertEquals("foo", ((Map<?, ?>) map.get("bean")).get("richProperty"));
+    RichType rich = new RichType();
+    map.put("bean", rich);
+    path.setValue(map, "bar", objectFactory, objectWrapperFactory);
+    assertEquals("bar", rich.getRichProperty());
+    assertEquals("bar", path.getValue(map, objectFactory, objectWrapperFactory));
+  }
+
+  @Test
+  public void shouldBoundTheCachedPaths() {
+    MetaClass meta = MetaClass.forClass(FailingBean.class, reflectorFactory);
+    for (int i = 0; i < Reflector.MAX_CACHED_PROPERTY_PATHS; i++) {
+      meta.getPropertyPath("values.key" + i);
+    }
+    assertSame(meta.getPropertyPath("values.key0"), meta.getPropertyPath("values.key0"));
+    PropertyPath path = meta.getPropertyPath("values.other");
+    assertNotSame(path, meta.getPropertyPath("values.other"));
+    assertEquals("values.other", path.getExpression());
+  }
+
+  @Test
+  public void shouldWrapTheExceptionsOfGetters() {
+    PropertyPath path = MetaClass.forClass(FailingBean.class, reflectorFactory).getPropertyPath("failing");
+    try {
+      path.getValue(new FailingBean(), objectFactory, objectWrapperFactory);
+      fail("Should have failed");
+    } catch (ReflectionException e) {
+      assertTrue(e.getMessage().contains("Could not get property 'failing'"));
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  @Test(expected = ReflectionException.class)
+  public void shouldFailForUnknownProperties() {
+    PropertyPath path = MetaClass.forClass(RichType.class, reflectorFactory).getPropertyPath("richType.unknown");
+    RichType rich = new RichType();
+    rich.setRichType(new RichType());
+    path.getValue(rich, objectFactory, objectWrapperFactory);
+  }
+
+  public static class FailingBean {
+
+    private Map<String, Object> values = new HashMap<String, Object>();
+
+    public Map<String, Object> getValues() {
+      return values;
+    }
+
+    public String getFailing() {
+      throw new IllegalStateException("failing getter");
+    }
+  }
+
+}
@@ -25,6 +25,7 @@ import java.util.List;
 import org.apache.ibatis.builder.StaticSqlSource;
 import org.apache.ibatis.mapping.*;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.IntegerTypeHandler;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeException;
 import org.apache.ibatis.type.TypeHandler;
@@ -37,6 +38,7 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyObject;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -71,6 +73,25 @@ public class DefaultParameterHandlerTest {
 
   }
 
+  @Test
+  public void shouldCallTheOverriddenMethodsOfBuiltInHandlerSubclasses() throws SQLException {
+    final MappedStatement mappedStatement = getMappedStatement();
+    final BoundSql boundSql = mock(BoundSql.class);
+    TypeHandler<Integer> typeHandler = new IntegerTypeHandler() {
+      @Override
+      public void setNonNullParameter(PreparedStatement ps, int i, Integer parameter, JdbcType jdbcType) throws SQLException {
+        ps.setInt(i, parameter * 10);
+      }
+    };
+    ParameterMapping parameterMapping = new ParameterMapping.Builder(mappedStatement.getConfiguration(), "prop", typeHandler).build();
+    when(boundSql.getParameterMappings()).thenReturn(Collections.singletonList(parameterMapping));
+
+    DefaultParameterHandler defaultParameterHandler = new DefaultParameterHandler(mappedStatement, 5, boundSql);
+    PreparedStatement ps = mock(PreparedStatement.class);
+    defaultParameterHandler.setParameters(ps);
+    verify(ps).setInt(1, 50);
+  }
+
   MappedStatement getMappedStatement() {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
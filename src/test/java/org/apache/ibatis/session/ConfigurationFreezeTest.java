@@ -0,0 +1,195 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.io.Resources;
+import org.junit.Test;
+
+public class ConfigurationFreezeTest {
+
+  public interface LateMapper {
+  }
+
+  @Test
+  public void shouldKeepFullAndShortNamesWhenFrozen() {
+    Configuration.StrictMap<String> map = new Configuration.StrictMap<String>("Test collection");
+    map.put("ns.one", "first");
+    map.put("ns.two", "second");
+    map.put("other.two", "third");
+    map.freeze();
+    assertTrue(map.isFrozen());
+    assertEquals("first", map.get("ns.one"));
+    assertEquals("first", map.get("one"));
+    assertEquals("third", map.get("other.two"));
+    assertTrue(map.containsKey("two"));
+    assertFalse(map.containsKey("three"));
+    try {
+      map.get("two");
+      fail("Short name shared by two entries should be ambiguous");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("is ambiguous in Test collection"));
+    }
+    try {
+      map.get("three");
+      fail("Missing entry should not be found");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("does not contain value for three"));
+    }
+  }
+
+  @Test
+  public void shouldAcceptEntriesAfterFreeze() {
+    Configuration.StrictMap<String> map = new Configuration.StrictMap<String>("Test collection");
+    map.put("ns.one", "first");
+    map.freeze();
+    map.put("ns.three", "third");
+    assertFalse(map.isFrozen());
+    assertEquals("third", map.get("three"));
+    try {
+      map.put("ns.one", "again");
+      fail("Duplicated key should be rejected");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("already contains value for ns.one"));
+    }
+  }
+
+  @Test
+  public void shouldServeAllTheEntriesOfAFrozenMap() throws Exception {
+    Configuration.StrictMap<String> map = frozenMap();
+    assertEquals(3, map.size());
+    assertFalse(map.isEmpty());
+    assertEquals("first", map.getOrDefault("ns.one", "none"));
+    assertEquals("none", map.getOrDefault("ns.three", "none"));
+    assertTrue(map.isFrozen());
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(map);
+    out.close();
+    Map<?, ?> copy = (Map<?, ?>) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+    assertEquals(map, copy);
+    assertEquals("second", copy.get("ns.two"));
+
+    map = frozenMap();
+    assertEquals(new HashSet<String>(Arrays.asList("ns.one", "one", "ns.two")), map.keySet());
+    assertFalse(map.isFrozen());
+    assertEquals("second", map.get("ns.two"));
+  }
+
+  @Test
+  public void shouldThawOnEveryChange() {
+    Configuration.StrictMap<String> map = frozenMap();
+    assertNull(map.putIfAbsent("ns.three", "third"));
+    assertFalse(map.isFrozen());
+    assertEquals("third", map.get("ns.three"));
+
+    map = frozenMap();
+    map.replace("ns.one", "replaced");
+    assertEquals("replaced", map.get("ns.one"));
+
+    map = frozenMap();
+    map.merge("ns.two", "!", new BiFunction<String, String, String>() {
+      @Override
+      public String apply(String value, String suffix) {
+        return value + suffix;
+      }
+    });
+    assertEquals("second!", map.get("ns.two"));
+
+    map = frozenMap();
+    map.keySet().remove("ns.two");
+    assertFalse(map.containsKey("ns.two"));
+
+    map = frozenMap();
+    map.values().remove("first");
+    assertEquals(2, map.size());
+  }
+
+  private Configuration.StrictMap<String> frozenMap() {
+    Configuration.StrictMap<String> map = new Configuration.StrictMap<String>("Test collection");
+    map.put("ns.one", "first");
+    map.put("ns.two", "second");
+    map.remove("two");
+    map.freeze();
+    return map;
+  }
+
+  @Test
+  public void shouldLookUpFrozenEntries() {
+    Map<Object, Object> map = new HashMap<Object, Object>();
+    for (int i = 0; i < 100; i++) {
+      map.put("key" + i, i);
+    }
+    map.put("nothing", null);
+    FrozenLookup<Object, Object> lookup = new FrozenLookup<Object, Object>(map);
+    assertEquals(101, lookup.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, lookup.get("key" + i));
+    }
+    assertNull(lookup.get("nothing"));
+    assertTrue(lookup.containsKey("nothing"));
+    assertFalse(lookup.containsKey("key100"));
+    assertFalse(lookup.containsKey(null));
+    assertEquals(0, new FrozenLookup<Object, Object>(new HashMap<Object, Object>()).size());
+  }
+
+  @Test
+  public void shouldFreezeConfigurationBuiltByTheBuilder() throws Exception {
+    BaseDataTest.createBlogDataSource();
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/builder/MapperConfig.xml");
+    SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    assertTrue(((Configuration.StrictMap<?>) configuration.mappedStatements).isFrozen());
+    assertNotNull(configuration.getMappedStatement("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAllAuthors"));
+    assertSame(Author.class, configuration.getTypeAliasRegistry().resolveAlias("author"));
+    assertSame(String.class, configuration.getTypeAliasRegistry().resolveAlias("java.lang.String"));
+
+    configuration.getTypeAliasRegistry().registerAlias("late", LateMapper.class);
+    assertSame(LateMapper.class, configuration.getTypeAliasRegistry().resolveAlias("late"));
+    assertFalse(configuration.hasMapper(LateMapper.class));
+    configuration.addMapper(LateMapper.class);
+    assertTrue(configuration.hasMapper(LateMapper.class));
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      assertNotNull(session.getMapper(LateMapper.class));
+    } finally {
+      session.close();
+    }
+  }
+
+}
@@ -0,0 +1,119 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.DeadlineExceededException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class DeadlineTest extends BaseDataTest {
+
+  private static final String SELECT_ALL_AUTHORS = "org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAllAuthors";
+  private static final String SELECT_AUTHOR = "org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthor";
+  private static final String INSERT_AUTHOR = "org.apache.ibatis.domain.blog.mappers.AuthorMapper.insertAuthor";
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    createBlogDataSource();
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/builder/MapperConfig.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+  }
+
+  @Test
+  public void shouldRoundTheRemainingSecondsUp() {
+    assertEquals(1, Deadline.after(10, TimeUnit.MILLISECONDS).getRemainingSeconds());
+    assertEquals(3, Deadline.after(2500, TimeUnit.MILLISECONDS).getRemainingSeconds());
+    assertEquals(1, Deadline.after(-1, TimeUnit.SECONDS).getRemainingSeconds());
+    assertTrue(Deadline.after(-1, TimeUnit.SECONDS).isExpired());
+    assertEquals(0, Deadline.after(-1, TimeUnit.SECONDS).getRemaining(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void shouldExecuteCallsBeforeTheDeadline() {
+    DefaultSqlSession sqlSession = (DefaultSqlSession) sqlSessionFactory.openSession();
+    try {
+      Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+      sqlSession.setDeadline(deadline);
+      assertSame(deadline, sqlSession.getDeadline());
+      List<Object> authors = sqlSession.selectList(SELECT_ALL_AUTHORS);
+      assertFalse(authors.isEmpty());
+      assertNull(Deadline.current());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldFailCallsAfterTheDeadline() {
+    DefaultSqlSession sqlSession = (DefaultSqlSession) sqlSessionFactory.openSession();
+    try {
+      sqlSession.setDeadline(Deadline.after(-1, TimeUnit.MILLISECONDS));
+      try {
+        sqlSession.selectList(SELECT_ALL_AUTHORS);
+        fail("Should have failed");
+      } catch (PersistenceException e) {
+        assertTrue(e.getCause() instanceof DeadlineExceededException);
+      }
+      assertNull(Deadline.current());
+      sqlSession.setDeadline(null);
+      assertFalse(sqlSession.selectList(SELECT_ALL_AUTHORS).isEmpty());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldApplyTheDeadlineToTheBatchFlushedOnCommit() {
+    DefaultSqlSession sqlSession = (DefaultSqlSession) sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      sqlSession.setDeadline(Deadline.after(1, TimeUnit.MINUTES));
+      sqlSession.insert(INSERT_AUTHOR, new Author(600, "deadline", "******", "deadline@somewhere.com", "Something...", null));
+      sqlSession.setDeadline(Deadline.after(-1, TimeUnit.MILLISECONDS));
+      try {
+        sqlSession.commit();
+        fail("Should have failed");
+      } catch (PersistenceException e) {
+        assertTrue(e.getCause() instanceof DeadlineExceededException);
+      }
+      assertNull(Deadline.current());
+      sqlSession.rollback(true);
+      sqlSession.setDeadline(null);
+      assertNull(sqlSession.selectOne(SELECT_AUTHOR, new Author(600)));
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+}
@@ -0,0 +1,161 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_fetch;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.cursor.Cursor;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BatchFetchTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_fetch/mybatis-config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    // populate in-memory database
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_fetch/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldLoadNestedSelectsInBatches() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      StatementCounter.reset();
+      List<Blog> blogs = mapper.getBlogs();
+      // one query for the blogs, one for the authors and three for the posts of five blogs in batches of two
+      Assert.assertEquals(5, StatementCounter.getCount());
+      Assert.assertEquals(5, blogs.size());
+
+      Assert.assertEquals("Author1", blogs.get(0).getAuthor().getName());
+      Assert.assertEquals("Author2", blogs.get(1).getAuthor().getName());
+      Assert.assertEquals("Author1", blogs.get(2).getAuthor().getName());
+      Assert.assertSame(blogs.get(0).getAuthor(), blogs.get(2).getAuthor());
+      Assert.assertNull(blogs.get(4).getAuthor());
+
+      Assert.assertEquals(2, blogs.get(0).getPosts().size());
+      Assert.assertEquals("Post1", blogs.get(0).getPosts().get(0).getSubject());
+      Assert.assertEquals("Post2", blogs.get(0).getPosts().get(1).getSubject());
+      Assert.assertEquals(1, blogs.get(1).getPosts().size());
+      Assert.assertEquals("Post3", blogs.get(1).getPosts().get(0).getSubject());
+      Assert.assertEquals(1, blogs.get(2).getPosts().size());
+      Assert.assertEquals(2, blogs.get(3).getPosts().size());
+      Assert.assertTrue(blogs.get(4).getPosts().isEmpty());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldRunBatchFetchesThroughTheExecutorAndItsLocalCache() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.getBlogs();
+      StatementCounter.reset();
+      List<Blog> blogs = mapper.getLazyBlogs();
+      Assert.assertEquals(1, StatementCounter.getCount());
+      // the posts of the first two blogs were fetched with the same keys by the eager select
+      Assert.assertEquals(2, blogs.get(0).getPosts().size());
+      Assert.assertEquals("Post3", blogs.get(1).getPosts().get(0).getSubject());
+      Assert.assertEquals(1, StatementCounter.getCount());
+      // a regular call with the same keys does not get the cached rows of the batch
+      List<Object> keys = new ArrayList<Object>();
+      keys.add(1);
+      keys.add(2);
+      List<Post> posts = sqlSession.selectList("org.apache.ibatis.submitted.batch_fetch.Mapper.getPosts", keys);
+      Assert.assertEquals(3, posts.size());
+      Assert.assertEquals("Post1", posts.get(0).getSubject());
+      Assert.assertEquals(2, StatementCounter.getCount());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldLoadLazyPropertiesOfSiblingsInBatches() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      StatementCounter.reset();
+      List<Blog> blogs = mapper.getLazyBlogs();
+      Assert.assertEquals(1, StatementCounter.getCount());
+
+      // loads the posts of the first two blogs
+      Assert.assertEquals(2, blogs.get(0).getPosts().size());
+      Assert.assertEquals(2, StatementCounter.getCount());
+      Assert.assertEquals("Post3", blogs.get(1).getPosts().get(0).getSubject());
+      Assert.assertEquals(2, StatementCounter.getCount());
+
+      // the triggering blog comes first, the batch is filled with the next pending ones
+      Assert.assertEquals(2, blogs.get(3).getPosts().size());
+      Assert.assertEquals(3, StatementCounter.getCount());
+      Assert.assertEquals("Post4", blogs.get(2).getPosts().get(0).getSubject());
+      Assert.assertEquals(3, StatementCounter.getCount());
+
+      Assert.assertTrue(blogs.get(4).getPosts().isEmpty());
+      Assert.assertEquals(4, StatementCounter.getCount());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldFallBackToNestedSelectPerRowForCursors() throws Exception {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Cursor<Blog> cursor = mapper.getBlogCursor();
+      List<Blog> blogs = new ArrayList<Blog>();
+      for (Blog blog : cursor) {
+        blogs.add(blog);
+      }
+      cursor.close();
+      Assert.assertEquals(5, blogs.size());
+      Assert.assertEquals("Author2", blogs.get(1).getAuthor().getName());
+      Assert.assertEquals(2, blogs.get(0).getPosts().size());
+      Assert.assertEquals(2, blogs.get(3).getPosts().size());
+      Assert.assertTrue(blogs.get(4).getPosts().isEmpty());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+}
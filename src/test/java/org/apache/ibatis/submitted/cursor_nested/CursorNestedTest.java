@@ -115,4 +115,41 @@ public class CursorNestedTest {
             sqlSession.close();
         }
     }
+
+    @Test
+    public void shouldStreamNestedResultMapsWithoutResultOrdered() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+        Mapper mapper = sqlSession.getMapper(Mapper.class);
+        Cursor<User> usersCursor = mapper.getAllUsersWithoutResultOrdered();
+
+        try {
+            Iterator<User> iterator = usersCursor.iterator();
+
+            // each parent must be complete when it is returned
+            User user = iterator.next();
+            Assert.assertEquals("User1", user.getName());
+            Assert.assertEquals(2, user.getGroups().size());
+            Assert.assertEquals(3, user.getRoles().size());
+
+            user = iterator.next();
+            Assert.assertEquals("User2", user.getName());
+            Assert.assertEquals(1, user.getGroups().size());
+            Assert.assertEquals(3, user.getRoles().size());
+
+            user = iterator.next();
+            Assert.assertEquals("User3", user.getName());
+            Assert.assertEquals(3, user.getGroups().size());
+            Assert.assertEquals(1, user.getRoles().size());
+
+            user = iterator.next();
+            Assert.assertEquals("User4", user.getName());
+            Assert.assertEquals(2, user.getGroups().size());
+            Assert.assertEquals(2, user.getRoles().size());
+
+            Assert.assertFalse(iterator.hasNext());
+            Assert.assertTrue(usersCursor.isConsumed());
+        } finally {
+            sqlSession.close();
+        }
+    }
 }
@@ -16,6 +16,8 @@
 package org.apache.ibatis.submitted.cursor_simple;
 
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorOptions;
+import org.apache.ibatis.cursor.Cursors;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.jdbc.ScriptRunner;
 import org.apache.ibatis.session.RowBounds;
@@ -30,6 +32,7 @@ import java.io.IOException;
 import java.io.Reader;
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -393,4 +396,106 @@ public class CursorSimpleTest {
         }
     }
 
+    @Test
+    public void shouldPrefetchWithCursorOptions() throws IOException {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            Cursor<User> usersCursor = sqlSession.selectCursor("getAllUsers", null, new CursorOptions(1, 3, 2, true, 2));
+            Assert.assertFalse(usersCursor.isOpen());
+            Assert.assertEquals(0, usersCursor.getCurrentIndex());
+
+            List<User> userList = new ArrayList<User>();
+            for (User user : usersCursor) {
+                userList.add(user);
+                Assert.assertEquals(userList.size(), usersCursor.getCurrentIndex());
+            }
+
+            Assert.assertEquals(3, userList.size());
+            Assert.assertEquals("User2", userList.get(0).getName());
+            Assert.assertEquals("User4", userList.get(2).getName());
+            Assert.assertFalse(usersCursor.isOpen());
+            Assert.assertTrue(usersCursor.isConsumed());
+        } finally {
+            sqlSession.close();
+        }
+    }
+
+    @Test
+    public void shouldStopPrefetchingOnClose() throws IOException {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+        Mapper mapper = sqlSession.getMapper(Mapper.class);
+        Cursor<User> usersCursor = mapper.getAllUsers(new CursorOptions(null, true, 1));
+
+        try {
+            Iterator<User> iterator = usersCursor.iterator();
+            Assert.assertEquals("User1", iterator.next().getName());
+            Assert.assertTrue(usersCursor.isOpen());
+
+            usersCursor.close();
+
+            Assert.assertFalse(iterator.hasNext());
+            Assert.assertFalse(usersCursor.isOpen());
+            Assert.assertFalse(usersCursor.isConsumed());
+        } finally {
+            sqlSession.close();
+        }
+    }
+
+    @Test
+    public void shouldStopPrefetchingWhenTheSessionIsUsed() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+        Mapper mapper = sqlSession.getMapper(Mapper.class);
+        Cursor<User> usersCursor = mapper.getAllUsers(new CursorOptions(null, true, 1));
+
+        try {
+            Iterator<User> iterator = usersCursor.iterator();
+            Assert.assertEquals("User1", iterator.next().getName());
+
+            List<User> users = sqlSession.selectList("getAllUsers");
+            Assert.assertEquals(5, users.size());
+
+            List<String> names = new ArrayList<String>();
+            while (iterator.hasNext()) {
+                names.add(iterator.next().getName());
+            }
+            Assert.assertEquals(Arrays.asList("User2", "User3", "User4", "User5"), names);
+            Assert.assertTrue(usersCursor.isConsumed());
+        } finally {
+            sqlSession.close();
+        }
+    }
+
+    @Test
+    public void shouldIterateInChunks() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+        Mapper mapper = sqlSession.getMapper(Mapper.class);
+        Cursor<User> usersCursor = mapper.getAllUsers();
+
+        try {
+            List<List<String>> names = new ArrayList<List<String>>();
+            List<User> previousChunk = null;
+            for (List<User> chunk : Cursors.chunks(usersCursor, 2)) {
+                if (previousChunk != null) {
+                    Assert.assertSame(previousChunk, chunk);
+                }
+                previousChunk = chunk;
+                List<String> chunkNames = new ArrayList<String>();
+                for (User user : chunk) {
+                    chunkNames.add(user.getName());
+                }
+                names.add(chunkNames);
+            }
+
+            Assert.assertEquals(3, names.size());
+            Assert.assertEquals(Arrays.asList("User1", "User2"), names.get(0));
+            Assert.assertEquals(Arrays.asList("User3", "User4"), names.get(1));
+            Assert.assertEquals(Arrays.asList("User5"), names.get(2));
+            Assert.assertTrue(usersCursor.isConsumed());
+            Assert.assertEquals(4, usersCursor.getCurrentIndex());
+        } finally {
+            sqlSession.close();
+        }
+    }
+
 }
@@ -0,0 +1,158 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.tracing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TracerTest extends BaseDataTest {
+
+  private static final String SELECT_ALL_AUTHORS = "org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAllAuthors";
+  private static final String SELECT_BLOG = "org.apache.ibatis.domain.blog.mappers.BlogMapper.selectBlogWithPostsUsingSubSelect";
+  private static final String SELECT_POSTS = "org.apache.ibatis.domain.blog.mappers.BlogMapper.selectPostsForBlog";
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private InMemoryTracer tracer;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    createBlogDataSource();
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/builder/MapperConfig.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+  }
+
+  @Before
+  public void setUpTracer() {
+    tracer = new InMemoryTracer();
+    sqlSessionFactory.getConfiguration().setTracer(tracer);
+  }
+
+  @After
+  public void resetTracer() {
+    sqlSessionFactory.getConfiguration().setTracer(null);
+  }
+
+  @Test
+  public void shouldTraceQueries() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Object> authors = sqlSession.selectList(SELECT_ALL_AUTHORS);
+      List<InMemoryTracer.Span> spans = tracer.getSpans();
+      assertEquals(1, spans.size());
+      InMemoryTracer.Span span = spans.get(0);
+      assertEquals(SELECT_ALL_AUTHORS, span.getStatementId());
+      assertTrue(span.getSql().toLowerCase().contains("from author"));
+      assertEquals(authors.size(), span.getRows());
+      assertNull(span.getParent());
+      assertNull(span.getFailure());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldTraceNestedQueriesAsChildren() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      sqlSession.selectOne(SELECT_BLOG, 1);
+      List<InMemoryTracer.Span> spans = tracer.getSpans();
+      InMemoryTracer.Span blogSpan = spans.get(spans.size() - 1);
+      assertEquals(SELECT_BLOG, blogSpan.getStatementId());
+      InMemoryTracer.Span postsSpan = null;
+      for (InMemoryTracer.Span span : spans) {
+        if (SELECT_POSTS.equals(span.getStatementId())) {
+          postsSpan = span;
+        }
+      }
+      assertNotNull(postsSpan);
+      assertSame(blogSpan, postsSpan.getParent());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldTraceUpdatesAndFailures() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      sqlSession.delete("org.apache.ibatis.domain.blog.mappers.AuthorMapper.deleteAuthor", -1);
+      try {
+        sqlSession.selectList("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthorWithInlineParams", "not a number");
+      } catch (RuntimeException e) {
+        // expected
+      }
+      List<InMemoryTracer.Span> spans = tracer.getSpans();
+      assertEquals(2, spans.size());
+      assertEquals(0, spans.get(0).getRows());
+      assertTrue(spans.get(0).getSql().toLowerCase().startsWith("delete"));
+      assertEquals(TraceSpan.UNKNOWN_ROWS, spans.get(1).getRows());
+      assertNotNull(spans.get(1).getFailure());
+    } finally {
+      sqlSession.rollback();
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldEndCursorSpanOnClose() throws Exception {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Cursor<Object> cursor = sqlSession.selectCursor(SELECT_ALL_AUTHORS);
+      cursor.iterator().next();
+      assertEquals(0, tracer.getSpans().size());
+      cursor.close();
+      List<InMemoryTracer.Span> spans = tracer.getSpans();
+      assertEquals(1, spans.size());
+      assertEquals(1, spans.get(0).getRows());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldSampleOneCallOutOfInterval() {
+    sqlSessionFactory.getConfiguration().setTracer(new SamplingTracer(tracer, 3));
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      for (int i = 0; i < 6; i++) {
+        sqlSession.selectList(SELECT_ALL_AUTHORS);
+        sqlSession.clearCache();
+      }
+      assertEquals(2, tracer.getSpans().size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+}
@@ -71,4 +71,12 @@ public class DoubleTypeHandlerTest extends BaseTypeHandlerTest {
     // Unnecessary
   }
 
-}
\ No newline at end of file
+  @Test
+  public void shouldGetPrimitiveValues() throws Exception {
+    when(rs.getDouble("column")).thenReturn(100d);
+    when(rs.getDouble(1)).thenReturn(100d);
+    assertEquals(100d, ((DoubleTypeHandler) TYPE_HANDLER).getDouble(rs, "column"), 0d);
+    assertEquals(100d, ((DoubleTypeHandler) TYPE_HANDLER).getDouble(rs, 1), 0d);
+  }
+
+}
@@ -71,4 +71,12 @@ public class IntegerTypeHandlerTest extends BaseTypeHandlerTest {
     // Unnecessary
   }
 
-}
\ No newline at end of file
+  @Test
+  public void shouldGetPrimitiveValues() throws Exception {
+    when(rs.getInt("column")).thenReturn(100);
+    when(rs.getInt(1)).thenReturn(100);
+    assertEquals(100, ((IntegerTypeHandler) TYPE_HANDLER).getInt(rs, "column"));
+    assertEquals(100, ((IntegerTypeHandler) TYPE_HANDLER).getInt(rs, 1));
+  }
+
+}
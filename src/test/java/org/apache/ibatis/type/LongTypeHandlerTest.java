@@ -71,4 +71,12 @@ public class LongTypeHandlerTest extends BaseTypeHandlerTest {
     // Unnecessary
   }
 
-}
\ No newline at end of file
+  @Test
+  public void shouldGetPrimitiveValues() throws Exception {
+    when(rs.getLong("column")).thenReturn(100L);
+    when(rs.getLong(1)).thenReturn(100L);
+    assertEquals(100L, ((LongTypeHandler) TYPE_HANDLER).getLong(rs, "column"));
+    assertEquals(100L, ((LongTypeHandler) TYPE_HANDLER).getLong(rs, 1));
+  }
+
+}
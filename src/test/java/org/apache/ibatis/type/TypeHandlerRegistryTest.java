@@ -17,6 +17,7 @@ package org.apache.ibatis.type;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
@@ -159,4 +160,20 @@ public class TypeHandlerRegistryTest {
     }
     assertEquals(DateTypeHandler.class, typeHandlerRegistry.getTypeHandler(MyDate2.class).getClass());
   }
+
+  @Test
+  public void shouldRefreshResolvedHandlersWhenHandlersAreRegistered() throws Exception {
+    assertNull(typeHandlerRegistry.getTypeHandler(RichType.class, JdbcType.VARCHAR));
+    assertNull(typeHandlerRegistry.getTypeHandler(RichType.class, JdbcType.VARCHAR));
+    TypeHandler<String> stringTypeHandler = typeHandlerRegistry.getTypeHandler(String.class);
+    assertSame(stringTypeHandler, typeHandlerRegistry.getTypeHandler(String.class));
+
+    StringTypeHandler longVarcharHandler = new StringTypeHandler();
+    typeHandlerRegistry.register(String.class, JdbcType.LONGVARCHAR, longVarcharHandler);
+    assertSame(longVarcharHandler, typeHandlerRegistry.getTypeHandler(String.class, JdbcType.LONGVARCHAR));
+    assertSame(stringTypeHandler, typeHandlerRegistry.getTypeHandler(String.class));
+
+    typeHandlerRegistry.register(RichType.class.getName(), ObjectTypeHandler.class.getName());
+    assertSame(ObjectTypeHandler.class, typeHandlerRegistry.getTypeHandler(RichType.class, JdbcType.VARCHAR).getClass());
+  }
 }